@@ -0,0 +1,118 @@
+#!/usr/bin/env bash
+#
+# Time to first successful request and resident memory of the JVM and native builds.
+#
+# Build what you want to compare first:
+#
+#   ./mvnw package -DskipTests            # target/quarkus-app/quarkus-run.jar
+#   ./mvnw package -DskipTests -Dnative   # target/*-runner
+#
+# Then run, against a database the prod profile can reach (QUARKUS_DATASOURCE_JDBC_URL,
+# QUARKUS_DATASOURCE_USERNAME and QUARKUS_DATASOURCE_PASSWORD are passed through):
+#
+#   benchmark/startup.sh [jvm|native|both] [runs]
+#
+# Every run starts the application, polls PROBE_PATH until it answers 2xx, reads the RSS of the
+# process at that moment and again after WARM_REQUESTS more requests, then stops it. One line per
+# run plus the median per mode go to stdout and to target/startup-benchmark.csv.
+
+set -euo pipefail
+
+MODE="${1:-both}"
+RUNS="${2:-5}"
+PORT="${PORT:-8080}"
+PROBE_PATH="${PROBE_PATH:-/warehouse}"
+WARM_REQUESTS="${WARM_REQUESTS:-100}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-60}"
+PROFILE_JVM="${PROFILE_JVM:-prod}"
+PROFILE_NATIVE="${PROFILE_NATIVE:-prod,native}"
+
+cd "$(dirname "$0")/.."
+RESULTS=target/startup-benchmark.csv
+URL="http://localhost:${PORT}${PROBE_PATH}"
+
+now_ms() {
+  date +%s%3N
+}
+
+rss_kb() {
+  ps -o rss= -p "$1" | tr -d ' '
+}
+
+command_for() {
+  case "$1" in
+    jvm)
+      [[ -f target/quarkus-app/quarkus-run.jar ]] || { echo "No JVM build, run ./mvnw package first" >&2; exit 1; }
+      echo "java -Dquarkus.http.port=${PORT} -Dquarkus.profile=${PROFILE_JVM} -jar target/quarkus-app/quarkus-run.jar"
+      ;;
+    native)
+      local runner
+      runner=$(ls target/*-runner 2>/dev/null | head -n 1 || true)
+      [[ -n "$runner" ]] || { echo "No native build, run ./mvnw package -Dnative first" >&2; exit 1; }
+      echo "$runner -Dquarkus.http.port=${PORT} -Dquarkus.profile=${PROFILE_NATIVE}"
+      ;;
+    *)
+      echo "Unknown mode '$1', use jvm, native or both" >&2
+      exit 1
+      ;;
+  esac
+}
+
+run_once() {
+  local mode=$1 run=$2 command started pid first_ms rss_first rss_warm
+  command=$(command_for "$mode")
+  started=$(now_ms)
+  $command > "target/startup-${mode}-${run}.log" 2>&1 &
+  pid=$!
+
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$mode run $run: application exited, see target/startup-${mode}-${run}.log" >&2
+      exit 1
+    fi
+    if (( $(now_ms) - started > TIMEOUT_SECONDS * 1000 )); then
+      kill "$pid"
+      echo "$mode run $run: no successful request within ${TIMEOUT_SECONDS}s" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  first_ms=$(( $(now_ms) - started ))
+  rss_first=$(rss_kb "$pid")
+
+  for (( i = 0; i < WARM_REQUESTS; i++ )); do
+    curl -sf -o /dev/null "$URL" || true
+  done
+  rss_warm=$(rss_kb "$pid")
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$mode,$run,$first_ms,$(( rss_first / 1024 )),$(( rss_warm / 1024 ))" | tee -a "$RESULTS"
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { if (NR % 2) print values[(NR + 1) / 2]; else print int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+case "$MODE" in
+  both) MODES=(jvm native) ;;
+  *) MODES=("$MODE") ;;
+esac
+
+mkdir -p target
+echo "mode,run,first_request_ms,rss_first_mb,rss_after_${WARM_REQUESTS}_mb" | tee "$RESULTS"
+for mode in "${MODES[@]}"; do
+  for (( run = 1; run <= RUNS; run++ )); do
+    run_once "$mode" "$run"
+  done
+done
+
+echo
+printf '%-8s %20s %16s %24s\n' mode "median first ms" "median RSS MB" "median RSS MB after ${WARM_REQUESTS}"
+for mode in "${MODES[@]}"; do
+  rows=$(grep "^${mode}," "$RESULTS")
+  printf '%-8s %20s %16s %24s\n' "$mode" \
+    "$(cut -d, -f3 <<< "$rows" | median)" \
+    "$(cut -d, -f4 <<< "$rows" | median)" \
+    "$(cut -d, -f5 <<< "$rows" | median)"
+done
@@ -0,0 +1,30 @@
+package com.fulfilment.application.monolith.associations;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed entry of the association change feed.
+ */
+public class AssociationChange {
+    // The feed run the sequence belongs to
+    public String epoch;
+    public long sequence;
+    public AssociationEventType type;
+    public String warehouseBusinessUnitCode;
+    public Long productId;
+    public Long storeId;
+    public LocalDateTime committedAt;
+
+    public AssociationChange() {
+    }
+
+    public AssociationChange(String epoch, long sequence, AssociationEvent event, LocalDateTime committedAt) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.type = event.getType();
+        this.warehouseBusinessUnitCode = event.getWarehouseBusinessUnitCode();
+        this.productId = event.getProductId();
+        this.storeId = event.getStoreId();
+        this.committedAt = committedAt;
+    }
+}
@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.associations;
+
+import com.fulfilment.application.monolith.associations.exceptions.ChangeFeedExpiredException;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Committed association changes, numbered by a monotonically increasing sequence.
+ *
+ * <p>The most recent {@code retention} changes are kept in a ring buffer, so reading the
+ * changes after a sequence costs only the size of the delta. Sequences restart with the
+ * process, which starts a new random {@code epoch}; a consumer asking for changes that are no
+ * longer retained, from another epoch, or after a sequence this feed has not reached gets a
+ * {@link ChangeFeedExpiredException} and must resync from the full list.
+ */
+@ApplicationScoped
+public class AssociationChangeFeed {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final AssociationChange[] ring;
+    private final List<MultiEmitter<? super AssociationChange>> subscribers = new ArrayList<>();
+    private long latestSequence;
+
+    public AssociationChangeFeed(
+            @ConfigProperty(name = "associations.change-feed.retention", defaultValue = "10000") int retention) {
+        this.ring = new AssociationChange[retention];
+    }
+
+    public void onAssociationChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AssociationEvent event) {
+        record(event);
+    }
+
+    public synchronized AssociationChange record(AssociationEvent event) {
+        AssociationChange change = new AssociationChange(epoch, ++latestSequence, event, LocalDateTime.now());
+        ring[slot(change.sequence)] = change;
+        // Emitting under the lock keeps every subscriber's view in sequence order
+        subscribers.forEach(subscriber -> subscriber.emit(change));
+        return change;
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    public synchronized long latestSequence() {
+        return latestSequence;
+    }
+
+    /**
+     * Like {@link #changesSince(long, int)} for a consumer that last read {@code since} in the given
+     * epoch; a null epoch is taken to be the current one.
+     */
+    public synchronized List<AssociationChange> changesSince(String sinceEpoch, long since, int limit) {
+        if (sinceEpoch != null && !sinceEpoch.equals(epoch)) {
+            throw new ChangeFeedExpiredException(since, epoch, latestSequence);
+        }
+        return changesSince(since, limit);
+    }
+
+    public synchronized List<AssociationChange> changesSince(long since, int limit) {
+        if (since > latestSequence) {
+            // Read from an earlier run of the feed, or from another instance
+            throw new ChangeFeedExpiredException(since, epoch, latestSequence);
+        }
+        long oldestRetained = Math.max(1, latestSequence - ring.length + 1);
+        if (since + 1 < oldestRetained) {
+            throw new ChangeFeedExpiredException(since, oldestRetained);
+        }
+        long last = Math.min(latestSequence, since + limit);
+        List<AssociationChange> changes = new ArrayList<>((int) Math.max(0, last - since));
+        for (long sequence = Math.max(since + 1, oldestRetained); sequence <= last; sequence++) {
+            changes.add(ring[slot(sequence)]);
+        }
+        return changes;
+    }
+
+    /**
+     * Replays the retained changes after {@code since}, then follows live changes, without gaps
+     * or duplicates between the two.
+     */
+    public Multi<AssociationChange> stream(long since) {
+        return Multi.createFrom().emitter(emitter -> {
+            synchronized (this) {
+                changesSince(since, ring.length).forEach(emitter::emit);
+                subscribers.add(emitter);
+            }
+            emitter.onTermination(() -> unsubscribe(emitter));
+        });
+    }
+
+    private synchronized void unsubscribe(MultiEmitter<? super AssociationChange> emitter) {
+        subscribers.remove(emitter);
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % ring.length);
+    }
+}
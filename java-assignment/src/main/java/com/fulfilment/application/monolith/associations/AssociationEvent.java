@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.associations;
+
+/**
+ * Fired inside the transaction that changes associations. Observers interested in committed state
+ * use {@code TransactionPhase.AFTER_SUCCESS}. For {@link AssociationEventType#BULK_DELETE} only the
+ * field that scoped the delete (warehouse, product or store) is set.
+ */
+public class AssociationEvent {
+    private final AssociationEventType type;
+    private final String warehouseBusinessUnitCode;
+    private final Long productId;
+    private final Long storeId;
+
+    public AssociationEvent(
+            AssociationEventType type, String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        this.type = type;
+        this.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
+        this.productId = productId;
+        this.storeId = storeId;
+    }
+
+    public static AssociationEvent created(String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        return new AssociationEvent(AssociationEventType.CREATE, warehouseBusinessUnitCode, productId, storeId);
+    }
+
+    public static AssociationEvent deleted(String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        return new AssociationEvent(AssociationEventType.DELETE, warehouseBusinessUnitCode, productId, storeId);
+    }
+
+    public static AssociationEvent bulkDeleted(String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        return new AssociationEvent(AssociationEventType.BULK_DELETE, warehouseBusinessUnitCode, productId, storeId);
+    }
+
+    public AssociationEventType getType() {
+        return type;
+    }
+
+    public String getWarehouseBusinessUnitCode() {
+        return warehouseBusinessUnitCode;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.associations;
+
+
+public enum AssociationEventType {
+    CREATE,
+    DELETE,
+    BULK_DELETE
+}
@@ -1,14 +1,23 @@
 package com.fulfilment.application.monolith.associations;
 
+import com.fulfilment.application.monolith.datasource.ReadOnlySessions;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
+@Timed(value = Metrics.REPOSITORY_TIMER, histogram = true)
+@Traced
 public class AssociationRepository implements PanacheRepository<WarehouseProductStoreAssociation> {
 
+    @Inject
+    ReadOnlySessions readOnlySessions;
 
     public long countWarehousesByProductAndStore(Long productId, Long storeId) {
         return count(
@@ -19,27 +28,37 @@ public class AssociationRepository implements PanacheRepository<WarehouseProduct
 
     public long countDistinctWarehousesByStore(Long storeId) {
         return find(
-                "select count(distinct warehouseBusinessUnitCode) from WarehouseProductStoreAssociation where storeId = ?1",
+                "select count(distinct warehouseId) from WarehouseProductStoreAssociation where storeId = ?1",
                 storeId)
                 .project(Long.class)
                 .firstResult();
     }
 
 
-    public long countDistinctProductsByWarehouse(String warehouseBusinessUnitCode) {
+    public long countDistinctProductsByWarehouse(Long warehouseId) {
         return find(
-                "select count(distinct productId) from WarehouseProductStoreAssociation where warehouseBusinessUnitCode = ?1",
-                warehouseBusinessUnitCode)
+                "select count(distinct productId) from WarehouseProductStoreAssociation where warehouseId = ?1",
+                warehouseId)
                 .project(Long.class)
                 .firstResult();
     }
 
 
+    public boolean existsByStoreAndWarehouse(Long storeId, Long warehouseId) {
+        return count("storeId = ?1 and warehouseId = ?2", storeId, warehouseId) > 0;
+    }
+
+
+    public boolean existsByWarehouseAndProduct(Long warehouseId, Long productId) {
+        return count("warehouseId = ?1 and productId = ?2", warehouseId, productId) > 0;
+    }
+
+
     public Optional<WarehouseProductStoreAssociation> findByCompositeKey(
-            String warehouseBusinessUnitCode, Long productId, Long storeId) {
+            Long warehouseId, Long productId, Long storeId) {
         return find(
-                "warehouseBusinessUnitCode = ?1 and productId = ?2 and storeId = ?3",
-                warehouseBusinessUnitCode,
+                "warehouseId = ?1 and productId = ?2 and storeId = ?3",
+                warehouseId,
                 productId,
                 storeId)
                 .firstResultOptional();
@@ -47,9 +66,9 @@ public class AssociationRepository implements PanacheRepository<WarehouseProduct
 
     @Transactional
     public WarehouseProductStoreAssociation createAssociation(
-            String warehouseBusinessUnitCode, Long productId, Long storeId) {
-        WarehouseProductStoreAssociation association = new WarehouseProductStoreAssociation(warehouseBusinessUnitCode,
-                productId, storeId);
+            Long warehouseId, String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        WarehouseProductStoreAssociation association = new WarehouseProductStoreAssociation(warehouseId,
+                warehouseBusinessUnitCode, productId, storeId);
         persist(association);
         return association;
     }
@@ -57,16 +76,96 @@ public class AssociationRepository implements PanacheRepository<WarehouseProduct
 
     @Transactional
     public void deleteAssociation(
-            String warehouseBusinessUnitCode, Long productId, Long storeId) {
+            Long warehouseId, Long productId, Long storeId) {
         delete(
-                "warehouseBusinessUnitCode = ?1 and productId = ?2 and storeId = ?3",
-                warehouseBusinessUnitCode,
+                "warehouseId = ?1 and productId = ?2 and storeId = ?3",
+                warehouseId,
                 productId,
                 storeId);
     }
 
 
+    public long deleteByStore(Long storeId) {
+        return delete("storeId = ?1", storeId);
+    }
+
+
+    public long deleteByProduct(Long productId) {
+        return delete("productId = ?1", productId);
+    }
+
+
+    public long deleteByWarehouse(Long warehouseId) {
+        return delete("warehouseId = ?1", warehouseId);
+    }
+
+
+    /**
+     * Points associations of archived warehouse rows with this business unit code at the active row.
+     */
+    public long relinkToActiveWarehouse(String warehouseBusinessUnitCode) {
+        return update(
+                "warehouseId = (select w.id from DbWarehouse w where w.businessUnitCode = ?1 and w.archivedAt is null) "
+                        + "where warehouseId in "
+                        + "(select w.id from DbWarehouse w where w.businessUnitCode = ?1 and w.archivedAt is not null)",
+                warehouseBusinessUnitCode);
+    }
+
+
+    public List<ServingWarehouse> findServingWarehouses(Long productId, Long storeId) {
+        return getEntityManager()
+                .createQuery(
+                        "select new com.fulfilment.application.monolith.associations.ServingWarehouse("
+                                + "w.businessUnitCode, w.location, w.stock, w.capacity) "
+                                + "from WarehouseProductStoreAssociation a join a.warehouse w "
+                                + "where w.archivedAt is null and a.productId = ?1 and a.storeId = ?2 "
+                                + "order by w.businessUnitCode",
+                        ServingWarehouse.class)
+                .setParameter(1, productId)
+                .setParameter(2, storeId)
+                .getResultList();
+    }
+
+
     public List<WarehouseProductStoreAssociation> findAllAssociations() {
-        return listAll();
+        return readOnlySessions.read(session -> withBusinessUnitCodes(session
+                .createSelectionQuery(
+                        "select a, w.businessUnitCode from WarehouseProductStoreAssociation a join a.warehouse w",
+                        Object[].class)
+                .getResultList()));
+    }
+
+
+    /**
+     * Associations that touch any of the given stores or warehouses, i.e. everything that counts
+     * towards the per-store and per-warehouse limits for them.
+     */
+    public List<WarehouseProductStoreAssociation> findByStoresOrWarehouses(
+            List<Long> storeIds, List<Long> warehouseIds) {
+        if (storeIds.isEmpty() && warehouseIds.isEmpty()) {
+            return List.of();
+        }
+        // An empty IN list is not portable, so pad it with an id that never matches
+        List<Long> stores = storeIds.isEmpty() ? List.of(-1L) : storeIds;
+        List<Long> warehouses = warehouseIds.isEmpty() ? List.of(-1L) : warehouseIds;
+        return withBusinessUnitCodes(getEntityManager()
+                .createQuery(
+                        "select a, w.businessUnitCode from WarehouseProductStoreAssociation a join a.warehouse w "
+                                + "where a.storeId in ?1 or a.warehouseId in ?2",
+                        Object[].class)
+                .setParameter(1, stores)
+                .setParameter(2, warehouses)
+                .getResultList());
+    }
+
+
+    private static List<WarehouseProductStoreAssociation> withBusinessUnitCodes(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> {
+                    WarehouseProductStoreAssociation association = (WarehouseProductStoreAssociation) row[0];
+                    association.warehouseBusinessUnitCode = (String) row[1];
+                    return association;
+                })
+                .toList();
     }
 }
@@ -1,21 +1,32 @@
 package com.fulfilment.application.monolith.associations;
 
 import com.fulfilment.application.monolith.associations.exceptions.AssociationAlreadyExistsException;
+import com.fulfilment.application.monolith.associations.exceptions.AssociationDomainException;
 import com.fulfilment.application.monolith.associations.exceptions.AssociationNotFoundException;
+import com.fulfilment.application.monolith.associations.exceptions.ChangeFeedExpiredException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxProductsPerWarehouseExceededException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxWarehousesPerProductStoreExceededException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxWarehousesPerStoreExceededException;
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
 import com.fulfilment.application.monolith.associations.usecases.CreateAssociationUseCase;
 import com.fulfilment.application.monolith.associations.usecases.DeleteAssociationUseCase;
+import com.fulfilment.application.monolith.associations.usecases.FindServingWarehousesUseCase;
+import com.fulfilment.application.monolith.associations.solver.AssignmentSolution;
 import com.fulfilment.application.monolith.associations.usecases.GetAssociationsUseCase;
+import com.fulfilment.application.monolith.associations.usecases.SolveAssociationsUseCase;
+import com.fulfilment.application.monolith.serialization.Cbor;
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 @Path("/associations")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, Cbor.MEDIA_TYPE})
 @Consumes(MediaType.APPLICATION_JSON)
 public class AssociationResource {
 
@@ -28,6 +39,20 @@ public class AssociationResource {
     @Inject
     GetAssociationsUseCase getAssociationsUseCase;
 
+    @Inject
+    CleanupAssociationsUseCase cleanupAssociationsUseCase;
+
+    @Inject
+    FindServingWarehousesUseCase findServingWarehousesUseCase;
+
+    @Inject
+    AssociationChangeFeed associationChangeFeed;
+
+    @Inject
+    SolveAssociationsUseCase solveAssociationsUseCase;
+
+    private static final int MAX_CHANGES_PER_PAGE = 5000;
+
     @POST
     public Response createAssociation(AssociationRequest request) {
         try {
@@ -51,12 +76,84 @@ public class AssociationResource {
         }
     }
 
+    @POST
+    @Path("/solve")
+    public Response solveAssociations(SolveRequest request) {
+        try {
+            AssignmentSolution solution = solveAssociationsUseCase.solve(
+                    request.storeIds,
+                    request.productIds,
+                    request.warehouseBusinessUnitCodes,
+                    request.timeBudgetMillis != null ? Duration.ofMillis(request.timeBudgetMillis) : null);
+            int applied = request.apply ? solveAssociationsUseCase.apply(solution) : 0;
+            return Response.ok(new SolveResponse(solution, applied)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        } catch (AssociationDomainException e) {
+            // The associations changed between solving and applying; nothing was written
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+    }
+
     @GET
     public Response getAllAssociations() {
         List<WarehouseProductStoreAssociation> associations = getAssociationsUseCase.getAll();
         return Response.ok(associations).build();
     }
 
+    @GET
+    @Path("/serving")
+    public Response getServingWarehouses(
+            @QueryParam("productId") Long productId,
+            @QueryParam("storeId") Long storeId) {
+        try {
+            List<ServingWarehouse> warehouses = findServingWarehousesUseCase.find(productId, storeId);
+            return Response.ok(warehouses).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/changes")
+    public Response getChanges(
+            @QueryParam("since") @DefaultValue("0") long since,
+            @QueryParam("epoch") String epoch,
+            @QueryParam("limit") @DefaultValue("500") int limit) {
+        try {
+            long latestSequence = associationChangeFeed.latestSequence();
+            List<AssociationChange> changes = associationChangeFeed.changesSince(
+                    epoch, since, Math.max(1, Math.min(limit, MAX_CHANGES_PER_PAGE)));
+            return Response.ok(new ChangesResponse(associationChangeFeed.epoch(), latestSequence, changes)).build();
+        } catch (ChangeFeedExpiredException e) {
+            return Response.status(Response.Status.GONE)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/changes/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<AssociationChange> streamChanges(
+            @QueryParam("since") Long since,
+            @QueryParam("epoch") String epoch) {
+        long from = since != null ? since : associationChangeFeed.latestSequence();
+        try {
+            associationChangeFeed.changesSince(epoch, from, 0);
+        } catch (ChangeFeedExpiredException e) {
+            throw new WebApplicationException(e.getMessage(), Response.Status.GONE);
+        }
+        return associationChangeFeed.stream(from);
+    }
+
     @DELETE
     @Path("/{warehouseCode}/{productId}/{storeId}")
     public Response deleteAssociation(
@@ -73,6 +170,24 @@ public class AssociationResource {
         }
     }
 
+    @DELETE
+    @Path("/store/{storeId}")
+    public Response deleteAssociationsByStore(@PathParam("storeId") Long storeId) {
+        return Response.ok(new CleanupResponse(cleanupAssociationsUseCase.removeByStore(storeId))).build();
+    }
+
+    @DELETE
+    @Path("/product/{productId}")
+    public Response deleteAssociationsByProduct(@PathParam("productId") Long productId) {
+        return Response.ok(new CleanupResponse(cleanupAssociationsUseCase.removeByProduct(productId))).build();
+    }
+
+    @DELETE
+    @Path("/warehouse/{warehouseCode}")
+    public Response deleteAssociationsByWarehouse(@PathParam("warehouseCode") String warehouseCode) {
+        return Response.ok(new CleanupResponse(cleanupAssociationsUseCase.removeByWarehouse(warehouseCode))).build();
+    }
+
     // Request DTO
     public static class AssociationRequest {
         public String warehouseBusinessUnitCode;
@@ -89,6 +204,71 @@ public class AssociationResource {
         }
     }
 
+    // Solver request DTO
+    public static class SolveRequest {
+        public List<Long> storeIds;
+        public List<Long> productIds;
+        public List<String> warehouseBusinessUnitCodes;
+        public Long timeBudgetMillis;
+        public boolean apply;
+
+        public SolveRequest() {
+        }
+    }
+
+    // Solver response DTO
+    public static class SolveResponse {
+        public List<AssignmentSolution.Assignment> assignments;
+        public List<AssignmentSolution.Pair> uncovered;
+        public int alreadyCovered;
+        public Map<String, Integer> warehouseLoad;
+        public double maxUtilization;
+        public long restarts;
+        public int applied;
+
+        public SolveResponse() {
+        }
+
+        public SolveResponse(AssignmentSolution solution, int applied) {
+            this.assignments = solution.assignments();
+            this.uncovered = solution.uncovered();
+            this.alreadyCovered = solution.alreadyCovered();
+            this.warehouseLoad = solution.warehouseLoad();
+            this.maxUtilization = solution.maxUtilization();
+            this.restarts = solution.restarts();
+            this.applied = applied;
+        }
+    }
+
+    // Bulk cleanup response DTO
+    public static class CleanupResponse {
+        public long deleted;
+
+        public CleanupResponse() {
+        }
+
+        public CleanupResponse(long deleted) {
+            this.deleted = deleted;
+        }
+    }
+
+    // Change feed page DTO
+    public static class ChangesResponse {
+        // Pass back with since; a new epoch means the feed restarted and sequences began again
+        public String epoch;
+        public long latestSequence;
+        public List<AssociationChange> changes;
+
+        public ChangesResponse() {
+        }
+
+        public ChangesResponse(String epoch, long latestSequence, List<AssociationChange> changes) {
+            this.epoch = epoch;
+            this.latestSequence = latestSequence;
+            this.changes = changes;
+        }
+    }
+
     // Error response DTO
     public static class ErrorResponse {
         public String error;
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.associations;
+
+/**
+ * Stock a product can draw on across the network: the summed stock of the distinct warehouses
+ * and stores linked to it through associations.
+ */
+public class ProductAvailability {
+    public Long productId;
+    public long warehouseStock;
+    public long storeStock;
+    public long totalStock;
+    public int warehouses;
+    public int stores;
+
+    public ProductAvailability() {
+    }
+
+    public ProductAvailability(Long productId, long warehouseStock, long storeStock, int warehouses, int stores) {
+        this.productId = productId;
+        this.warehouseStock = warehouseStock;
+        this.storeStock = storeStock;
+        this.totalStock = warehouseStock + storeStock;
+        this.warehouses = warehouses;
+        this.stores = stores;
+    }
+}
@@ -0,0 +1,209 @@
+package com.fulfilment.application.monolith.associations;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-product stock totals over the linked warehouses and stores, maintained by deltas.
+ *
+ * <p>Each product keeps its (warehouse, store) links and reference counts of the distinct
+ * warehouses and stores among them, and reverse indexes map a warehouse or store to the products
+ * linked to it. A stock change therefore touches only the products linked to that warehouse or
+ * store, and a link change only its own product. Changes are serialized; reads are a map lookup
+ * of the totals published by the last change.
+ *
+ * <p>Stock changes carry the version of the row they come from. A change older than the last one
+ * applied for the same warehouse or store is ignored, as is a change at the version of a removal.
+ */
+final class ProductAvailabilityAggregate {
+
+    private final Map<String, Integer> warehouseStock = new HashMap<>();
+    private final Map<Long, Integer> storeStock = new HashMap<>();
+    // Latest applied version per warehouse code and store, kept after a removal to hold off late changes
+    private final Map<String, Long> warehouseVersions = new HashMap<>();
+    private final Map<Long, Long> storeVersions = new HashMap<>();
+    private final Map<Long, Links> links = new HashMap<>();
+    private final Map<String, Set<Long>> productsByWarehouse = new HashMap<>();
+    private final Map<Long, Set<Long>> productsByStore = new HashMap<>();
+    // Holds an entry for every known product, linked or not
+    private final Map<Long, ProductAvailability> published = new ConcurrentHashMap<>();
+
+    /**
+     * @return the totals of the product, or {@code null} if the product is unknown
+     */
+    ProductAvailability get(Long productId) {
+        return published.get(productId);
+    }
+
+    synchronized void productAdded(Long productId) {
+        published.put(productId, totals(productId));
+    }
+
+    synchronized void productRemoved(Long productId) {
+        unlinkWhere(productId, pair -> true);
+        published.remove(productId);
+    }
+
+    synchronized void linked(Long productId, String warehouseBusinessUnitCode, Long storeId) {
+        Links productLinks = links.computeIfAbsent(productId, key -> new Links());
+        if (!productLinks.pairs.add(new Pair(warehouseBusinessUnitCode, storeId))) {
+            return;
+        }
+        if (productLinks.warehouses.merge(warehouseBusinessUnitCode, 1, Integer::sum) == 1) {
+            productLinks.warehouseStock += warehouseStock.getOrDefault(warehouseBusinessUnitCode, 0);
+            productsByWarehouse.computeIfAbsent(warehouseBusinessUnitCode, key -> new HashSet<>()).add(productId);
+        }
+        if (productLinks.stores.merge(storeId, 1, Integer::sum) == 1) {
+            productLinks.storeStock += storeStock.getOrDefault(storeId, 0);
+            productsByStore.computeIfAbsent(storeId, key -> new HashSet<>()).add(productId);
+        }
+        publish(productId);
+    }
+
+    synchronized void unlinked(Long productId, String warehouseBusinessUnitCode, Long storeId) {
+        Pair link = new Pair(warehouseBusinessUnitCode, storeId);
+        unlinkWhere(productId, link::equals);
+    }
+
+    synchronized void productUnlinked(Long productId) {
+        unlinkWhere(productId, pair -> true);
+    }
+
+    synchronized void storeUnlinked(Long storeId) {
+        Set<Long> products = productsByStore.get(storeId);
+        if (products != null) {
+            List.copyOf(products).forEach(productId -> unlinkWhere(productId, pair -> pair.store().equals(storeId)));
+        }
+    }
+
+    synchronized void warehouseUnlinked(String warehouseBusinessUnitCode) {
+        Set<Long> products = productsByWarehouse.get(warehouseBusinessUnitCode);
+        if (products != null) {
+            List.copyOf(products).forEach(productId ->
+                    unlinkWhere(productId, pair -> pair.warehouse().equals(warehouseBusinessUnitCode)));
+        }
+    }
+
+    /**
+     * @param stock the warehouse's stock, or {@code null} once it is no longer active
+     * @param version id of the warehouse row the stock belongs to
+     */
+    synchronized void warehouseStockChanged(String warehouseBusinessUnitCode, Integer stock, long version) {
+        if (stale(warehouseVersions, warehouseStock, warehouseBusinessUnitCode, version)) {
+            return;
+        }
+        warehouseVersions.put(warehouseBusinessUnitCode, version);
+        Integer previous = stock != null
+                ? warehouseStock.put(warehouseBusinessUnitCode, stock)
+                : warehouseStock.remove(warehouseBusinessUnitCode);
+        long delta = valueOf(stock) - valueOf(previous);
+        Set<Long> products = productsByWarehouse.get(warehouseBusinessUnitCode);
+        if (delta != 0 && products != null) {
+            for (Long productId : products) {
+                links.get(productId).warehouseStock += delta;
+                publish(productId);
+            }
+        }
+    }
+
+    /**
+     * @param stock the store's stock, or {@code null} once it is deleted
+     * @param version version of the store row
+     */
+    synchronized void storeStockChanged(Long storeId, Integer stock, long version) {
+        if (stale(storeVersions, storeStock, storeId, version)) {
+            return;
+        }
+        storeVersions.put(storeId, version);
+        Integer previous = stock != null ? storeStock.put(storeId, stock) : storeStock.remove(storeId);
+        long delta = valueOf(stock) - valueOf(previous);
+        Set<Long> products = productsByStore.get(storeId);
+        if (delta != 0 && products != null) {
+            for (Long productId : products) {
+                links.get(productId).storeStock += delta;
+                publish(productId);
+            }
+        }
+    }
+
+    // Older than the last change applied, or at the version the row was removed at
+    private static <K> boolean stale(Map<K, Long> versions, Map<K, Integer> stock, K key, long version) {
+        Long applied = versions.get(key);
+        return applied != null && (version < applied || (version == applied && !stock.containsKey(key)));
+    }
+
+    private void unlinkWhere(Long productId, Predicate<Pair> matches) {
+        Links productLinks = links.get(productId);
+        if (productLinks == null) {
+            return;
+        }
+        for (Iterator<Pair> pairs = productLinks.pairs.iterator(); pairs.hasNext(); ) {
+            Pair pair = pairs.next();
+            if (matches.test(pair)) {
+                pairs.remove();
+                release(productId, productLinks, pair);
+            }
+        }
+        if (productLinks.pairs.isEmpty()) {
+            links.remove(productId);
+        }
+        publish(productId);
+    }
+
+    // Drops the warehouse and store of a removed link once no other link of the product uses them
+    private void release(Long productId, Links productLinks, Pair pair) {
+        if (productLinks.warehouses.merge(pair.warehouse(), -1, Integer::sum) == 0) {
+            productLinks.warehouses.remove(pair.warehouse());
+            productLinks.warehouseStock -= warehouseStock.getOrDefault(pair.warehouse(), 0);
+            removeFromIndex(productsByWarehouse, pair.warehouse(), productId);
+        }
+        if (productLinks.stores.merge(pair.store(), -1, Integer::sum) == 0) {
+            productLinks.stores.remove(pair.store());
+            productLinks.storeStock -= storeStock.getOrDefault(pair.store(), 0);
+            removeFromIndex(productsByStore, pair.store(), productId);
+        }
+    }
+
+    private void publish(Long productId) {
+        if (published.containsKey(productId)) {
+            published.put(productId, totals(productId));
+        }
+    }
+
+    private ProductAvailability totals(Long productId) {
+        Links productLinks = links.get(productId);
+        if (productLinks == null) {
+            return new ProductAvailability(productId, 0, 0, 0, 0);
+        }
+        return new ProductAvailability(productId, productLinks.warehouseStock, productLinks.storeStock,
+                productLinks.warehouses.size(), productLinks.stores.size());
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Long>> index, K key, Long productId) {
+        Set<Long> products = index.get(key);
+        if (products != null && products.remove(productId) && products.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static long valueOf(Integer stock) {
+        return stock != null ? stock : 0;
+    }
+
+    private static final class Links {
+        final Set<Pair> pairs = new HashSet<>();
+        final Map<String, Integer> warehouses = new HashMap<>();
+        final Map<Long, Integer> stores = new HashMap<>();
+        long warehouseStock;
+        long storeStock;
+    }
+
+    private record Pair(String warehouse, Long store) {
+    }
+}
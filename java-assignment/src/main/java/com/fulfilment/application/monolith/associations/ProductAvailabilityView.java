@@ -0,0 +1,178 @@
+package com.fulfilment.application.monolith.associations;
+
+import com.fulfilment.application.monolith.products.ProductEvent;
+import com.fulfilment.application.monolith.products.ProductEventType;
+import com.fulfilment.application.monolith.stores.StoreEvent;
+import com.fulfilment.application.monolith.stores.StoreEventType;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Serves product availability from a {@link ProductAvailabilityAggregate}, so a lookup never
+ * joins associations, warehouses and stores.
+ *
+ * <p>The aggregate is loaded on first use and then patched from committed association, product,
+ * store and warehouse stock events. As for the catalog snapshots, every change bumps a generation
+ * counter and a load that raced with a change is served once but not kept. Store stock is the
+ * committed quantity; deltas still pending in the store stock counters show up after their flush.
+ * Stock events carry their row version, so one whose observer runs late cannot overwrite a newer
+ * value.
+ */
+@ApplicationScoped
+public class ProductAvailabilityView {
+
+    private final EntityManager entityManager;
+
+    private volatile ProductAvailabilityAggregate current;
+    private long generation;
+
+    @Inject
+    public ProductAvailabilityView(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @return the product's availability, or {@code null} if there is no such product
+     */
+    public ProductAvailability get(Long productId) {
+        return aggregate().get(productId);
+    }
+
+    /**
+     * @return the availability of each existing product, in request order; unknown ids are skipped
+     */
+    public List<ProductAvailability> get(List<Long> productIds) {
+        ProductAvailabilityAggregate aggregate = aggregate();
+        List<ProductAvailability> result = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            ProductAvailability availability = aggregate.get(productId);
+            if (availability != null) {
+                result.add(availability);
+            }
+        }
+        return result;
+    }
+
+    /** Drops the aggregate after writes that bypass the events, such as bulk imports. */
+    public synchronized void invalidate() {
+        generation++;
+        current = null;
+    }
+
+    void onAssociationChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AssociationEvent event) {
+        apply(aggregate -> {
+            switch (event.getType()) {
+                case CREATE:
+                    aggregate.linked(event.getProductId(), event.getWarehouseBusinessUnitCode(), event.getStoreId());
+                    break;
+                case DELETE:
+                    aggregate.unlinked(event.getProductId(), event.getWarehouseBusinessUnitCode(), event.getStoreId());
+                    break;
+                case BULK_DELETE:
+                    if (event.getStoreId() != null) {
+                        aggregate.storeUnlinked(event.getStoreId());
+                    } else if (event.getProductId() != null) {
+                        aggregate.productUnlinked(event.getProductId());
+                    } else {
+                        aggregate.warehouseUnlinked(event.getWarehouseBusinessUnitCode());
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown association event type: " + event.getType());
+            }
+        });
+    }
+
+    void onProductCommitted(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductEvent event) {
+        Long productId = event.getProduct().id;
+        if (event.getType() == ProductEventType.DELETE) {
+            apply(aggregate -> aggregate.productRemoved(productId));
+        } else if (event.getType() == ProductEventType.CREATE) {
+            apply(aggregate -> aggregate.productAdded(productId));
+        }
+    }
+
+    void onStoreCommitted(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreEvent event) {
+        Long storeId = event.getStore().id;
+        Integer stock = event.getType() == StoreEventType.DELETE ? null : event.getStore().quantityProductsInStock;
+        long version = event.getStore().version;
+        apply(aggregate -> aggregate.storeStockChanged(storeId, stock, version));
+    }
+
+    void onWarehouseStockCommitted(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseStockEvent event) {
+        apply(aggregate -> aggregate.warehouseStockChanged(
+                event.getBusinessUnitCode(), event.getStock(), event.getWarehouseId()));
+    }
+
+    // Unloaded aggregates need no patching; the next read loads committed state
+    private synchronized void apply(Consumer<ProductAvailabilityAggregate> change) {
+        generation++;
+        if (current != null) {
+            change.accept(current);
+        }
+    }
+
+    private ProductAvailabilityAggregate aggregate() {
+        ProductAvailabilityAggregate aggregate = current;
+        if (aggregate != null) {
+            return aggregate;
+        }
+        long observedGeneration;
+        synchronized (this) {
+            observedGeneration = generation;
+        }
+        ProductAvailabilityAggregate loaded = load();
+        synchronized (this) {
+            if (current == null) {
+                if (generation != observedGeneration) {
+                    // A change committed while loading; serve this read but do not keep it
+                    return loaded;
+                }
+                current = loaded;
+            }
+            return current;
+        }
+    }
+
+    // One query per table; associations carry the warehouse row id, resolved to its code here
+    private ProductAvailabilityAggregate load() {
+        ProductAvailabilityAggregate aggregate = new ProductAvailabilityAggregate();
+        entityManager.createQuery("select p.id from Product p", Long.class)
+                .getResultList()
+                .forEach(aggregate::productAdded);
+
+        Map<Long, String> warehouseCodes = new HashMap<>();
+        for (Object[] row : entityManager.createQuery(
+                        "select w.id, w.businessUnitCode, w.stock from DbWarehouse w where w.archivedAt is null",
+                        Object[].class)
+                .getResultList()) {
+            warehouseCodes.put((Long) row[0], (String) row[1]);
+            aggregate.warehouseStockChanged((String) row[1], (Integer) row[2], (Long) row[0]);
+        }
+        for (Object[] row : entityManager.createQuery(
+                        "select s.id, s.quantityProductsInStock, s.version from Store s", Object[].class)
+                .getResultList()) {
+            aggregate.storeStockChanged((Long) row[0], (Integer) row[1], (Long) row[2]);
+        }
+        for (Object[] row : entityManager.createQuery(
+                        "select a.warehouseId, a.productId, a.storeId from WarehouseProductStoreAssociation a",
+                        Object[].class)
+                .getResultList()) {
+            String warehouseBusinessUnitCode = warehouseCodes.get((Long) row[0]);
+            if (warehouseBusinessUnitCode != null) {
+                aggregate.linked((Long) row[1], warehouseBusinessUnitCode, (Long) row[2]);
+            }
+        }
+        return aggregate;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.associations;
+
+/**
+ * A warehouse serving a product for a store, with its current stock and capacity.
+ */
+public class ServingWarehouse {
+    public String businessUnitCode;
+    public String location;
+    public Integer stock;
+    public Integer capacity;
+
+    public ServingWarehouse() {
+    }
+
+    public ServingWarehouse(String businessUnitCode, String location, Integer stock, Integer capacity) {
+        this.businessUnitCode = businessUnitCode;
+        this.location = location;
+        this.stock = stock;
+        this.capacity = capacity;
+    }
+}
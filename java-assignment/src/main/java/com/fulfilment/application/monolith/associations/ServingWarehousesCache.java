@@ -0,0 +1,126 @@
+package com.fulfilment.application.monolith.associations;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Read-through cache of serving warehouses keyed by (productId, storeId).
+ *
+ * <p>Entries are dropped after association changes commit. Every invalidation bumps a generation
+ * counter, and a loader only publishes its result if no invalidation happened while it was
+ * reading, so a slow miss can never re-insert data that was invalidated underneath it. The check
+ * and the insert run under the lock invalidations take, so none can slip in between. Hits never
+ * take it.
+ *
+ * <p>Bounded by {@code associations.serving-cache.max-entries}; beyond that Caffeine evicts the
+ * entries least likely to be used again. Hits, misses, size and evictions are published as the
+ * {@value #CACHE_NAME} cache metrics.
+ */
+@ApplicationScoped
+public class ServingWarehousesCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ServingWarehousesCache.class);
+
+    static final String CACHE_NAME = "associations.serving-warehouses";
+
+    private final Cache<Key, List<ServingWarehouse>> cache;
+    private final Map<Key, List<ServingWarehouse>> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    // Publishing a loaded entry and invalidating take turns, so the generation check and the insert
+    // cannot straddle an invalidation that bumped the generation and already swept past the key
+    private final Object publication = new Object();
+
+    @Inject
+    public ServingWarehousesCache(
+            @ConfigProperty(name = "associations.serving-cache.max-entries", defaultValue = "100000") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                // Evict on the writing thread, so the bound holds without a background task
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.entries = cache.asMap();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public List<ServingWarehouse> get(Long productId, Long storeId, Supplier<List<ServingWarehouse>> loader) {
+        Key key = new Key(productId, storeId);
+        List<ServingWarehouse> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        List<ServingWarehouse> loaded = List.copyOf(loader.get());
+        synchronized (publication) {
+            if (generation.get() == observedGeneration) {
+                entries.putIfAbsent(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        synchronized (publication) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public void onAssociationChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AssociationEvent event) {
+        synchronized (publication) {
+            generation.incrementAndGet();
+            invalidate(event);
+        }
+    }
+
+    private void invalidate(AssociationEvent event) {
+        switch (event.getType()) {
+            case CREATE:
+            case DELETE:
+                entries.remove(new Key(event.getProductId(), event.getStoreId()));
+                break;
+            case BULK_DELETE:
+                if (event.getStoreId() != null) {
+                    entries.keySet().removeIf(key -> key.storeId().equals(event.getStoreId()));
+                } else if (event.getProductId() != null) {
+                    entries.keySet().removeIf(key -> key.productId().equals(event.getProductId()));
+                } else {
+                    entries.values().removeIf(warehouses -> warehouses.stream()
+                            .anyMatch(w -> w.businessUnitCode.equals(event.getWarehouseBusinessUnitCode())));
+                }
+                break;
+            default:
+                LOGGER.warnf("Unknown association event type: %s", event.getType());
+                entries.clear();
+        }
+    }
+
+    // A created, replaced or archived warehouse changes the stock and capacity entries carry
+    public void onWarehouseStockCommitted(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseStockEvent event) {
+        synchronized (publication) {
+            generation.incrementAndGet();
+            entries.values().removeIf(warehouses -> warehouses.stream()
+                    .anyMatch(w -> w.businessUnitCode.equals(event.getBusinessUnitCode())));
+        }
+    }
+
+    private record Key(Long productId, Long storeId) {
+    }
+}
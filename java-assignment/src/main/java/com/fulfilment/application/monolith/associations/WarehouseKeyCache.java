@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.associations;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Translates warehouse business unit codes into the numeric id of the active warehouse row.
+ *
+ * <p>The id behind a code changes when the warehouse is replaced or archived. {@link #evict}
+ * drops the entry immediately and again once the surrounding transaction completes, and loads
+ * that raced with an eviction are not published.
+ */
+@ApplicationScoped
+public class WarehouseKeyCache {
+
+    private final Map<String, Long> idsByCode = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final WarehouseRepository warehouseRepository;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    public WarehouseKeyCache(
+            WarehouseRepository warehouseRepository,
+            TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+        this.warehouseRepository = warehouseRepository;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    }
+
+    /**
+     * @return the id of the active warehouse with this code, or {@code null} if there is none
+     */
+    public Long idFor(String warehouseBusinessUnitCode) {
+        if (warehouseBusinessUnitCode == null) {
+            return null;
+        }
+        Long cached = idsByCode.get(warehouseBusinessUnitCode);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        Long loaded = warehouseRepository.findActiveIdByBusinessUnitCode(warehouseBusinessUnitCode);
+        if (loaded != null && generation.get() == observedGeneration) {
+            idsByCode.putIfAbsent(warehouseBusinessUnitCode, loaded);
+        }
+        return loaded;
+    }
+
+    public void evict(String warehouseBusinessUnitCode) {
+        remove(warehouseBusinessUnitCode);
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    remove(warehouseBusinessUnitCode);
+                }
+            });
+        }
+    }
+
+    private void remove(String warehouseBusinessUnitCode) {
+        generation.incrementAndGet();
+        idsByCode.remove(warehouseBusinessUnitCode);
+    }
+}
@@ -1,22 +1,43 @@
 package com.fulfilment.application.monolith.associations;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
 import java.time.LocalDateTime;
 
+/**
+ * Links a warehouse to a product for a store. The warehouse is referenced by its numeric id;
+ * the business unit code is only carried for the REST contract and is not stored.
+ *
+ * <p>The unique key (warehouse_id, product_id, store_id) covers lookups by warehouse, while the
+ * two indexes cover the per-store and per-product constraint counts and bulk deletes.
+ */
 @Entity
 @Cacheable
 @Table(name = "warehouse_product_store_association", uniqueConstraints = {
-        @UniqueConstraint(columnNames = { "warehouse_business_unit_code", "product_id", "store_id" })
+        @UniqueConstraint(name = "uk_wpsa_warehouse_product_store", columnNames = { "warehouse_id", "product_id", "store_id" })
+}, indexes = {
+        @Index(name = "idx_wpsa_store_warehouse", columnList = "store_id, warehouse_id"),
+        @Index(name = "idx_wpsa_product_store_warehouse", columnList = "product_id, store_id, warehouse_id")
 })
 public class WarehouseProductStoreAssociation extends PanacheEntity {
 
-    @Column(name = "warehouse_business_unit_code", nullable = false, length = 40)
-    public String warehouseBusinessUnitCode;
+    @JsonIgnore
+    @Column(name = "warehouse_id", nullable = false)
+    public Long warehouseId;
 
     @Column(name = "product_id", nullable = false)
     public Long productId;
@@ -27,12 +48,35 @@ public class WarehouseProductStoreAssociation extends PanacheEntity {
     @Column(name = "created_at", nullable = false)
     public LocalDateTime createdAt;
 
+    @Transient
+    public String warehouseBusinessUnitCode;
+
+    // Mapped only to have the schema carry real foreign keys; never loaded
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_wpsa_warehouse"))
+    DbWarehouse warehouse;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_wpsa_product"))
+    Product product;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "store_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_wpsa_store"))
+    Store store;
+
     public WarehouseProductStoreAssociation() {
         this.createdAt = LocalDateTime.now();
     }
 
     public WarehouseProductStoreAssociation(
-            String warehouseBusinessUnitCode, Long productId, Long storeId) {
+            Long warehouseId, String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        this.warehouseId = warehouseId;
         this.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
         this.productId = productId;
         this.storeId = storeId;
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.associations.exceptions;
+
+public class ChangeFeedExpiredException extends AssociationDomainException {
+    public ChangeFeedExpiredException(long since, long oldestRetained) {
+        super(
+                String.format(
+                        "Changes after sequence %d are no longer retained (oldest retained is %d); resync with GET /associations",
+                        since, oldestRetained));
+    }
+
+    public ChangeFeedExpiredException(long since, String epoch, long latestSequence) {
+        super(
+                String.format(
+                        "Sequence %d is not from the current change feed (epoch %s, latest sequence %d); resync with GET /associations",
+                        since, epoch, latestSequence));
+    }
+}
@@ -0,0 +1,100 @@
+package com.fulfilment.application.monolith.associations.solver;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index-based view of an assignment request: every (product, store) pair should be served by
+ * one of the candidate warehouses. Existing associations are folded in, so the solver only has to
+ * respect the remaining headroom of each limit.
+ */
+public class AssignmentProblem {
+
+    final Long[] storeIds;
+    final Long[] productIds;
+    final String[] warehouseCodes;
+    final int[] freeCapacity;
+
+    // Existing state, counted over all associations and not only the requested ones
+    final int[] storeWarehouseCount;
+    final boolean[][] storeUsesWarehouse;
+    final int[] warehouseProductCount;
+    final boolean[][] warehouseHoldsProduct;
+    final int[][] pairWarehouseCount;
+
+    final int maxWarehousesPerProductStore;
+    final int maxWarehousesPerStore;
+    final int maxProductsPerWarehouse;
+
+    public AssignmentProblem(
+            List<Long> storeIds,
+            List<Long> productIds,
+            List<CandidateWarehouse> warehouses,
+            List<ExistingAssociation> existingAssociations,
+            int maxWarehousesPerProductStore,
+            int maxWarehousesPerStore,
+            int maxProductsPerWarehouse) {
+        this.storeIds = storeIds.stream().distinct().toArray(Long[]::new);
+        this.productIds = productIds.stream().distinct().toArray(Long[]::new);
+        this.warehouseCodes = warehouses.stream().map(CandidateWarehouse::businessUnitCode).toArray(String[]::new);
+        this.freeCapacity = warehouses.stream().mapToInt(w -> Math.max(1, w.capacity() - w.stock())).toArray();
+        this.maxWarehousesPerProductStore = maxWarehousesPerProductStore;
+        this.maxWarehousesPerStore = maxWarehousesPerStore;
+        this.maxProductsPerWarehouse = maxProductsPerWarehouse;
+
+        Map<Long, Integer> storeIndex = index(List.of(this.storeIds));
+        Map<Long, Integer> productIndex = index(List.of(this.productIds));
+        Map<String, Integer> warehouseIndex = index(List.of(warehouseCodes));
+
+        this.storeWarehouseCount = new int[this.storeIds.length];
+        this.storeUsesWarehouse = new boolean[this.storeIds.length][warehouseCodes.length];
+        this.warehouseProductCount = new int[warehouseCodes.length];
+        this.warehouseHoldsProduct = new boolean[warehouseCodes.length][this.productIds.length];
+        this.pairWarehouseCount = new int[this.productIds.length][this.storeIds.length];
+
+        Map<Long, Set<String>> warehousesByStore = new HashMap<>();
+        Map<String, Set<Long>> productsByWarehouse = new HashMap<>();
+        for (ExistingAssociation association : existingAssociations) {
+            warehousesByStore.computeIfAbsent(association.storeId(), k -> new HashSet<>())
+                    .add(association.warehouseBusinessUnitCode());
+            productsByWarehouse.computeIfAbsent(association.warehouseBusinessUnitCode(), k -> new HashSet<>())
+                    .add(association.productId());
+
+            Integer s = storeIndex.get(association.storeId());
+            Integer p = productIndex.get(association.productId());
+            Integer w = warehouseIndex.get(association.warehouseBusinessUnitCode());
+            if (s != null && w != null) {
+                storeUsesWarehouse[s][w] = true;
+            }
+            if (w != null && p != null) {
+                warehouseHoldsProduct[w][p] = true;
+            }
+            if (p != null && s != null) {
+                pairWarehouseCount[p][s]++;
+            }
+        }
+        for (int s = 0; s < this.storeIds.length; s++) {
+            storeWarehouseCount[s] = warehousesByStore.getOrDefault(this.storeIds[s], Set.of()).size();
+        }
+        for (int w = 0; w < warehouseCodes.length; w++) {
+            warehouseProductCount[w] = productsByWarehouse.getOrDefault(warehouseCodes[w], Set.of()).size();
+        }
+    }
+
+    private static <K> Map<K, Integer> index(List<K> keys) {
+        Map<K, Integer> index = new HashMap<>();
+        for (K key : keys) {
+            index.putIfAbsent(key, index.size());
+        }
+        return index;
+    }
+
+    public record CandidateWarehouse(String businessUnitCode, int capacity, int stock) {
+    }
+
+    public record ExistingAssociation(String warehouseBusinessUnitCode, Long productId, Long storeId) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.associations.solver;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best assignment found within the time budget.
+ *
+ * @param assignments new associations to create
+ * @param uncovered requested (product, store) pairs that could not be served without breaking a limit
+ * @param alreadyCovered requested pairs that an existing association already serves
+ * @param warehouseLoad new associations per warehouse
+ * @param maxUtilization highest ratio of new associations to free capacity over all warehouses
+ * @param restarts number of randomized greedy runs evaluated across all workers
+ */
+public record AssignmentSolution(
+        List<Assignment> assignments,
+        List<Pair> uncovered,
+        int alreadyCovered,
+        Map<String, Integer> warehouseLoad,
+        double maxUtilization,
+        long restarts) {
+
+    public record Assignment(String warehouseBusinessUnitCode, Long productId, Long storeId) {
+    }
+
+    public record Pair(Long productId, Long storeId) {
+    }
+}
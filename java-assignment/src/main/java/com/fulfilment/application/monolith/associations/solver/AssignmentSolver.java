@@ -0,0 +1,230 @@
+package com.fulfilment.application.monolith.associations.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Searches for an assignment of warehouses to (product, store) pairs that respects the
+ * association limits, covers as many pairs as possible and spreads the new associations over the
+ * warehouses in proportion to their free capacity.
+ *
+ * <p>Each worker on the fork-join pool repeats a randomized greedy construction until the
+ * deadline and keeps its best result; the best of all workers wins. A run prefers warehouses that
+ * do not consume a new per-store or per-warehouse slot, then the one with the lowest utilization.
+ */
+public class AssignmentSolver {
+
+    private static final long BASE_SEED = 0x5DEECE66DL;
+
+    private final ForkJoinPool pool;
+
+    public AssignmentSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public AssignmentSolution solve(AssignmentProblem problem, Duration timeBudget) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        Result best = pool.invoke(new SearchTask(problem, deadline, 0, pool.getParallelism()));
+        return best.toSolution(problem);
+    }
+
+    private static final class SearchTask extends RecursiveTask<Result> {
+
+        private final AssignmentProblem problem;
+        private final long deadline;
+        private final int firstWorker;
+        private final int workers;
+
+        SearchTask(AssignmentProblem problem, long deadline, int firstWorker, int workers) {
+            this.problem = problem;
+            this.deadline = deadline;
+            this.firstWorker = firstWorker;
+            this.workers = workers;
+        }
+
+        @Override
+        protected Result compute() {
+            if (workers > 1) {
+                int half = workers / 2;
+                SearchTask left = new SearchTask(problem, deadline, firstWorker, half);
+                SearchTask right = new SearchTask(problem, deadline, firstWorker + half, workers - half);
+                left.fork();
+                Result rightResult = right.compute();
+                return Result.better(left.join(), rightResult);
+            }
+
+            SplittableRandom random = new SplittableRandom(BASE_SEED + firstWorker);
+            // The first run is the plain greedy order so that even a zero budget yields a result
+            Result best = construct(problem, null);
+            long restarts = 1;
+            while (System.nanoTime() < deadline && !best.isPerfect()) {
+                best = Result.better(best, construct(problem, random));
+                restarts++;
+            }
+            best.restarts = restarts;
+            return best;
+        }
+    }
+
+    private static Result construct(AssignmentProblem problem, SplittableRandom random) {
+        int stores = problem.storeIds.length;
+        int products = problem.productIds.length;
+        int warehouses = problem.warehouseCodes.length;
+
+        int[] storeWarehouseCount = problem.storeWarehouseCount.clone();
+        boolean[][] storeUsesWarehouse = deepCopy(problem.storeUsesWarehouse);
+        int[] warehouseProductCount = problem.warehouseProductCount.clone();
+        boolean[][] warehouseHoldsProduct = deepCopy(problem.warehouseHoldsProduct);
+        int[] load = new int[warehouses];
+
+        int[] pairs = new int[products * stores];
+        int open = 0;
+        int alreadyCovered = 0;
+        for (int p = 0; p < products; p++) {
+            for (int s = 0; s < stores; s++) {
+                if (problem.pairWarehouseCount[p][s] > 0) {
+                    alreadyCovered++;
+                } else {
+                    pairs[open++] = p * stores + s;
+                }
+            }
+        }
+        if (random != null) {
+            for (int i = open - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = pairs[i];
+                pairs[i] = pairs[j];
+                pairs[j] = tmp;
+            }
+        }
+
+        int[] chosen = new int[open];
+        int covered = 0;
+        for (int i = 0; i < open; i++) {
+            int p = pairs[i] / stores;
+            int s = pairs[i] % stores;
+            chosen[i] = -1;
+            if (problem.pairWarehouseCount[p][s] >= problem.maxWarehousesPerProductStore) {
+                continue;
+            }
+
+            int bestWarehouse = -1;
+            double bestCost = Double.MAX_VALUE;
+            for (int w = 0; w < warehouses; w++) {
+                boolean newForStore = !storeUsesWarehouse[s][w];
+                boolean newForWarehouse = !warehouseHoldsProduct[w][p];
+                if (newForStore && storeWarehouseCount[s] >= problem.maxWarehousesPerStore) {
+                    continue;
+                }
+                if (newForWarehouse && warehouseProductCount[w] >= problem.maxProductsPerWarehouse) {
+                    continue;
+                }
+                double cost = (newForStore ? 1 : 0) + (newForWarehouse ? 1 : 0)
+                        + (double) (load[w] + 1) / problem.freeCapacity[w];
+                if (random != null) {
+                    cost += random.nextDouble() * 0.5;
+                }
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestWarehouse = w;
+                }
+            }
+            if (bestWarehouse < 0) {
+                continue;
+            }
+
+            chosen[i] = bestWarehouse;
+            covered++;
+            load[bestWarehouse]++;
+            if (!storeUsesWarehouse[s][bestWarehouse]) {
+                storeUsesWarehouse[s][bestWarehouse] = true;
+                storeWarehouseCount[s]++;
+            }
+            if (!warehouseHoldsProduct[bestWarehouse][p]) {
+                warehouseHoldsProduct[bestWarehouse][p] = true;
+                warehouseProductCount[bestWarehouse]++;
+            }
+        }
+
+        double maxUtilization = 0;
+        for (int w = 0; w < warehouses; w++) {
+            maxUtilization = Math.max(maxUtilization, (double) load[w] / problem.freeCapacity[w]);
+        }
+        return new Result(pairs, chosen, open, covered, alreadyCovered, load, maxUtilization);
+    }
+
+    private static boolean[][] deepCopy(boolean[][] source) {
+        boolean[][] copy = new boolean[source.length][];
+        for (int i = 0; i < source.length; i++) {
+            copy[i] = source[i].clone();
+        }
+        return copy;
+    }
+
+    private static final class Result {
+        final int[] pairs;
+        final int[] chosen;
+        final int open;
+        final int covered;
+        final int alreadyCovered;
+        final int[] load;
+        final double maxUtilization;
+        long restarts;
+
+        Result(int[] pairs, int[] chosen, int open, int covered, int alreadyCovered, int[] load,
+                double maxUtilization) {
+            this.pairs = pairs;
+            this.chosen = chosen;
+            this.open = open;
+            this.covered = covered;
+            this.alreadyCovered = alreadyCovered;
+            this.load = load;
+            this.maxUtilization = maxUtilization;
+        }
+
+        boolean isPerfect() {
+            // Nothing left to assign, so no restart can improve coverage or balance
+            return open == 0;
+        }
+
+        static Result better(Result a, Result b) {
+            long restarts = a.restarts + b.restarts;
+            Result winner;
+            if (a.covered != b.covered) {
+                winner = a.covered > b.covered ? a : b;
+            } else {
+                winner = a.maxUtilization <= b.maxUtilization ? a : b;
+            }
+            winner.restarts = restarts;
+            return winner;
+        }
+
+        AssignmentSolution toSolution(AssignmentProblem problem) {
+            int stores = problem.storeIds.length;
+            List<AssignmentSolution.Assignment> assignments = new ArrayList<>(covered);
+            List<AssignmentSolution.Pair> uncovered = new ArrayList<>(open - covered);
+            for (int i = 0; i < open; i++) {
+                Long productId = problem.productIds[pairs[i] / stores];
+                Long storeId = problem.storeIds[pairs[i] % stores];
+                if (chosen[i] >= 0) {
+                    assignments.add(new AssignmentSolution.Assignment(
+                            problem.warehouseCodes[chosen[i]], productId, storeId));
+                } else {
+                    uncovered.add(new AssignmentSolution.Pair(productId, storeId));
+                }
+            }
+            Map<String, Integer> warehouseLoad = new LinkedHashMap<>();
+            for (int w = 0; w < load.length; w++) {
+                warehouseLoad.put(problem.warehouseCodes[w], load[w]);
+            }
+            return new AssignmentSolution(
+                    assignments, uncovered, alreadyCovered, warehouseLoad, maxUtilization, restarts);
+        }
+    }
+}
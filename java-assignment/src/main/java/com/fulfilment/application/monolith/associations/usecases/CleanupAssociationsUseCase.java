@@ -0,0 +1,87 @@
+package com.fulfilment.application.monolith.associations.usecases;
+
+import com.fulfilment.application.monolith.associations.AssociationEvent;
+import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.WarehouseKeyCache;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+/**
+ * Removes every association that refers to a store, product or warehouse which is going away,
+ * and relinks associations when a warehouse is replaced by a new row.
+ * Each operation is a single bulk statement; associations are never loaded into memory.
+ * Runs in the caller's transaction so the cleanup commits or rolls back together with it.
+ */
+@ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
+public class CleanupAssociationsUseCase {
+
+    private static final Logger LOGGER = Logger.getLogger(CleanupAssociationsUseCase.class);
+
+    private final AssociationRepository associationRepository;
+    private final WarehouseKeyCache warehouseKeyCache;
+    private final Event<AssociationEvent> associationEvent;
+
+    @Inject
+    public CleanupAssociationsUseCase(
+            AssociationRepository associationRepository,
+            WarehouseKeyCache warehouseKeyCache,
+            Event<AssociationEvent> associationEvent) {
+        this.associationRepository = associationRepository;
+        this.warehouseKeyCache = warehouseKeyCache;
+        this.associationEvent = associationEvent;
+    }
+
+    @Transactional
+    public long removeByStore(Long storeId) {
+        long deleted = associationRepository.deleteByStore(storeId);
+        fireIfDeleted(deleted, AssociationEvent.bulkDeleted(null, null, storeId));
+        LOGGER.infof("Associations removed for store=%d: %d", storeId, deleted);
+        return deleted;
+    }
+
+    @Transactional
+    public long removeByProduct(Long productId) {
+        long deleted = associationRepository.deleteByProduct(productId);
+        fireIfDeleted(deleted, AssociationEvent.bulkDeleted(null, productId, null));
+        LOGGER.infof("Associations removed for product=%d: %d", productId, deleted);
+        return deleted;
+    }
+
+    @Transactional
+    public long removeByWarehouse(String warehouseBusinessUnitCode) {
+        Long warehouseId = warehouseKeyCache.idFor(warehouseBusinessUnitCode);
+        long deleted = warehouseId != null ? associationRepository.deleteByWarehouse(warehouseId) : 0;
+        // The warehouse is going away; its code must no longer resolve to this id
+        warehouseKeyCache.evict(warehouseBusinessUnitCode);
+        fireIfDeleted(deleted, AssociationEvent.bulkDeleted(warehouseBusinessUnitCode, null, null));
+        LOGGER.infof("Associations removed for warehouse=%s: %d", warehouseBusinessUnitCode, deleted);
+        return deleted;
+    }
+
+    /**
+     * Moves the associations of a replaced warehouse onto the row that replaced it, in one statement.
+     */
+    @Transactional
+    public long relinkReplacedWarehouse(String warehouseBusinessUnitCode) {
+        long relinked = associationRepository.relinkToActiveWarehouse(warehouseBusinessUnitCode);
+        warehouseKeyCache.evict(warehouseBusinessUnitCode);
+        LOGGER.infof("Associations relinked for replaced warehouse=%s: %d", warehouseBusinessUnitCode, relinked);
+        return relinked;
+    }
+
+    private void fireIfDeleted(long deleted, AssociationEvent event) {
+        if (deleted > 0) {
+            associationEvent.fire(event);
+        }
+    }
+}
@@ -1,41 +1,53 @@
 package com.fulfilment.application.monolith.associations.usecases;
 
+import com.fulfilment.application.monolith.associations.AssociationEvent;
 import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.WarehouseKeyCache;
 import com.fulfilment.application.monolith.associations.WarehouseProductStoreAssociation;
 import com.fulfilment.application.monolith.associations.exceptions.AssociationAlreadyExistsException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxProductsPerWarehouseExceededException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxWarehousesPerProductStoreExceededException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxWarehousesPerStoreExceededException;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
 import com.fulfilment.application.monolith.products.Product;
 import com.fulfilment.application.monolith.products.ProductRepository;
 import com.fulfilment.application.monolith.stores.Store;
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
 public class CreateAssociationUseCase {
 
     private static final Logger LOGGER = Logger.getLogger(CreateAssociationUseCase.class);
 
-    private static final int MAX_WAREHOUSES_PER_PRODUCT_STORE = 2;
-    private static final int MAX_WAREHOUSES_PER_STORE = 3;
-    private static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+    public static final int MAX_WAREHOUSES_PER_PRODUCT_STORE = 2;
+    public static final int MAX_WAREHOUSES_PER_STORE = 3;
+    public static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
 
     private final AssociationRepository associationRepository;
-    private final WarehouseRepository warehouseRepository;
+    private final WarehouseKeyCache warehouseKeyCache;
     private final ProductRepository productRepository;
+    private final Event<AssociationEvent> associationEvent;
 
     @Inject
     public CreateAssociationUseCase(
             AssociationRepository associationRepository,
-            WarehouseRepository warehouseRepository,
-            ProductRepository productRepository) {
+            WarehouseKeyCache warehouseKeyCache,
+            ProductRepository productRepository,
+            Event<AssociationEvent> associationEvent) {
         this.associationRepository = associationRepository;
-        this.warehouseRepository = warehouseRepository;
+        this.warehouseKeyCache = warehouseKeyCache;
         this.productRepository = productRepository;
+        this.associationEvent = associationEvent;
     }
 
     @Transactional
@@ -43,25 +55,28 @@ public class CreateAssociationUseCase {
             String warehouseBusinessUnitCode, Long productId, Long storeId) {
 
         // Validate entities exist
-        validateWarehouseExists(warehouseBusinessUnitCode);
+        Long warehouseId = resolveWarehouseId(warehouseBusinessUnitCode);
         validateProductExists(productId);
         validateStoreExists(storeId);
 
         // Check if association already exists
-        validateAssociationDoesNotExist(warehouseBusinessUnitCode, productId, storeId);
+        validateAssociationDoesNotExist(warehouseId, warehouseBusinessUnitCode, productId, storeId);
 
         // Constraint 1: Max 2 warehouses per product per store
         validateMaxWarehousesPerProductStore(productId, storeId);
 
         // Constraint 2: Max 3 warehouses per store
-        validateMaxWarehousesPerStore(storeId, warehouseBusinessUnitCode);
+        validateMaxWarehousesPerStore(storeId, warehouseId);
 
         // Constraint 3: Max 5 products per warehouse
-        validateMaxProductsPerWarehouse(warehouseBusinessUnitCode, productId);
+        validateMaxProductsPerWarehouse(warehouseId, warehouseBusinessUnitCode, productId);
 
         // Create the association
         WarehouseProductStoreAssociation association = associationRepository
-                .createAssociation(warehouseBusinessUnitCode, productId, storeId);
+                .createAssociation(warehouseId, warehouseBusinessUnitCode, productId, storeId);
+
+        // Fire event to be processed AFTER transaction commits
+        associationEvent.fire(AssociationEvent.created(warehouseBusinessUnitCode, productId, storeId));
 
         LOGGER.infof(
                 "Association created: warehouse=%s, product=%d, store=%d",
@@ -70,11 +85,13 @@ public class CreateAssociationUseCase {
         return association;
     }
 
-    private void validateWarehouseExists(String warehouseBusinessUnitCode) {
-        if (warehouseRepository.findByBusinessUnitCode(warehouseBusinessUnitCode) == null) {
+    private Long resolveWarehouseId(String warehouseBusinessUnitCode) {
+        Long warehouseId = warehouseKeyCache.idFor(warehouseBusinessUnitCode);
+        if (warehouseId == null) {
             throw new IllegalArgumentException(
                     "Warehouse not found with business unit code: " + warehouseBusinessUnitCode);
         }
+        return warehouseId;
     }
 
     private void validateProductExists(Long productId) {
@@ -92,9 +109,9 @@ public class CreateAssociationUseCase {
     }
 
     private void validateAssociationDoesNotExist(
-            String warehouseBusinessUnitCode, Long productId, Long storeId) {
+            Long warehouseId, String warehouseBusinessUnitCode, Long productId, Long storeId) {
         if (associationRepository
-                .findByCompositeKey(warehouseBusinessUnitCode, productId, storeId)
+                .findByCompositeKey(warehouseId, productId, storeId)
                 .isPresent()) {
             throw new AssociationAlreadyExistsException(warehouseBusinessUnitCode, productId, storeId);
         }
@@ -107,38 +124,25 @@ public class CreateAssociationUseCase {
         }
     }
 
-    private void validateMaxWarehousesPerStore(Long storeId, String newWarehouseCode) {
+    private void validateMaxWarehousesPerStore(Long storeId, Long newWarehouseId) {
         // Count distinct warehouses associated with this store
         long distinctWarehouseCount = associationRepository.countDistinctWarehousesByStore(storeId);
 
-        // Check if the new warehouse is already associated with this store
-        boolean warehouseAlreadyAssociated = associationRepository
-                .findAllAssociations()
-                .stream()
-                .anyMatch(
-                        a -> a.storeId.equals(storeId)
-                                && a.warehouseBusinessUnitCode.equals(newWarehouseCode));
-
-        // Only count as a new warehouse if it's not already associated
-        if (!warehouseAlreadyAssociated && distinctWarehouseCount >= MAX_WAREHOUSES_PER_STORE) {
+        // Only count as a new warehouse if it's not already associated with this store
+        if (distinctWarehouseCount >= MAX_WAREHOUSES_PER_STORE
+                && !associationRepository.existsByStoreAndWarehouse(storeId, newWarehouseId)) {
             throw new MaxWarehousesPerStoreExceededException(storeId);
         }
     }
 
-    private void validateMaxProductsPerWarehouse(String warehouseBusinessUnitCode, Long newProductId) {
+    private void validateMaxProductsPerWarehouse(
+            Long warehouseId, String warehouseBusinessUnitCode, Long newProductId) {
         // Count distinct products in this warehouse
-        long distinctProductCount = associationRepository.countDistinctProductsByWarehouse(warehouseBusinessUnitCode);
-
-        // Check if the product is already in this warehouse
-        boolean productAlreadyInWarehouse = associationRepository
-                .findAllAssociations()
-                .stream()
-                .anyMatch(
-                        a -> a.warehouseBusinessUnitCode.equals(warehouseBusinessUnitCode)
-                                && a.productId.equals(newProductId));
+        long distinctProductCount = associationRepository.countDistinctProductsByWarehouse(warehouseId);
 
         // Only count as a new product if it's not already in the warehouse
-        if (!productAlreadyInWarehouse && distinctProductCount >= MAX_PRODUCTS_PER_WAREHOUSE) {
+        if (distinctProductCount >= MAX_PRODUCTS_PER_WAREHOUSE
+                && !associationRepository.existsByWarehouseAndProduct(warehouseId, newProductId)) {
             throw new MaxProductsPerWarehouseExceededException(warehouseBusinessUnitCode);
         }
     }
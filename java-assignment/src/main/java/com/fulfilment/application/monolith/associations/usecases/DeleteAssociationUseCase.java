@@ -1,35 +1,56 @@
 package com.fulfilment.application.monolith.associations.usecases;
 
+import com.fulfilment.application.monolith.associations.AssociationEvent;
 import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.WarehouseKeyCache;
 import com.fulfilment.application.monolith.associations.exceptions.AssociationNotFoundException;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
 public class DeleteAssociationUseCase {
 
     private static final Logger LOGGER = Logger.getLogger(DeleteAssociationUseCase.class);
 
     private final AssociationRepository associationRepository;
+    private final WarehouseKeyCache warehouseKeyCache;
+    private final Event<AssociationEvent> associationEvent;
 
     @Inject
-    public DeleteAssociationUseCase(AssociationRepository associationRepository) {
+    public DeleteAssociationUseCase(
+            AssociationRepository associationRepository,
+            WarehouseKeyCache warehouseKeyCache,
+            Event<AssociationEvent> associationEvent) {
         this.associationRepository = associationRepository;
+        this.warehouseKeyCache = warehouseKeyCache;
+        this.associationEvent = associationEvent;
     }
 
     @Transactional
     public void delete(String warehouseBusinessUnitCode, Long productId, Long storeId) {
         // Check if association exists
-        if (associationRepository
-                .findByCompositeKey(warehouseBusinessUnitCode, productId, storeId)
+        Long warehouseId = warehouseKeyCache.idFor(warehouseBusinessUnitCode);
+        if (warehouseId == null || associationRepository
+                .findByCompositeKey(warehouseId, productId, storeId)
                 .isEmpty()) {
             throw new AssociationNotFoundException(warehouseBusinessUnitCode, productId, storeId);
         }
 
         // Delete the association
-        associationRepository.deleteAssociation(warehouseBusinessUnitCode, productId, storeId);
+        associationRepository.deleteAssociation(warehouseId, productId, storeId);
+
+        // Fire event to be processed AFTER transaction commits
+        associationEvent.fire(AssociationEvent.deleted(warehouseBusinessUnitCode, productId, storeId));
 
         LOGGER.infof(
                 "Association deleted: warehouse=%s, product=%d, store=%d",
@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.associations.usecases;
+
+import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.ServingWarehouse;
+import com.fulfilment.application.monolith.associations.ServingWarehousesCache;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+
+@ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
+public class FindServingWarehousesUseCase {
+
+    private final AssociationRepository associationRepository;
+    private final ServingWarehousesCache servingWarehousesCache;
+
+    @Inject
+    public FindServingWarehousesUseCase(
+            AssociationRepository associationRepository, ServingWarehousesCache servingWarehousesCache) {
+        this.associationRepository = associationRepository;
+        this.servingWarehousesCache = servingWarehousesCache;
+    }
+
+    public List<ServingWarehouse> find(Long productId, Long storeId) {
+        if (productId == null || storeId == null) {
+            throw new IllegalArgumentException("Both productId and storeId are required");
+        }
+        return servingWarehousesCache.get(
+                productId, storeId, () -> associationRepository.findServingWarehouses(productId, storeId));
+    }
+}
@@ -2,11 +2,18 @@ package com.fulfilment.application.monolith.associations.usecases;
 
 import com.fulfilment.application.monolith.associations.AssociationRepository;
 import com.fulfilment.application.monolith.associations.WarehouseProductStoreAssociation;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
 
 @ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
 public class GetAssociationsUseCase {
 
     private final AssociationRepository associationRepository;
@@ -0,0 +1,147 @@
+package com.fulfilment.application.monolith.associations.usecases;
+
+import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.solver.AssignmentProblem;
+import com.fulfilment.application.monolith.associations.solver.AssignmentProblem.CandidateWarehouse;
+import com.fulfilment.application.monolith.associations.solver.AssignmentProblem.ExistingAssociation;
+import com.fulfilment.application.monolith.associations.solver.AssignmentSolution;
+import com.fulfilment.application.monolith.associations.solver.AssignmentSolver;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.tracing.Traced;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+@ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
+public class SolveAssociationsUseCase {
+
+    private static final Logger LOGGER = Logger.getLogger(SolveAssociationsUseCase.class);
+
+    private static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(2);
+
+    private final AssociationRepository associationRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+    private final CreateAssociationUseCase createAssociationUseCase;
+    private final ForkJoinPool pool;
+    private final AssignmentSolver solver;
+    private final Duration maxTimeBudget;
+
+    @Inject
+    public SolveAssociationsUseCase(
+            AssociationRepository associationRepository,
+            WarehouseRepository warehouseRepository,
+            ProductRepository productRepository,
+            CreateAssociationUseCase createAssociationUseCase,
+            @ConfigProperty(name = "associations.solver.parallelism", defaultValue = "2") int parallelism,
+            @ConfigProperty(name = "associations.solver.max-time-budget", defaultValue = "PT10S") Duration maxTimeBudget) {
+        this.associationRepository = associationRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productRepository = productRepository;
+        this.createAssociationUseCase = createAssociationUseCase;
+        // Dedicated pool so a long search never starves the common pool used elsewhere
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.solver = new AssignmentSolver(pool);
+        this.maxTimeBudget = maxTimeBudget;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public AssignmentSolution solve(
+            List<Long> storeIds, List<Long> productIds, List<String> warehouseCodes, Duration timeBudget) {
+        if (isEmpty(storeIds) || isEmpty(productIds) || isEmpty(warehouseCodes)) {
+            throw new IllegalArgumentException("storeIds, productIds and warehouseBusinessUnitCodes are required");
+        }
+        for (Long storeId : storeIds) {
+            if (Store.findById(storeId) == null) {
+                throw new IllegalArgumentException("Store not found with id: " + storeId);
+            }
+        }
+        for (Long productId : productIds) {
+            if (productRepository.findById(productId) == null) {
+                throw new IllegalArgumentException("Product not found with id: " + productId);
+            }
+        }
+
+        Map<String, DbWarehouse> warehouses = warehouseRepository
+                .findActiveByBusinessUnitCodes(warehouseCodes.stream().distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(w -> w.businessUnitCode, Function.identity(), (a, b) -> a));
+        List<CandidateWarehouse> candidates = warehouseCodes.stream()
+                .distinct()
+                .map(code -> {
+                    DbWarehouse warehouse = warehouses.get(code);
+                    if (warehouse == null) {
+                        throw new IllegalArgumentException("Warehouse not found with business unit code: " + code);
+                    }
+                    return new CandidateWarehouse(code, warehouse.capacity, warehouse.stock);
+                })
+                .toList();
+
+        List<ExistingAssociation> existing = associationRepository
+                .findByStoresOrWarehouses(
+                        storeIds, warehouses.values().stream().map(w -> w.id).toList())
+                .stream()
+                .map(a -> new ExistingAssociation(a.warehouseBusinessUnitCode, a.productId, a.storeId))
+                .toList();
+
+        AssignmentProblem problem = new AssignmentProblem(
+                storeIds,
+                productIds,
+                candidates,
+                existing,
+                CreateAssociationUseCase.MAX_WAREHOUSES_PER_PRODUCT_STORE,
+                CreateAssociationUseCase.MAX_WAREHOUSES_PER_STORE,
+                CreateAssociationUseCase.MAX_PRODUCTS_PER_WAREHOUSE);
+        Duration budget = timeBudget != null ? timeBudget : DEFAULT_TIME_BUDGET;
+        if (budget.compareTo(maxTimeBudget) > 0) {
+            budget = maxTimeBudget;
+        }
+        AssignmentSolution solution = solver.solve(problem, budget.isNegative() ? Duration.ZERO : budget);
+
+        LOGGER.infof(
+                "Association solver: %d new, %d uncovered, %d already covered after %d restarts",
+                solution.assignments().size(), solution.uncovered().size(),
+                solution.alreadyCovered(), solution.restarts());
+        return solution;
+    }
+
+    /**
+     * Creates every association of the solution in one transaction. Each one still passes the
+     * regular limit checks, so if concurrent changes made the solution infeasible the whole batch
+     * is rolled back.
+     */
+    @Transactional
+    public int apply(AssignmentSolution solution) {
+        for (AssignmentSolution.Assignment assignment : solution.assignments()) {
+            createAssociationUseCase.create(
+                    assignment.warehouseBusinessUnitCode(), assignment.productId(), assignment.storeId());
+        }
+        return solution.assignments().size();
+    }
+
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+}
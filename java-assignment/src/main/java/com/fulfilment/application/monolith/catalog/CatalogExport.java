@@ -0,0 +1,145 @@
+package com.fulfilment.application.monolith.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.datasource.ReadOnlySessions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+/**
+ * Streams every row of an entity as NDJSON or CSV. Rows come from a forward-only cursor with a
+ * fixed fetch size and are written as they are read; the session is cleared after every fetch, so
+ * heap use does not grow with the catalog. Exports read from the read-only datasource.
+ */
+@ApplicationScoped
+public class CatalogExport {
+
+  public enum Format {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    public final String mediaType;
+
+    Format(String mediaType) {
+      this.mediaType = mediaType;
+    }
+
+    public static Format of(String name) {
+      for (Format format : values()) {
+        if (format.name().equalsIgnoreCase(name)) {
+          return format;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported export format '" + name + "', use ndjson or csv.");
+    }
+  }
+
+  /** A CSV column and how to read it from a row. */
+  public record Column<T>(String name, Function<T, Object> value) {}
+
+  private final ReadOnlySessions readOnlySessions;
+  private final ObjectMapper objectMapper;
+  private final int fetchSize;
+
+  @Inject
+  public CatalogExport(
+      ReadOnlySessions readOnlySessions,
+      ObjectMapper objectMapper,
+      @ConfigProperty(name = "catalog.export.fetch-size", defaultValue = "500") int fetchSize) {
+    this.readOnlySessions = readOnlySessions;
+    this.objectMapper = objectMapper;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Writes all rows of {@code query} when the response body is written. {@code view} adapts a row
+   * before it is written, for state that lives outside the table.
+   */
+  public <T> StreamingOutput stream(
+      String query,
+      Class<T> type,
+      Format format,
+      List<Column<T>> columns,
+      UnaryOperator<T> view) {
+    return output ->
+        readOnlySessions.read(
+            session -> {
+              write(session, query, type, format, columns, view, output);
+              return null;
+            });
+  }
+
+  private <T> void write(
+      Session session,
+      String query,
+      Class<T> type,
+      Format format,
+      List<Column<T>> columns,
+      UnaryOperator<T> view,
+      OutputStream target) {
+    OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+    try (ScrollableResults<T> rows =
+        session
+            .createSelectionQuery(query, type)
+            .setReadOnly(true)
+            .setFetchSize(fetchSize)
+            .setCacheMode(CacheMode.IGNORE)
+            .scroll(ScrollMode.FORWARD_ONLY)) {
+      if (format == Format.CSV) {
+        writeLine(out, columns.stream().map(Column::name).toList());
+      }
+      long written = 0;
+      while (rows.next()) {
+        T row = view.apply(rows.get());
+        if (format == Format.CSV) {
+          writeLine(out, columns.stream().map(column -> column.value().apply(row)).toList());
+        } else {
+          out.write(objectMapper.writeValueAsBytes(row));
+          out.write('\n');
+        }
+        if (++written % fetchSize == 0) {
+          // Keep only the rows of the current fetch in the persistence context
+          session.clear();
+        }
+      }
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Catalog export was interrupted", e);
+    }
+  }
+
+  private static void writeLine(OutputStream out, List<?> values) throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        line.append(',');
+      }
+      Object value = values.get(i);
+      if (value != null) {
+        line.append(csvField(value.toString()));
+      }
+    }
+    line.append('\n');
+    out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String csvField(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,157 @@
+package com.fulfilment.application.monolith.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned copy of a catalog with every item already serialized to JSON. Changes
+ * produce a new snapshot that shares the serialized bytes of all untouched items.
+ *
+ * @param <T> catalog item, kept in {@code order}
+ */
+public final class CatalogSnapshot<T> {
+
+  private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+  private final long version;
+  private final List<T> items;
+  private final List<byte[]> json;
+  private final Function<T, Long> idOf;
+  private final Comparator<T> order;
+  // Joined on first use; a store listing only ever needs single items
+  private volatile byte[] fullJson;
+
+  private CatalogSnapshot(
+      long version, List<T> items, List<byte[]> json, Function<T, Long> idOf, Comparator<T> order) {
+    this.version = version;
+    this.items = Collections.unmodifiableList(items);
+    this.json = Collections.unmodifiableList(json);
+    this.idOf = idOf;
+    this.order = order;
+  }
+
+  /** Builds a snapshot from items in any order. */
+  public static <T> CatalogSnapshot<T> of(
+      long version,
+      List<T> items,
+      Function<T, byte[]> serializer,
+      Function<T, Long> idOf,
+      Comparator<T> order) {
+    List<T> sorted = new ArrayList<>(items);
+    sorted.sort(order);
+    List<byte[]> json = new ArrayList<>(sorted.size());
+    for (T item : sorted) {
+      json.add(serializer.apply(item));
+    }
+    return new CatalogSnapshot<>(version, sorted, json, idOf, order);
+  }
+
+  public long version() {
+    return version;
+  }
+
+  public List<T> items() {
+    return items;
+  }
+
+  public int size() {
+    return items.size();
+  }
+
+  public byte[] jsonAt(int index) {
+    return json.get(index);
+  }
+
+  /** The whole catalog as one JSON array, ready to be written to a response. */
+  public byte[] fullJson() {
+    byte[] joined = fullJson;
+    if (joined == null) {
+      joined = jsonArray(json);
+      fullJson = joined;
+    }
+    return joined;
+  }
+
+  /** A new snapshot with the item added, or replacing the item with the same id. */
+  public CatalogSnapshot<T> upsert(T item, byte[] itemJson) {
+    return patch(List.of(item), List.of(itemJson), Set.of());
+  }
+
+  /** A new snapshot without the item with this id; the same snapshot if there is none. */
+  public CatalogSnapshot<T> remove(Long id) {
+    return patch(List.of(), List.of(), Set.of(id));
+  }
+
+  /**
+   * A new snapshot with a batch of changes applied in one merge pass: {@code upserts} (with their
+   * JSON at the same index) are added or replace the items with the same id, and items with a
+   * {@code removedIds} id are dropped. The same snapshot if nothing changes.
+   */
+  public CatalogSnapshot<T> patch(List<T> upserts, List<byte[]> upsertJson, Set<Long> removedIds) {
+    Set<Long> replaced = new HashSet<>(removedIds);
+    for (T item : upserts) {
+      replaced.add(idOf.apply(item));
+    }
+    Integer[] incoming = new Integer[upserts.size()];
+    Arrays.setAll(incoming, i -> i);
+    Arrays.sort(incoming, (a, b) -> order.compare(upserts.get(a), upserts.get(b)));
+
+    List<T> nextItems = new ArrayList<>(items.size() + upserts.size());
+    List<byte[]> nextJson = new ArrayList<>(items.size() + upserts.size());
+    int next = 0;
+    for (int i = 0; i < items.size(); i++) {
+      T item = items.get(i);
+      if (replaced.contains(idOf.apply(item))) {
+        continue;
+      }
+      while (next < incoming.length && order.compare(upserts.get(incoming[next]), item) < 0) {
+        nextItems.add(upserts.get(incoming[next]));
+        nextJson.add(upsertJson.get(incoming[next]));
+        next++;
+      }
+      nextItems.add(item);
+      nextJson.add(json.get(i));
+    }
+    for (; next < incoming.length; next++) {
+      nextItems.add(upserts.get(incoming[next]));
+      nextJson.add(upsertJson.get(incoming[next]));
+    }
+    if (upserts.isEmpty() && nextItems.size() == items.size()) {
+      return this;
+    }
+    return new CatalogSnapshot<>(version + 1, nextItems, nextJson, idOf, order);
+  }
+
+  /** Joins already serialized items into a JSON array without re-serializing them. */
+  public static byte[] jsonArray(List<byte[]> items) {
+    if (items.isEmpty()) {
+      return EMPTY_ARRAY.clone();
+    }
+    int length = 1 + items.size();
+    for (byte[] item : items) {
+      length += item.length;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+    out.write('[');
+    for (int i = 0; i < items.size(); i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      out.writeBytes(items.get(i));
+    }
+    out.write(']');
+    return out.toByteArray();
+  }
+
+  @Override
+  public String toString() {
+    return "CatalogSnapshot[version=" + version + ", size=" + items.size() + "]";
+  }
+}
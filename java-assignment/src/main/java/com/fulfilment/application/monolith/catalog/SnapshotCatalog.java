@@ -0,0 +1,182 @@
+package com.fulfilment.application.monolith.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Holds the current {@link CatalogSnapshot} of an entity. The snapshot is loaded on first use and
+ * then patched from committed changes, so reads never touch the database or the serializer.
+ *
+ * <p>Every change bumps a generation counter, and a load only installs its snapshot if no change
+ * committed while it was reading; otherwise the next read loads again.
+ *
+ * <p>Committed changes are collected by id and applied in one pass by the next read, so a burst of
+ * changes costs one copy of the snapshot rather than one per change.
+ *
+ * <p>After-commit observers of two transactions may run in either order, so changes carry the row
+ * version: an upsert older than the item it would replace, or than a recent delete of its id, is
+ * dropped.
+ */
+public abstract class SnapshotCatalog<T> {
+
+  private final ObjectMapper objectMapper;
+  private static final int MAX_TOMBSTONES = 4096;
+
+  private final Function<T, Long> idOf;
+  private final ToLongFunction<T> versionOf;
+  private final Comparator<T> order;
+
+  // Random per process, so a tag from another instance or an earlier run never matches
+  private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+  private volatile CatalogSnapshot<T> current;
+  // Committed changes not applied to current yet; a null item is a delete. Guarded by this
+  private final Map<Long, T> changes = new HashMap<>();
+  private volatile boolean changed;
+  // Version of recently deleted ids, so a late upsert cannot bring them back. Guarded by this
+  private final Map<Long, Long> tombstones =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+          return size() > MAX_TOMBSTONES;
+        }
+      };
+  private long generation;
+  private long nextVersion = 1;
+
+  protected SnapshotCatalog(
+      ObjectMapper objectMapper, Function<T, Long> idOf, ToLongFunction<T> versionOf, Comparator<T> order) {
+    this.objectMapper = objectMapper;
+    this.idOf = idOf;
+    this.versionOf = versionOf;
+    this.order = order;
+  }
+
+  /** Reads every item from the database; called outside any lock. */
+  protected abstract List<T> loadAll();
+
+  public CatalogSnapshot<T> snapshot() {
+    CatalogSnapshot<T> snapshot = current;
+    if (snapshot != null && !changed) {
+      return snapshot;
+    }
+    long observedGeneration;
+    synchronized (this) {
+      if (current != null) {
+        applyChanges();
+        return current;
+      }
+      observedGeneration = generation;
+    }
+    List<T> items = loadAll();
+    synchronized (this) {
+      if (current == null) {
+        CatalogSnapshot<T> loaded = CatalogSnapshot.of(nextVersion++, items, this::serialize, idOf, order);
+        if (generation != observedGeneration) {
+          // A change committed while loading; serve this read but do not keep it
+          return loaded;
+        }
+        current = loaded;
+      }
+      return current;
+    }
+  }
+
+  /**
+   * Validator for a snapshot of this catalog. Versions only count within this process, so the tag
+   * also carries the process epoch.
+   */
+  public String tag(CatalogSnapshot<T> snapshot) {
+    return epoch + "-" + snapshot.version();
+  }
+
+  /** Records a committed create or update for the next read, unless a newer change is known. */
+  protected synchronized void upserted(T item) {
+    Long id = idOf.apply(item);
+    long version = versionOf.applyAsLong(item);
+    Long deletedAt = tombstones.get(id);
+    T pending = changes.get(id);
+    if ((deletedAt != null && deletedAt >= version)
+        || (pending != null && versionOf.applyAsLong(pending) >= version)) {
+      return;
+    }
+    generation++;
+    if (current != null) {
+      changes.put(id, item);
+      changed = true;
+    }
+  }
+
+  /** Records a committed delete of the given row version for the next read. */
+  protected synchronized void removed(Long id, long version) {
+    generation++;
+    tombstones.merge(id, version, Math::max);
+    if (current != null) {
+      changes.put(id, null);
+      changed = true;
+    }
+  }
+
+  /** Drops the snapshot after changes that cannot be patched in, such as bulk writes. */
+  public synchronized void invalidate() {
+    generation++;
+    current = null;
+    changes.clear();
+    changed = false;
+  }
+
+  // Caller holds the lock and current is set
+  private void applyChanges() {
+    if (changes.isEmpty()) {
+      return;
+    }
+    // Drop upserts the snapshot already has a newer row for
+    for (T item : current.items()) {
+      Long id = idOf.apply(item);
+      T change = changes.get(id);
+      if (change != null && versionOf.applyAsLong(change) <= versionOf.applyAsLong(item)) {
+        changes.remove(id);
+      }
+    }
+    if (changes.isEmpty()) {
+      changed = false;
+      return;
+    }
+    List<T> upserts = new ArrayList<>(changes.size());
+    List<byte[]> upsertJson = new ArrayList<>(changes.size());
+    Set<Long> removedIds = new HashSet<>();
+    changes.forEach(
+        (id, item) -> {
+          if (item == null) {
+            removedIds.add(id);
+          } else {
+            upserts.add(item);
+            upsertJson.add(serialize(item));
+          }
+        });
+    current = current.patch(upserts, upsertJson, removedIds);
+    nextVersion = current.version() + 1;
+    changes.clear();
+    changed = false;
+  }
+
+  public byte[] serialize(T item) {
+    try {
+      return objectMapper.writeValueAsBytes(item);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
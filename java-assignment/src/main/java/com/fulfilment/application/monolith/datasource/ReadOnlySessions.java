@@ -0,0 +1,68 @@
+package com.fulfilment.application.monolith.datasource;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.JDBCConnectionException;
+
+/**
+ * Runs reads on the {@value #DATASOURCE} datasource, a pool of its own that may point at a
+ * replica, so list and export traffic cannot take connections away from writes. Each read gets a
+ * read-only session in a read-only JDBC transaction; it may use the second-level cache but never
+ * fills it, so a lagging replica cannot put stale rows there.
+ *
+ * <p>Inside a transaction the work runs on the transaction's own session instead: a read that is
+ * part of a write must see the primary. Loads of views that are patched from committed change
+ * events stay on the primary too, as a replica behind the event would leave them stale.
+ */
+@ApplicationScoped
+public class ReadOnlySessions {
+
+  public static final String DATASOURCE = "readonly";
+
+  private final AgroalDataSource dataSource;
+  private final SessionFactory sessionFactory;
+  private final EntityManager entityManager;
+
+  @Inject
+  public ReadOnlySessions(
+      @DataSource(DATASOURCE) AgroalDataSource dataSource, SessionFactory sessionFactory, EntityManager entityManager) {
+    this.dataSource = dataSource;
+    this.sessionFactory = sessionFactory;
+    this.entityManager = entityManager;
+  }
+
+  public <T> T read(Function<Session, T> work) {
+    if (QuarkusTransaction.isActive()) {
+      return work.apply(entityManager.unwrap(Session.class));
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      // Pooled connections autocommit; a transaction enables cursors and enforces read-only
+      connection.setAutoCommit(false);
+      connection.setReadOnly(true);
+      try (Session session =
+          sessionFactory.withOptions().connection(connection).autoJoinTransactions(false).openSession()) {
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        session.setCacheMode(CacheMode.GET);
+        return work.apply(session);
+      } finally {
+        connection.rollback();
+        connection.setReadOnly(false);
+        connection.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      throw new JDBCConnectionException("Read-only datasource failed", e);
+    }
+  }
+}
@@ -1,30 +1,16 @@
 package com.fulfilment.application.monolith.location;
 
+import com.fulfilment.application.monolith.tracing.Traced;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseStateException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import jakarta.enterprise.context.ApplicationScoped;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @ApplicationScoped
+@Traced
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
-
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
-  }
-
   @Override
   public Location resolveByIdentifier(String identifier) {
 
@@ -32,11 +18,10 @@ public class LocationGateway implements LocationResolver {
       throw new InvalidWarehouseStateException("Location identifier cannot be null or empty");
     }
 
-    return locations
-        .stream()
-        .filter(location -> location.identification.equals(identifier))
-        .findFirst()
-        .orElseThrow(
-            () -> new LocationNotFoundException(identifier));
+    Location location = Locations.BY_IDENTIFIER.get(identifier);
+    if (location == null) {
+      throw new LocationNotFoundException(identifier);
+    }
+    return location;
   }
 }
@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The fixed location catalog, keyed by identifier. It is built from constants only, so native
+ * builds initialize this class at build time and ship the map in the image heap instead of
+ * building it on every start.
+ */
+final class Locations {
+
+  static final Map<String, Location> BY_IDENTIFIER =
+      Stream.of(
+              new Location("ZWOLLE-001", 1, 40),
+              new Location("ZWOLLE-002", 2, 50),
+              new Location("AMSTERDAM-001", 5, 100),
+              new Location("AMSTERDAM-002", 3, 75),
+              new Location("TILBURG-001", 1, 40),
+              new Location("HELMOND-001", 1, 45),
+              new Location("EINDHOVEN-001", 2, 70),
+              new Location("VETSBY-001", 1, 90))
+          .collect(Collectors.toUnmodifiableMap(location -> location.identification, Function.identity()));
+
+  private Locations() {}
+}
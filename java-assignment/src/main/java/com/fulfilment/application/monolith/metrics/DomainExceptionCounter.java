@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.metrics;
+
+import com.fulfilment.application.monolith.associations.exceptions.AssociationDomainException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseDomainException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Increments {@value Metrics#DOMAIN_EXCEPTIONS} for warehouse and association domain exceptions.
+ * Use cases call each other, so an exception is counted only where it leaves the outermost counted
+ * call on the thread.
+ */
+@DomainExceptionsCounted
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class DomainExceptionCounter {
+
+  private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+  @Inject MeterRegistry meterRegistry;
+
+  @AroundInvoke
+  Object count(InvocationContext context) throws Exception {
+    int[] depth = DEPTH.get();
+    depth[0]++;
+    try {
+      return context.proceed();
+    } catch (WarehouseDomainException | AssociationDomainException e) {
+      if (depth[0] == 1) {
+        meterRegistry.counter(Metrics.DOMAIN_EXCEPTIONS, "type", e.getClass().getSimpleName()).increment();
+      }
+      throw e;
+    } finally {
+      depth[0]--;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.fulfilment.application.monolith.metrics;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Counts the domain exceptions thrown by the annotated bean; see {@link DomainExceptionCounter}. */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface DomainExceptionsCounted {}
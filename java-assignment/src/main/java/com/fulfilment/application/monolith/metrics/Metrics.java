@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.metrics;
+
+/**
+ * Names of the application's own meters, exposed on {@code /q/metrics}. Timers are recorded by
+ * Micrometer's {@code @Timed} with {@code class}, {@code method} and {@code exception} tags.
+ */
+public final class Metrics {
+
+  /** Latency of every use case method, with a percentile histogram. */
+  public static final String USE_CASE_TIMER = "usecase";
+
+  /** Latency of every repository method, with a percentile histogram. */
+  public static final String REPOSITORY_TIMER = "repository";
+
+  /** Domain exceptions leaving a use case, tagged with the exception's simple name. */
+  public static final String DOMAIN_EXCEPTIONS = "domain.exceptions";
+
+  private Metrics() {}
+}
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk upsert. Records that could not be parsed or validated, and every record of a
+ * chunk whose write failed, count as failed; {@code errors} keeps the first messages, with line
+ * numbers. Records superseded by a later line for the same name count as unchanged.
+ */
+public class ProductBulkResult {
+
+  public long inserted;
+  public long updated;
+  public long unchanged;
+  public long failed;
+  public List<String> errors = new ArrayList<>();
+
+  public ProductBulkResult() {}
+}
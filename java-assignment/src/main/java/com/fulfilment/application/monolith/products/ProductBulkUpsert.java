@@ -0,0 +1,269 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fulfilment.application.monolith.associations.ProductAvailabilityView;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+/**
+ * Upserts a streamed catalog refresh by product name. The body is read line by line and written
+ * in chunks of {@code products.bulk.chunk-size}, each in its own transaction, so memory stays
+ * flat however large the body is. Within a chunk the last record for a name wins.
+ *
+ * <p>On PostgreSQL a chunk is one {@code INSERT ... ON CONFLICT} statement; elsewhere the
+ * existing products of the chunk are loaded with one query and changed through the session.
+ */
+@ApplicationScoped
+public class ProductBulkUpsert {
+
+  public enum Format {
+    NDJSON,
+    CSV
+  }
+
+  private static final Logger LOGGER = Logger.getLogger(ProductBulkUpsert.class.getName());
+
+  private static final int NAME_MAX_LENGTH = 40;
+
+  private static final int MAX_ERRORS = 100;
+
+  private final ProductRepository productRepository;
+  private final ProductCatalog productCatalog;
+  private final ProductAvailabilityView productAvailabilityView;
+  private final EntityManagerFactory entityManagerFactory;
+  private final ObjectReader productReader;
+  private final int chunkSize;
+  private final boolean onConflict;
+
+  @Inject
+  public ProductBulkUpsert(
+      ProductRepository productRepository,
+      ProductCatalog productCatalog,
+      ProductAvailabilityView productAvailabilityView,
+      EntityManagerFactory entityManagerFactory,
+      ObjectMapper objectMapper,
+      @ConfigProperty(name = "products.bulk.chunk-size", defaultValue = "500") int chunkSize,
+      @ConfigProperty(name = "quarkus.datasource.db-kind") String dbKind) {
+    this.productRepository = productRepository;
+    this.productCatalog = productCatalog;
+    this.productAvailabilityView = productAvailabilityView;
+    this.entityManagerFactory = entityManagerFactory;
+    this.productReader = objectMapper.readerFor(Product.class);
+    this.chunkSize = chunkSize;
+    this.onConflict = "postgresql".equals(dbKind);
+  }
+
+  /** Throws {@link IllegalArgumentException} when a CSV body has no header with a name column. */
+  public ProductBulkResult upsert(InputStream body, Format format) throws IOException {
+    ProductBulkResult result = new ProductBulkResult();
+    Map<String, Record> chunk = new LinkedHashMap<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      CsvColumns columns = null;
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (format == Format.CSV && columns == null) {
+          // A body without a usable header is rejected as a whole
+          columns = CsvColumns.of(line);
+          continue;
+        }
+        Product product;
+        try {
+          product = format == Format.CSV ? columns.parse(line) : productReader.readValue(line);
+          validate(product);
+        } catch (JsonProcessingException e) {
+          fail(result, 1, "Line " + lineNumber + ": " + e.getOriginalMessage());
+          continue;
+        } catch (IllegalArgumentException e) {
+          fail(result, 1, "Line " + lineNumber + ": " + e.getMessage());
+          continue;
+        }
+        Record previous = chunk.put(product.name, new Record(lineNumber, product));
+        if (previous != null) {
+          // Superseded by a later line for the same name
+          result.unchanged++;
+        }
+        if (chunk.size() == chunkSize) {
+          write(chunk, result);
+        }
+      }
+      write(chunk, result);
+    } finally {
+      // Products were written around the entity events
+      entityManagerFactory.getCache().evict(Product.class);
+      productCatalog.invalidate();
+      productAvailabilityView.invalidate();
+    }
+    return result;
+  }
+
+  private void write(Map<String, Record> chunk, ProductBulkResult result) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    List<Product> products = chunk.values().stream().map(Record::product).toList();
+    try {
+      long[] counts =
+          QuarkusTransaction.requiringNew()
+              .call(
+                  () ->
+                      onConflict
+                          ? productRepository.upsertByNameOnConflict(products)
+                          : upsertThroughSession(products));
+      result.inserted += counts[0];
+      result.updated += counts[1];
+      result.unchanged += products.size() - counts[0] - counts[1];
+    } catch (RuntimeException e) {
+      LOGGER.error("Bulk product upsert chunk failed", e);
+      Record first = chunk.values().iterator().next();
+      fail(result, products.size(), "Lines from " + first.lineNumber() + ": chunk failed: " + e.getMessage());
+    }
+    chunk.clear();
+  }
+
+  // Portable fallback: one query for the existing products, JDBC-batched writes on flush
+  private long[] upsertThroughSession(List<Product> products) {
+    Session session = productRepository.getEntityManager().unwrap(Session.class);
+    session.setJdbcBatchSize(chunkSize);
+    Map<String, Product> existing = new HashMap<>();
+    productRepository
+        .list("name in ?1", products.stream().map(product -> product.name).toList())
+        .forEach(product -> existing.put(product.name, product));
+
+    long[] counts = new long[2];
+    for (Product product : products) {
+      Product entity = existing.get(product.name);
+      if (entity == null) {
+        session.persist(product);
+        counts[0]++;
+      } else if (!Objects.equals(entity.description, product.description)
+          || !samePrice(entity.price, product.price)
+          || entity.stock != product.stock) {
+        entity.description = product.description;
+        entity.price = product.price;
+        entity.stock = product.stock;
+        counts[1]++;
+      }
+    }
+    session.flush();
+    session.clear();
+    return counts;
+  }
+
+  private static boolean samePrice(BigDecimal left, BigDecimal right) {
+    return left == null ? right == null : right != null && left.compareTo(right) == 0;
+  }
+
+  private static void validate(Product product) {
+    if (product == null || product.name == null || product.name.isBlank()) {
+      throw new IllegalArgumentException("Product Name was not set.");
+    }
+    if (product.name.length() > NAME_MAX_LENGTH) {
+      throw new IllegalArgumentException("Product Name is longer than " + NAME_MAX_LENGTH + " characters.");
+    }
+    // Upserts are keyed by name; a client id must not pick the row
+    product.id = null;
+  }
+
+  private static void fail(ProductBulkResult result, int records, String error) {
+    result.failed += records;
+    if (result.errors.size() < MAX_ERRORS) {
+      result.errors.add(error);
+    }
+  }
+
+  private record Record(int lineNumber, Product product) {}
+
+  /** Column positions from a CSV header; name is required, description, price and stock optional. */
+  private record CsvColumns(int name, int description, int price, int stock) {
+
+    static CsvColumns of(String header) {
+      List<String> columns = splitCsv(header).stream().map(column -> column.strip().toLowerCase()).toList();
+      if (!columns.contains("name")) {
+        throw new IllegalArgumentException("CSV header has no name column.");
+      }
+      return new CsvColumns(
+          columns.indexOf("name"),
+          columns.indexOf("description"),
+          columns.indexOf("price"),
+          columns.indexOf("stock"));
+    }
+
+    Product parse(String line) {
+      List<String> values = splitCsv(line);
+      Product product = new Product(value(values, name));
+      product.description = value(values, description);
+      String priceValue = value(values, price);
+      String stockValue = value(values, stock);
+      try {
+        product.price = priceValue != null ? new BigDecimal(priceValue.strip()) : null;
+        product.stock = stockValue != null ? Integer.parseInt(stockValue.strip()) : 0;
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Price or stock is not a number.");
+      }
+      return product;
+    }
+
+    private static String value(List<String> values, int column) {
+      if (column < 0 || column >= values.size() || values.get(column).isEmpty()) {
+        return null;
+      }
+      return values.get(column);
+    }
+
+    // RFC 4180 fields on one line: quoted fields may hold commas and doubled quotes
+    private static List<String> splitCsv(String line) {
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < line.length(); i++) {
+        char c = line.charAt(i);
+        if (quoted) {
+          if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+            field.append('"');
+            i++;
+          } else if (c == '"') {
+            quoted = false;
+          } else {
+            field.append(c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else {
+          field.append(c);
+        }
+      }
+      if (quoted) {
+        throw new IllegalArgumentException("Unterminated quoted field.");
+      }
+      fields.add(field.toString());
+      return fields;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.catalog.SnapshotCatalog;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory snapshot of all products ordered by name, patched from committed {@link
+ * ProductEvent}s. The listing is written straight from its precomputed JSON.
+ *
+ * <p>A {@link Singleton} rather than application scoped: the constructor-initialized base class
+ * cannot be proxied.
+ */
+@Singleton
+public class ProductCatalog extends SnapshotCatalog<Product> {
+
+  private static final Comparator<Product> BY_NAME =
+      Comparator.comparing(
+              (Product product) -> product.name, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(product -> product.id);
+
+  private final ProductRepository productRepository;
+
+  @Inject
+  public ProductCatalog(ObjectMapper objectMapper, ProductRepository productRepository) {
+    super(objectMapper, product -> product.id, product -> product.version, BY_NAME);
+    this.productRepository = productRepository;
+  }
+
+  @Override
+  protected List<Product> loadAll() {
+    return productRepository.listAll();
+  }
+
+  void onProductCommitted(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductEvent event) {
+    if (event.getType() == ProductEventType.DELETE) {
+      removed(event.getProduct().id, event.getProduct().version);
+    } else {
+      upserted(copyOf(event.getProduct()));
+    }
+  }
+
+  // The committed entity is detached now; keep a private copy nobody else can change
+  private static Product copyOf(Product product) {
+    Product copy = new Product(product.name);
+    copy.id = product.id;
+    copy.description = product.description;
+    copy.price = product.price;
+    copy.stock = product.stock;
+    copy.version = product.version;
+    return copy;
+  }
+}
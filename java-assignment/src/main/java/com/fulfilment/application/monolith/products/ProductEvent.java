@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductEvent {
+    private final Product product;
+    private final ProductEventType type;
+
+    public ProductEvent(Product product, ProductEventType type) {
+        this.product = product;
+        this.type = type;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public ProductEventType getType() {
+        return type;
+    }
+}
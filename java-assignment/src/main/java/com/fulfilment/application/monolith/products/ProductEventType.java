@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.products;
+
+
+public enum ProductEventType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -1,7 +1,142 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+@Timed(value = Metrics.REPOSITORY_TIMER, histogram = true)
+@Traced
+public class ProductRepository implements PanacheRepository<Product> {
+
+  // One round trip per chunk; rows whose values did not change are neither written nor returned.
+  // Ids come with the rows, so conflicting rows do not take values from the sequence.
+  private static final String UPSERT_BY_NAME =
+      "insert into product (id, name, description, price, stock, version)"
+          + " select u.id, u.name, u.description, u.price, u.stock, 0"
+          + " from unnest(?, ?, ?, ?, ?) as u(id, name, description, price, stock)"
+          + " on conflict (name) do update set description = excluded.description,"
+          + " price = excluded.price, stock = excluded.stock, version = product.version + 1"
+          + " where (product.description, product.price, product.stock)"
+          + " is distinct from (excluded.description, excluded.price, excluded.stock)"
+          + " returning (xmax = 0) as inserted";
+
+  // Rank: exact name, name prefix, name substring, description only; then closest name
+  private static final String SEARCH_ORDER =
+      " order by case when lower(p.name) = :q then 0"
+          + " when lower(p.name) like :prefix escape '\\' then 1"
+          + " when lower(p.name) like :substring escape '\\' then 2 else 3 end";
+
+  /**
+   * Ranked search on PostgreSQL, served by the indexes in {@code db/product-search-indexes.sql}.
+   * Queries shorter than three characters match name prefixes only, as trigrams need three.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Product> searchByTrigram(String query, int offset, int limit) {
+    String q = query.toLowerCase(Locale.ROOT);
+    String escaped = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    String sql;
+    if (q.length() < 3) {
+      sql = "select p.* from product p where lower(p.name) like :prefix escape '\\'"
+          + SEARCH_ORDER + ", p.name, p.id";
+    } else {
+      sql = "select p.* from product p"
+          + " where lower(p.name) like :substring escape '\\'"
+          + " or lower(p.description) like :substring escape '\\'"
+          + SEARCH_ORDER + ", similarity(lower(p.name), :q) desc, p.name, p.id";
+    }
+    return getEntityManager()
+        .createNativeQuery(sql, Product.class)
+        .setParameter("q", q)
+        .setParameter("prefix", escaped + "%")
+        .setParameter("substring", "%" + escaped + "%")
+        .setFirstResult(offset)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  /**
+   * Inserts or updates products by their unique name with PostgreSQL's {@code INSERT ... ON
+   * CONFLICT}; names must be distinct within the call. Returns the inserted and updated counts.
+   * Goes around the entity cache, so callers evict {@link Product} afterwards.
+   */
+  public long[] upsertByNameOnConflict(List<Product> products) {
+    assignIdsByName(products);
+    Long[] ids = new Long[products.size()];
+    String[] names = new String[products.size()];
+    String[] descriptions = new String[products.size()];
+    BigDecimal[] prices = new BigDecimal[products.size()];
+    Integer[] stocks = new Integer[products.size()];
+    for (int i = 0; i < products.size(); i++) {
+      Product product = products.get(i);
+      ids[i] = product.id;
+      names[i] = product.name;
+      descriptions[i] = product.description;
+      prices[i] = product.price;
+      stocks[i] = product.stock;
+    }
+    long[] counts = new long[2];
+    getEntityManager()
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (PreparedStatement statement = connection.prepareStatement(UPSERT_BY_NAME)) {
+                Array[] arrays = {
+                  connection.createArrayOf("int8", ids),
+                  connection.createArrayOf("text", names),
+                  connection.createArrayOf("text", descriptions),
+                  connection.createArrayOf("numeric", prices),
+                  connection.createArrayOf("int4", stocks)
+                };
+                for (int i = 0; i < arrays.length; i++) {
+                  statement.setArray(i + 1, arrays[i]);
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                  while (rows.next()) {
+                    counts[rows.getBoolean(1) ? 0 : 1]++;
+                  }
+                }
+              }
+            });
+    return counts;
+  }
+
+  /**
+   * Sets the id of each product to the id of the persisted product with its name, or to a new one
+   * from the entity's generator, which hands out the sequence's blocks of ids one by one. A name
+   * inserted concurrently in between leaves its new id unused.
+   */
+  void assignIdsByName(List<Product> products) {
+    Map<String, Long> existing = new HashMap<>();
+    getEntityManager()
+        .createQuery("select p.name, p.id from Product p where p.name in ?1", Object[].class)
+        .setParameter(1, products.stream().map(product -> product.name).toList())
+        .getResultList()
+        .forEach(row -> existing.put((String) row[0], (Long) row[1]));
+
+    SharedSessionContractImplementor session =
+        getEntityManager().unwrap(SharedSessionContractImplementor.class);
+    BeforeExecutionGenerator generator =
+        (BeforeExecutionGenerator)
+            session.getFactory().getMappingMetamodel().getEntityDescriptor(Product.class).getGenerator();
+    for (Product product : products) {
+      Long id = existing.get(product.name);
+      product.id =
+          id != null ? id : (Long) generator.generate(session, product, null, EventType.INSERT);
+    }
+  }
+}
@@ -2,47 +2,192 @@ package com.fulfilment.application.monolith.products;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.associations.ProductAvailability;
+import com.fulfilment.application.monolith.associations.ProductAvailabilityView;
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
+import com.fulfilment.application.monolith.catalog.CatalogExport;
+import com.fulfilment.application.monolith.catalog.CatalogSnapshot;
+import com.fulfilment.application.monolith.serialization.Cbor;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.jboss.logging.Logger;
 
 @Path("product")
 @ApplicationScoped
-@Produces("application/json")
+@Produces({"application/json", Cbor.MEDIA_TYPE})
 @Consumes("application/json")
 public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject CleanupAssociationsUseCase cleanupAssociationsUseCase;
+
+  @Inject ProductCatalog productCatalog;
+
+  @Inject ProductSearch productSearch;
+
+  @Inject ProductBulkUpsert productBulkUpsert;
+
+  @Inject CatalogExport catalogExport;
+
+  @Inject ProductAvailabilityView productAvailabilityView;
+
+  private static final List<CatalogExport.Column<Product>> EXPORT_COLUMNS =
+      List.of(
+          new CatalogExport.Column<>("id", product -> product.id),
+          new CatalogExport.Column<>("name", product -> product.name),
+          new CatalogExport.Column<>("description", product -> product.description),
+          new CatalogExport.Column<>("price", product -> product.price),
+          new CatalogExport.Column<>("stock", product -> product.stock));
+
+  @Inject Event<ProductEvent> productEvent;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  static final String ASSOCIATIONS_DELETED_HEADER = "X-Associations-Deleted";
+
+  static final String NDJSON = "application/x-ndjson";
+
+  private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+
+  private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+  private static final int MAX_AVAILABILITY_IDS = 500;
+
+  /**
+   * Writes the catalog snapshot's precomputed JSON. The ETag is the snapshot's tag, so an
+   * unchanged catalog is answered with 304 without serializing anything; it never matches a tag
+   * from another instance or an earlier run. CBOR callers get the snapshot's products encoded per
+   * request.
+   */
+  @GET
+  public Response get(@Context Request request, @Context HttpHeaders headers) {
+    CatalogSnapshot<Product> snapshot = productCatalog.snapshot();
+    boolean cbor = Cbor.preferred(headers);
+    EntityTag etag = new EntityTag("catalog-" + productCatalog.tag(snapshot) + Cbor.etagSuffix(headers));
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    if (notModified != null) {
+      return notModified.tag(etag).build();
+    }
+    // Snapshot bytes are JSON; CBOR callers get the products encoded by the provider
+    return Response.ok(cbor ? snapshot.items() : snapshot.fullJson())
+        .tag(etag)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+        .build();
+  }
+
+  /**
+   * Streams every product ordered by id as NDJSON or CSV, for exports of the whole catalog.
+   * Unlike the listing, nothing is held in memory beyond one fetch of rows.
+   */
+  @GET
+  @Path("export")
+  @Produces({NDJSON, "text/csv"})
+  public Response export(@QueryParam("format") @DefaultValue("ndjson") String format) {
+    CatalogExport.Format exportFormat;
+    try {
+      exportFormat = CatalogExport.Format.of(format);
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException(e.getMessage(), 400);
+    }
+    return Response.ok(
+            catalogExport.stream(
+                "from Product order by id", Product.class, exportFormat, EXPORT_COLUMNS, product -> product),
+            exportFormat.mediaType)
+        .build();
+  }
+
+  /**
+   * Ranked search by a fragment of the name or description: exact name first, then name prefixes,
+   * name substrings, and description matches. Queries shorter than three characters match name
+   * prefixes only.
+   */
+  @GET
+  @Path("search")
+  public ProductSearchResult search(
+      @QueryParam("q") String query,
+      @QueryParam("page") @DefaultValue("0") int page,
+      @QueryParam("size") @DefaultValue("" + DEFAULT_SEARCH_PAGE_SIZE) int size) {
+    if (query == null || query.isBlank()) {
+      throw new WebApplicationException("Search query was not set on request.", 400);
+    }
+    if (page < 0) {
+      throw new WebApplicationException("Page must not be negative.", 400);
+    }
+    return productSearch.search(query.strip(), page, Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+  }
+
+  /**
+   * Availability of several products at once, e.g. {@code ?id=1&id=2}. Unknown ids are left out of
+   * the result.
+   */
   @GET
-  public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+  @Path("availability")
+  public List<ProductAvailability> availability(@QueryParam("id") List<Long> ids) {
+    if (ids == null || ids.isEmpty()) {
+      throw new WebApplicationException("No product id was set on request.", 400);
+    }
+    if (ids.size() > MAX_AVAILABILITY_IDS) {
+      throw new WebApplicationException("At most " + MAX_AVAILABILITY_IDS + " product ids per request.", 400);
+    }
+    return productAvailabilityView.get(ids);
+  }
+
+  /**
+   * Summed stock of the warehouses and stores linked to the product through associations, served
+   * from the incrementally maintained availability aggregate.
+   */
+  @GET
+  @Path("{id}/availability")
+  public ProductAvailability availability(Long id) {
+    ProductAvailability availability = productAvailabilityView.get(id);
+    if (availability == null) {
+      throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+    }
+    return availability;
   }
 
+  /**
+   * Answers {@code If-None-Match} with 304 straight from the entity cache, before anything is
+   * serialized. The ETag is the row version, suffixed for CBOR callers.
+   */
   @GET
   @Path("{id}")
-  public Product getSingle(Long id) {
+  public Response getSingle(Long id, @Context Request request, @Context HttpHeaders headers) {
     Product entity = productRepository.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    EntityTag etag = entityTag(entity, headers);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    if (notModified != null) {
+      return notModified.tag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+    }
+    return Response.ok(entity).tag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
   }
 
   @POST
@@ -53,13 +198,35 @@ public class ProductResource {
     }
 
     productRepository.persist(product);
+
+    // Fire event to be processed AFTER transaction commits
+    productEvent.fire(new ProductEvent(product, ProductEventType.CREATE));
     return Response.ok(product).status(201).build();
   }
 
+  /**
+   * Upserts a streamed catalog refresh by product name: NDJSON with one product object per line,
+   * or CSV with a header naming the name, description, price and stock columns.
+   */
+  @POST
+  @Path("bulk")
+  @Consumes({ProductResource.NDJSON, "text/csv"})
+  public ProductBulkResult bulkUpsert(InputStream body, @Context HttpHeaders headers) throws IOException {
+    ProductBulkUpsert.Format format =
+        headers.getMediaType().isCompatible(MediaType.valueOf("text/csv"))
+            ? ProductBulkUpsert.Format.CSV
+            : ProductBulkUpsert.Format.NDJSON;
+    try {
+      return productBulkUpsert.upsert(body, format);
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException(e.getMessage(), 400);
+    }
+  }
+
   @PUT
   @Path("{id}")
   @Transactional
-  public Product update(Long id, Product product) {
+  public Response update(Long id, Product product, @Context Request request, @Context HttpHeaders headers) {
     if (product.name == null) {
       throw new WebApplicationException("Product Name was not set on request.", 422);
     }
@@ -69,27 +236,47 @@ public class ProductResource {
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    checkIfMatch(request, headers, entity);
 
     entity.name = product.name;
     entity.description = product.description;
     entity.price = product.price;
     entity.stock = product.stock;
 
-    productRepository.persist(entity);
+    // Flush now so the response carries the version this change commits with
+    productRepository.persistAndFlush(entity);
+    productEvent.fire(new ProductEvent(entity, ProductEventType.UPDATE));
 
-    return entity;
+    return Response.ok(entity).tag(entityTag(entity, headers)).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
   }
 
   @DELETE
   @Path("{id}")
   @Transactional
-  public Response delete(Long id) {
+  public Response delete(Long id, @Context Request request, @Context HttpHeaders headers) {
     Product entity = productRepository.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    checkIfMatch(request, headers, entity);
+    long associationsDeleted = cleanupAssociationsUseCase.removeByProduct(id);
     productRepository.delete(entity);
-    return Response.status(204).build();
+    productEvent.fire(new ProductEvent(entity, ProductEventType.DELETE));
+    return Response.status(204).header(ASSOCIATIONS_DELETED_HEADER, associationsDeleted).build();
+  }
+
+  // The row version, per format: JSON and CBOR are different representations
+  private static EntityTag entityTag(Product product, HttpHeaders headers) {
+    return new EntityTag(product.version + Cbor.etagSuffix(headers));
+  }
+
+  // 412 when If-Match names another version; without the header the write is unconditional
+  private static void checkIfMatch(Request request, HttpHeaders headers, Product entity) {
+    Response.ResponseBuilder failed = request.evaluatePreconditions(entityTag(entity, headers));
+    if (failed != null) {
+      throw new WebApplicationException(
+          "Product with id of " + entity.id + " was modified by someone else.", failed.build());
+    }
   }
 
   @Provider
@@ -104,6 +291,9 @@ public class ProductResource {
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
+      } else if (exception instanceof OptimisticLockException) {
+        // A concurrent write committed first
+        code = 409;
       }
 
       ObjectNode exceptionJson = objectMapper.createObjectNode();
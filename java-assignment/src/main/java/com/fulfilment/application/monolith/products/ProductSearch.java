@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.catalog.CatalogSnapshot;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Ranked product search by name or description fragment. On PostgreSQL the query runs against
+ * the trigram and prefix indexes; elsewhere, such as the H2 test profile, it runs against an
+ * in-memory n-gram index built from the current {@link ProductCatalog} snapshot.
+ */
+@ApplicationScoped
+public class ProductSearch {
+
+  @Inject ProductRepository productRepository;
+
+  @Inject ProductCatalog productCatalog;
+
+  @ConfigProperty(name = "quarkus.datasource.db-kind")
+  String dbKind;
+
+  // Index of one snapshot, rebuilt on the first search after the catalog changed
+  private volatile IndexedSnapshot indexed;
+
+  public ProductSearchResult search(String query, int page, int size) {
+    int offset = page * size;
+    // One extra match tells whether there is a next page without counting
+    List<Product> matches =
+        "postgresql".equals(dbKind)
+            ? productRepository.searchByTrigram(query, offset, size + 1)
+            : index().search(query, offset, size + 1);
+    boolean hasMore = matches.size() > size;
+    return new ProductSearchResult(query, page, size, hasMore, hasMore ? matches.subList(0, size) : matches);
+  }
+
+  private ProductSearchIndex index() {
+    CatalogSnapshot<Product> snapshot = productCatalog.snapshot();
+    IndexedSnapshot current = indexed;
+    if (current == null || current.snapshot() != snapshot) {
+      current = new IndexedSnapshot(snapshot, new ProductSearchIndex(snapshot.items()));
+      indexed = current;
+    }
+    return current.index();
+  }
+
+  private record IndexedSnapshot(CatalogSnapshot<Product> snapshot, ProductSearchIndex index) {}
+}
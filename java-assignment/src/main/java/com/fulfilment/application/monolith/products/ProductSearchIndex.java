@@ -0,0 +1,167 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory n-gram index over one catalog snapshot, used where the database has no trigram
+ * support. Mirrors {@link ProductRepository#searchByTrigram}: queries of three or more characters
+ * match substrings of name or description through trigram posting lists, shorter ones match name
+ * prefixes by binary search over the sorted names.
+ */
+final class ProductSearchIndex {
+
+  private static final int[] NO_POSTINGS = new int[0];
+
+  private final List<Product> products;
+  private final String[] names;
+  private final String[] descriptions;
+  // Product positions sorted by lower-case name, for prefix lookups
+  private final int[] byName;
+  private final Map<Long, int[]> trigrams;
+
+  ProductSearchIndex(List<Product> products) {
+    this.products = List.copyOf(products);
+    int size = products.size();
+    this.names = new String[size];
+    this.descriptions = new String[size];
+    Map<Long, IntList> postings = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      Product product = products.get(i);
+      names[i] = lower(product.name);
+      descriptions[i] = lower(product.description);
+      addTrigrams(postings, names[i], i);
+      addTrigrams(postings, descriptions[i], i);
+    }
+    Map<Long, int[]> frozen = new HashMap<>(postings.size() * 2);
+    postings.forEach((trigram, list) -> frozen.put(trigram, list.toArray()));
+    this.trigrams = frozen;
+    this.byName =
+        IntStream.range(0, size)
+            .boxed()
+            .sorted(Comparator.comparing((Integer i) -> names[i]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+  }
+
+  /** One page of ranked matches; fetch one more than the page size to learn if there is a next. */
+  List<Product> search(String query, int offset, int limit) {
+    String q = lower(query);
+    List<Integer> matches = q.length() < 3 ? prefixMatches(q) : substringMatches(q);
+    matches.sort(
+        Comparator.comparingInt((Integer i) -> rank(i, q))
+            .thenComparing(i -> names[i])
+            .thenComparing(i -> products.get(i).id));
+    List<Product> page = new ArrayList<>(Math.min(limit, Math.max(0, matches.size() - offset)));
+    for (int i = offset; i < matches.size() && page.size() < limit; i++) {
+      page.add(products.get(matches.get(i)));
+    }
+    return page;
+  }
+
+  private List<Integer> prefixMatches(String prefix) {
+    int low = 0;
+    int high = byName.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (names[byName[mid]].compareTo(prefix) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    List<Integer> matches = new ArrayList<>();
+    for (int i = low; i < byName.length && names[byName[i]].startsWith(prefix); i++) {
+      matches.add(byName[i]);
+    }
+    return matches;
+  }
+
+  private List<Integer> substringMatches(String q) {
+    // Intersect starting from the rarest trigram, then confirm the candidates
+    int[][] lists = new int[q.length() - 2][];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = trigrams.getOrDefault(trigram(q, i), NO_POSTINGS);
+    }
+    Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+    int[] candidates = lists[0];
+    for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+      candidates = intersect(candidates, lists[i]);
+    }
+    List<Integer> matches = new ArrayList<>(candidates.length);
+    for (int candidate : candidates) {
+      if (names[candidate].contains(q) || descriptions[candidate].contains(q)) {
+        matches.add(candidate);
+      }
+    }
+    return matches;
+  }
+
+  private int rank(int index, String q) {
+    String name = names[index];
+    if (name.equals(q)) {
+      return 0;
+    }
+    if (name.startsWith(q)) {
+      return 1;
+    }
+    return name.contains(q) ? 2 : 3;
+  }
+
+  private static void addTrigrams(Map<Long, IntList> postings, String text, int position) {
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      IntList list = postings.computeIfAbsent(trigram(text, i), key -> new IntList());
+      // Positions arrive in ascending order; skip repeats within the same product
+      if (list.size == 0 || list.values[list.size - 1] != position) {
+        list.add(position);
+      }
+    }
+  }
+
+  private static long trigram(String text, int start) {
+    return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+  }
+
+  private static int[] intersect(int[] left, int[] right) {
+    int[] result = new int[Math.min(left.length, right.length)];
+    int size = 0;
+    for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+      if (left[i] == right[j]) {
+        result[size++] = left[i];
+        i++;
+        j++;
+      } else if (left[i] < right[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private static String lower(String value) {
+    return value == null ? "" : value.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class IntList {
+    int[] values = new int[4];
+    int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.List;
+
+/** One page of ranked search matches; {@code hasMore} tells whether the next page has any. */
+public class ProductSearchResult {
+
+  public String query;
+  public int page;
+  public int size;
+  public boolean hasMore;
+  public List<Product> items;
+
+  public ProductSearchResult() {}
+
+  public ProductSearchResult(String query, int page, int size, boolean hasMore, List<Product> items) {
+    this.query = query;
+    this.page = page;
+    this.size = size;
+    this.hasMore = hasMore;
+    this.items = items;
+  }
+}
@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.querystats;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.enterprise.context.RequestScoped;
+import java.util.Locale;
+
+/**
+ * Hibernate work done on behalf of one request: JDBC statements executed, entities loaded from
+ * the database, collections fetched lazily and time spent in JDBC. Filled by {@link
+ * QueryStatsSessionListener} and {@link QueryStatsStatistics}, reported by {@link QueryStatsFilter}.
+ */
+@RequestScoped
+public class QueryStats {
+
+  public static final String HEADER = "X-Query-Stats";
+
+  private int statements;
+  private int entitiesLoaded;
+  private int collectionsFetched;
+  private long jdbcNanos;
+
+  /** @return the stats of the active request, or {@code null} on threads that serve none */
+  static QueryStats current() {
+    ArcContainer container = Arc.container();
+    if (container == null || !container.requestContext().isActive()) {
+      return null;
+    }
+    return container.instance(QueryStats.class).get();
+  }
+
+  synchronized void statementExecuted(long nanos) {
+    statements++;
+    jdbcNanos += nanos;
+  }
+
+  synchronized void entityLoaded() {
+    entitiesLoaded++;
+  }
+
+  synchronized void collectionFetched() {
+    collectionsFetched++;
+  }
+
+  /** {@code statements=3, entities=2, collections=0, jdbc-ms=1.25} */
+  public synchronized String headerValue() {
+    return String.format(
+        Locale.ROOT,
+        "statements=%d, entities=%d, collections=%d, jdbc-ms=%.2f",
+        statements,
+        entitiesLoaded,
+        collectionsFetched,
+        jdbcNanos / 1e6);
+  }
+}
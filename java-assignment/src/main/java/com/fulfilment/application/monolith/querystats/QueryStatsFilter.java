@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.querystats;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Reports the request's {@link QueryStats} in the {@value QueryStats#HEADER} response header when
+ * {@code query-stats.enabled} is set, which the dev and test profiles do. Work that happens after
+ * the headers are written, such as streamed exports, is not included.
+ */
+@Provider
+public class QueryStatsFilter implements ContainerResponseFilter {
+
+  @ConfigProperty(name = "query-stats.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @Inject QueryStats queryStats;
+
+  @Override
+  public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+    if (enabled) {
+      response.getHeaders().putSingle(QueryStats.HEADER, queryStats.headerValue());
+    }
+  }
+}
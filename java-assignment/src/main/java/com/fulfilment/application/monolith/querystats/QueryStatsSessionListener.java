@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.querystats;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts JDBC statement and batch executions and their time into the request's {@link
+ * QueryStats}. Hibernate creates one per session, and a session is used by one thread at a time.
+ */
+public class QueryStatsSessionListener implements SessionEventListener {
+
+  private long started;
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    record();
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    record();
+  }
+
+  private void record() {
+    QueryStats stats = QueryStats.current();
+    if (stats != null) {
+      stats.statementExecuted(System.nanoTime() - started);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.querystats;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate's statistics, which only keep totals for the whole session factory, additionally
+ * attributing entity loads and lazy collection fetches to the request's {@link QueryStats}.
+ */
+public class QueryStatsStatistics extends StatisticsImpl {
+
+  public QueryStatsStatistics(SessionFactoryImplementor sessionFactory) {
+    super(sessionFactory);
+  }
+
+  @Override
+  public void loadEntity(String entityName) {
+    super.loadEntity(entityName);
+    QueryStats stats = QueryStats.current();
+    if (stats != null) {
+      stats.entityLoaded();
+    }
+  }
+
+  @Override
+  public void fetchCollection(String role) {
+    super.fetchCollection(role);
+    QueryStats stats = QueryStats.current();
+    if (stats != null) {
+      stats.collectionFetched();
+    }
+  }
+
+  /** Named by {@code hibernate.stats.factory}. */
+  public static class Factory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+      return new QueryStatsStatistics(sessionFactory);
+    }
+  }
+}
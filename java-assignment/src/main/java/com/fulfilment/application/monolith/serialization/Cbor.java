@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.serialization;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+
+/** The binary Jackson format offered next to JSON; see {@link CborProvider}. */
+public final class Cbor {
+
+  public static final String MEDIA_TYPE = "application/cbor";
+
+  public static final MediaType TYPE = MediaType.valueOf(MEDIA_TYPE);
+
+  private static final String ETAG_SUFFIX = "-cbor";
+
+  private Cbor() {}
+
+  /**
+   * Whether the caller prefers CBOR over JSON. Endpoints that answer with pre-serialized JSON
+   * bytes use this to hand over objects instead; wildcards resolve to JSON.
+   */
+  public static boolean preferred(HttpHeaders headers) {
+    for (MediaType accepted : headers.getAcceptableMediaTypes()) {
+      if (accepted.isWildcardType() || accepted.isWildcardSubtype()) {
+        return false;
+      }
+      if (TYPE.isCompatible(accepted)) {
+        return true;
+      }
+      if (MediaType.APPLICATION_JSON_TYPE.isCompatible(accepted)) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Appended to a strong ETag when the caller gets CBOR, so the JSON and CBOR representations of
+   * the same version never share a tag. Responses that use it also send {@code Vary: Accept}.
+   */
+  public static String etagSuffix(HttpHeaders headers) {
+    return preferred(headers) ? ETAG_SUFFIX : "";
+  }
+}
@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes {@value Cbor#MEDIA_TYPE} bodies with the application's Jackson configuration,
+ * so the binary form carries exactly the fields and formats of the JSON one. Resources opt in by
+ * listing the media type in {@code @Produces} after JSON, which stays the default.
+ */
+@Provider
+@Produces(Cbor.MEDIA_TYPE)
+@Consumes(Cbor.MEDIA_TYPE)
+public class CborProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+  private final ObjectMapper cborMapper;
+
+  @Inject
+  public CborProvider(ObjectMapper objectMapper) {
+    this.cborMapper =
+        objectMapper
+            .copyWith(new CBORFactory())
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+  }
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return Cbor.TYPE.isCompatible(mediaType);
+  }
+
+  @Override
+  public Object readFrom(
+      Class<Object> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, String> httpHeaders,
+      InputStream entityStream)
+      throws IOException {
+    return cborMapper.readerFor(cborMapper.constructType(genericType)).readValue(entityStream);
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    // Pre-serialized JSON cannot be re-encoded; resources hand over objects for CBOR
+    return Cbor.TYPE.isCompatible(mediaType) && type != byte[].class;
+  }
+
+  @Override
+  public void writeTo(
+      Object value,
+      Class<?> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, Object> httpHeaders,
+      OutputStream entityStream)
+      throws IOException {
+    cborMapper.writerFor(cborMapper.constructType(genericType)).writeValue(entityStream, value);
+  }
+}
@@ -0,0 +1,432 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.jboss.logging.Logger;
+
+/**
+ * Append-only log of legacy store events, split into segment files that roll by size.
+ *
+ * <p>Appends are queued and written by a single writer thread: whatever queued up while the
+ * previous batch was being forced to disk goes out in one gathering write followed by one
+ * {@code force}. An append completes only once its batch is durable.
+ *
+ * <p>Each record is {@code [int length][int crc32][payload]}. Offsets are implicit: a segment file
+ * is named after the offset of its first record. Consumers read from an offset and commit their
+ * position to a small file next to the segments; segments every consumer has moved past are
+ * deleted.
+ */
+public class LegacyEventLog implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyEventLog.class.getName());
+
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String OFFSET_SUFFIX = ".offset";
+  private static final int HEADER_BYTES = 8;
+  private static final int MAX_BATCH = 1024;
+  private static final PendingAppend CLOSE = new PendingAppend(new byte[0]);
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+  private final Thread writer;
+
+  // Committed position per consumer name, including consumers from earlier runs
+  private final ConcurrentHashMap<String, Long> committed = new ConcurrentHashMap<>();
+
+  // Writer thread state
+  private FileChannel activeChannel;
+  private long activeSize;
+  private long nextOffset;
+
+  // Everything below this offset is on disk and visible to readers
+  private volatile long durableOffset;
+
+  // Guards closed, so that no append is queued behind the close marker
+  private final Object lifecycle = new Object();
+  private boolean closed;
+
+  public LegacyEventLog(Path directory, long segmentBytes) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    try {
+      Files.createDirectories(directory);
+      recover();
+      loadCommittedOffsets();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open legacy event log in " + directory, e);
+    }
+    this.writer = new Thread(this::writeLoop, "legacy-event-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /** Queues a record; the future completes with its offset once the record is on disk. */
+  public CompletableFuture<Long> append(byte[] payload) {
+    PendingAppend pending = new PendingAppend(payload);
+    synchronized (lifecycle) {
+      if (closed) {
+        pending.future.completeExceptionally(new IllegalStateException("Legacy event log is closed"));
+        return pending.future;
+      }
+      queue.add(pending);
+    }
+    return pending.future;
+  }
+
+  /** Appends a record and waits for the group commit that makes it durable. */
+  public long appendAndAwait(byte[] payload) {
+    try {
+      return append(payload).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw new UncheckedIOException("Append to legacy event log failed", io);
+      }
+      throw e;
+    }
+  }
+
+  /** Offset just past the last durable record; readers see every record below it. */
+  public long endOffset() {
+    return durableOffset;
+  }
+
+  /** Reads up to {@code max} durable records starting at {@code fromOffset}. */
+  public List<Record> read(long fromOffset, int max) {
+    List<Record> records = new ArrayList<>();
+    long end = durableOffset;
+    try {
+      List<Long> bases = segmentBases();
+      for (int i = 0; i < bases.size() && records.size() < max && fromOffset < end; i++) {
+        long base = bases.get(i);
+        long nextBase = i + 1 < bases.size() ? bases.get(i + 1) : Long.MAX_VALUE;
+        if (nextBase <= fromOffset) {
+          continue;
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.READ)) {
+          long position = 0;
+          long offset = base;
+          ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+          while (offset < end && records.size() < max) {
+            header.clear();
+            if (!readFully(channel, header, position)) {
+              break;
+            }
+            int length = header.getInt(0);
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (!readFully(channel, payload, position + HEADER_BYTES)) {
+              break;
+            }
+            if (offset >= fromOffset) {
+              records.add(new Record(offset, payload.array()));
+            }
+            position += HEADER_BYTES + length;
+            offset++;
+          }
+          fromOffset = Math.max(fromOffset, offset);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read legacy event log", e);
+    }
+    return records;
+  }
+
+  /** Opens the named consumer at its committed position, or at offset zero the first time. */
+  public Consumer consumer(String name) {
+    return new Consumer(name);
+  }
+
+  @Override
+  public void close() {
+    synchronized (lifecycle) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      queue.add(CLOSE);
+    }
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    PendingAppend pending;
+    while ((pending = queue.poll()) != null) {
+      pending.future.completeExceptionally(new IllegalStateException("Legacy event log is closed"));
+    }
+    try {
+      activeChannel.close();
+    } catch (IOException e) {
+      LOGGER.warn("Failed to close legacy event log segment", e);
+    }
+  }
+
+  private void writeLoop() {
+    List<PendingAppend> batch = new ArrayList<>(MAX_BATCH);
+    boolean stopping = false;
+    while (!stopping) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      queue.drainTo(batch, MAX_BATCH - batch.size());
+      // Appends queued before close still get written
+      stopping = batch.remove(CLOSE);
+      writeBatch(batch);
+      batch.clear();
+    }
+  }
+
+  private void writeBatch(List<PendingAppend> batch) {
+    try {
+      List<ByteBuffer> buffers = new ArrayList<>(batch.size() * 2);
+      List<PendingAppend> written = new ArrayList<>(batch.size());
+      for (PendingAppend pending : batch) {
+        long recordSize = HEADER_BYTES + pending.payload.length;
+        if (activeSize > 0 && activeSize + recordSize > segmentBytes) {
+          flush(buffers, written);
+          roll();
+        }
+        buffers.add(header(pending.payload));
+        buffers.add(ByteBuffer.wrap(pending.payload));
+        pending.offset = nextOffset++;
+        activeSize += recordSize;
+        written.add(pending);
+      }
+      flush(buffers, written);
+    } catch (IOException e) {
+      LOGGER.error("Legacy event log write failed", e);
+      for (PendingAppend pending : batch) {
+        pending.future.completeExceptionally(e);
+      }
+      try {
+        // Drop the partially written tail so offsets stay consistent with the file contents
+        recover();
+      } catch (IOException recoveryFailure) {
+        LOGGER.error("Legacy event log recovery failed", recoveryFailure);
+      }
+    }
+  }
+
+  private void flush(List<ByteBuffer> buffers, List<PendingAppend> written) throws IOException {
+    if (written.isEmpty()) {
+      return;
+    }
+    ByteBuffer[] array = buffers.toArray(ByteBuffer[]::new);
+    long remaining = 0;
+    for (ByteBuffer buffer : array) {
+      remaining += buffer.remaining();
+    }
+    while (remaining > 0) {
+      remaining -= activeChannel.write(array);
+    }
+    activeChannel.force(false);
+    durableOffset = nextOffset;
+    for (PendingAppend pending : written) {
+      pending.future.complete(pending.offset);
+    }
+    buffers.clear();
+    written.clear();
+  }
+
+  private void roll() throws IOException {
+    activeChannel.force(true);
+    activeChannel.close();
+    openSegment(nextOffset);
+    LOGGER.debugf("Rolled legacy event log to segment %d", nextOffset);
+  }
+
+  private void openSegment(long base) throws IOException {
+    activeChannel = FileChannel.open(
+        segmentPath(base), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    activeSize = activeChannel.size();
+  }
+
+  /** Finds the end of the last segment and truncates a record torn by a crash. */
+  private void recover() throws IOException {
+    if (activeChannel != null && activeChannel.isOpen()) {
+      activeChannel.close();
+    }
+    List<Long> bases = segmentBases();
+    long base = bases.isEmpty() ? 0 : bases.get(bases.size() - 1);
+    long offset = base;
+    long validEnd = 0;
+    try (FileChannel channel = FileChannel.open(
+        segmentPath(base), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (true) {
+        header.clear();
+        if (!readFully(channel, header, validEnd)) {
+          break;
+        }
+        int length = header.getInt(0);
+        if (length < 0 || validEnd + HEADER_BYTES + length > channel.size()) {
+          break;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, validEnd + HEADER_BYTES);
+        if (crc(payload.array()) != header.getInt(4)) {
+          break;
+        }
+        validEnd += HEADER_BYTES + length;
+        offset++;
+      }
+      if (validEnd < channel.size()) {
+        LOGGER.warnf("Truncating torn tail of legacy event log segment %d at byte %d", base, validEnd);
+        channel.truncate(validEnd);
+        channel.force(true);
+      }
+    }
+    nextOffset = offset;
+    durableOffset = offset;
+    openSegment(base);
+  }
+
+  private List<Long> segmentBases() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(path -> path.getFileName().toString())
+          .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+          .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+          .sorted()
+          .toList();
+    }
+  }
+
+  private void loadCommittedOffsets() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(path -> path.toString().endsWith(OFFSET_SUFFIX)).toList()) {
+        String name = file.getFileName().toString();
+        committed.put(
+            name.substring(0, name.length() - OFFSET_SUFFIX.length()),
+            Long.parseLong(Files.readString(file).trim()));
+      }
+    }
+  }
+
+  /** Deletes segments whose records every consumer has committed; the active segment stays. */
+  private void deleteConsumedSegments() throws IOException {
+    long consumed = committed.values().stream().mapToLong(Long::longValue).min().orElse(0);
+    List<Long> bases = segmentBases();
+    for (int i = 0; i + 1 < bases.size() && bases.get(i + 1) <= consumed; i++) {
+      Files.deleteIfExists(segmentPath(bases.get(i)));
+      LOGGER.debugf("Deleted consumed legacy event log segment %d", bases.get(i));
+    }
+  }
+
+  private Path segmentPath(long base) {
+    return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+  }
+
+  private static ByteBuffer header(byte[] payload) {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    header.putInt(payload.length).putInt(crc(payload)).flip();
+    return header;
+  }
+
+  private static int crc(byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public record Record(long offset, byte[] payload) {
+
+    public String payloadAsString() {
+      return new String(payload, StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Named reader that remembers how far it got across restarts. */
+  public class Consumer {
+
+    private final String name;
+    private final Path offsetFile;
+    private long position;
+
+    Consumer(String name) {
+      this.name = name;
+      this.offsetFile = directory.resolve(name + OFFSET_SUFFIX);
+      Long previous = committed.putIfAbsent(name, 0L);
+      this.position = previous != null ? previous : 0;
+      if (previous == null) {
+        // A new consumer holds on to every segment from the start until it commits
+        writeOffset(0);
+      }
+    }
+
+    public long position() {
+      return position;
+    }
+
+    /** Returns the next records without moving the committed position. */
+    public List<Record> poll(int max) {
+      return read(position, max);
+    }
+
+    /**
+     * Marks everything up to and including {@code offset} as processed and deletes the segments
+     * no consumer needs anymore.
+     */
+    public void commit(long offset) {
+      writeOffset(offset + 1);
+      position = offset + 1;
+      committed.put(name, position);
+      try {
+        deleteConsumedSegments();
+      } catch (IOException e) {
+        LOGGER.warn("Failed to delete consumed legacy event log segments", e);
+      }
+    }
+
+    private void writeOffset(long position) {
+      Path temp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+      try {
+        Files.writeString(temp, Long.toString(position));
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot commit consumer offset " + offsetFile, e);
+      }
+    }
+  }
+
+  private static final class PendingAppend {
+    final byte[] payload;
+    final CompletableFuture<Long> future = new CompletableFuture<>();
+    long offset;
+
+    PendingAppend(byte[] payload) {
+      this.payload = payload;
+    }
+  }
+}
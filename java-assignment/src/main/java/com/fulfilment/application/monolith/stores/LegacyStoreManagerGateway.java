@@ -1,51 +1,84 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.tracing.Traced;
+import io.quarkus.arc.NoClassInterceptors;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.nio.file.Files;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Traced
 public class LegacyStoreManagerGateway {
 
-  public void createStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
-  }
-
-  public void updateStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
-  }
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class.getName());
 
-  private void writeToFile(Store store) {
-    try {
-      // Step 1: Create a temporary file
-      Path tempFile;
+  static final String CONSUMER = "legacy-store-manager";
 
-      tempFile = Files.createTempFile(store.name, ".txt");
+  private static final int HAND_OFF_BATCH = 1000;
 
-      System.out.println("Temporary file created at: " + tempFile.toString());
+  private final LegacyEventLog eventLog;
+  private final LegacyEventLog.Consumer consumer;
 
-      // Step 2: Write data to the temporary file
-      String content =
-          "Store created. [ name ="
-              + store.name
-              + " ] [ items on stock ="
-              + store.quantityProductsInStock
-              + "]";
-      Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
+  @Inject
+  public LegacyStoreManagerGateway(
+      @ConfigProperty(name = "legacy.event-log.directory", defaultValue = "legacy-store-events") Path directory,
+      @ConfigProperty(name = "legacy.event-log.segment-bytes", defaultValue = "67108864") long segmentBytes) {
+    this.eventLog = new LegacyEventLog(directory, segmentBytes);
+    this.consumer = eventLog.consumer(CONSUMER);
+  }
 
-      // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+  public void createStoreOnLegacySystem(Store store, String idempotencyKey) {
+    // just to emulate as this would send this to a legacy system, let's append it to the event log
+    append(StoreEventType.CREATE, store, idempotencyKey);
+  }
 
-      // Step 4: Delete the temporary file when done
-      Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
+  public void updateStoreOnLegacySystem(Store store, String idempotencyKey) {
+    // just to emulate as this would send this to a legacy system, let's append it to the event log
+    append(StoreEventType.UPDATE, store, idempotencyKey);
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
+  // Stands in for the legacy system picking the events up; its commits let consumed segments go
+  @Scheduled(
+      every = "${legacy.event-log.hand-off-interval:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @NoClassInterceptors
+  void handOff() {
+    while (consumer.position() < eventLog.endOffset()) {
+      List<LegacyEventLog.Record> records = consumer.poll(HAND_OFF_BATCH);
+      if (records.isEmpty()) {
+        return;
+      }
+      for (LegacyEventLog.Record record : records) {
+        LOGGER.debugf("Handed off legacy store event %d: %s", record.offset(), record.payloadAsString());
+      }
+      consumer.commit(records.get(records.size() - 1).offset());
     }
   }
+
+  @PreDestroy
+  void close() {
+    eventLog.close();
+  }
+
+  private void append(StoreEventType type, Store store, String idempotencyKey) {
+    String content =
+        type
+            + " [ idempotency key ="
+            + idempotencyKey
+            + " ] [ id ="
+            + store.id
+            + " ] [ name ="
+            + store.name
+            + " ] [ items on stock ="
+            + store.quantityProductsInStock
+            + " ]";
+    // Returns once the group commit holding this record is on disk
+    eventLog.appendAndAwait(content.getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -1,9 +1,14 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Version;
+import java.util.List;
 
 @Entity
 @Cacheable
@@ -14,9 +19,65 @@ public class Store extends PanacheEntity {
 
   public int quantityProductsInStock;
 
+  // Exposed as the ETag instead of in the body
+  @Version @JsonIgnore public long version;
+
   public Store() {}
 
   public Store(String name) {
     this.name = name;
   }
+
+  /**
+   * Next page of stores ordered by name, starting after {@code afterName}. The prefix becomes a
+   * range on {@code name} so the unique index serves both the filter and the order; stores without
+   * a name are not part of this listing.
+   */
+  public static List<Store> pageByName(String afterName, String prefix, int limit) {
+    StringBuilder query = new StringBuilder("name is not null");
+    Parameters parameters = new Parameters();
+    if (afterName != null) {
+      query.append(" and name > :after");
+      parameters.and("after", afterName);
+    }
+    if (prefix != null && !prefix.isEmpty()) {
+      query.append(" and name >= :prefix");
+      parameters.and("prefix", prefix);
+      String upperBound = prefixUpperBound(prefix);
+      if (upperBound != null) {
+        query.append(" and name < :upperBound");
+        parameters.and("upperBound", upperBound);
+      }
+      // The range drives the index scan; LIKE keeps the result exact under any collation
+      query.append(" and name like :pattern escape '\\'");
+      parameters.and("pattern", likePattern(prefix));
+    }
+    return find(query.toString(), Sort.by("name"), parameters).range(0, limit - 1).list();
+  }
+
+  /** Next page of stores ordered by id, starting after {@code afterId}. */
+  public static List<Store> pageById(Long afterId, String prefix, int limit) {
+    StringBuilder query = new StringBuilder("id > :after");
+    Parameters parameters = Parameters.with("after", afterId != null ? afterId : Long.MIN_VALUE);
+    if (prefix != null && !prefix.isEmpty()) {
+      query.append(" and name like :pattern escape '\\'");
+      parameters.and("pattern", likePattern(prefix));
+    }
+    return find(query.toString(), Sort.by("id"), parameters).range(0, limit - 1).list();
+  }
+
+  private static String likePattern(String prefix) {
+    return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+  }
+
+  // Smallest string greater than every string starting with the prefix, or null if there is none
+  private static String prefixUpperBound(String prefix) {
+    for (int i = prefix.length() - 1; i >= 0; i--) {
+      char c = prefix.charAt(i);
+      if (c != Character.MAX_VALUE) {
+        return prefix.substring(0, i) + (char) (c + 1);
+      }
+    }
+    return null;
+  }
 }
@@ -0,0 +1,185 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.catalog.CatalogSnapshot;
+import com.fulfilment.application.monolith.catalog.SnapshotCatalog;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory snapshot of all stores ordered by name, patched from committed {@link StoreEvent}s.
+ * Serves the keyset-paged listing without a query; only stores with pending stock deltas are
+ * serialized per request.
+ *
+ * <p>A {@link Singleton} rather than application scoped: the constructor-initialized base class
+ * cannot be proxied.
+ */
+@Singleton
+public class StoreCatalog extends SnapshotCatalog<Store> {
+
+  private static final Comparator<Store> BY_NAME =
+      Comparator.comparing((Store store) -> store.name, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(store -> store.id);
+
+  private final StoreStockCounters storeStockCounters;
+
+  // Id order of one snapshot, rebuilt lazily when the snapshot changes
+  private volatile IdIndex idIndex;
+
+  @Inject
+  public StoreCatalog(ObjectMapper objectMapper, StoreStockCounters storeStockCounters) {
+    super(objectMapper, store -> store.id, store -> store.version, BY_NAME);
+    this.storeStockCounters = storeStockCounters;
+  }
+
+  @Override
+  protected List<Store> loadAll() {
+    return Store.listAll();
+  }
+
+  /** Same paging contract as {@link Store#pageByName} and {@link Store#pageById}. */
+  public Page page(String sort, String after, Long afterId, String prefix, int pageSize) {
+    CatalogSnapshot<Store> snapshot = snapshot();
+    List<Store> items = snapshot.items();
+    List<Integer> selected = new ArrayList<>(pageSize + 1);
+    boolean filtered = prefix != null && !prefix.isEmpty();
+
+    if ("id".equals(sort)) {
+      int[] byId = idOrder(snapshot);
+      int start = lowerBound(byId.length, i -> items.get(byId[i]).id > (afterId != null ? afterId : Long.MIN_VALUE));
+      for (int i = start; i < byId.length && selected.size() <= pageSize; i++) {
+        Store store = items.get(byId[i]);
+        if (!filtered || (store.name != null && store.name.startsWith(prefix))) {
+          selected.add(byId[i]);
+        }
+      }
+    } else {
+      String from = after;
+      if (filtered && (from == null || from.compareTo(prefix) < 0)) {
+        from = null;
+      }
+      String lowerName = from;
+      int start =
+          lowerBound(
+              items.size(),
+              i -> {
+                String name = items.get(i).name;
+                if (name == null) {
+                  return true;
+                }
+                if (lowerName != null) {
+                  return name.compareTo(lowerName) > 0;
+                }
+                return !filtered || name.compareTo(prefix) >= 0;
+              });
+      for (int i = start; i < items.size() && selected.size() <= pageSize; i++) {
+        String name = items.get(i).name;
+        if (name == null || (filtered && !name.startsWith(prefix))) {
+          // Names are sorted, so the prefix range has ended
+          break;
+        }
+        selected.add(i);
+      }
+    }
+
+    boolean hasMore = selected.size() > pageSize;
+    List<Integer> page = hasMore ? selected.subList(0, pageSize) : selected;
+    String nextCursor = null;
+    if (hasMore) {
+      Store last = items.get(page.get(page.size() - 1));
+      nextCursor = "id".equals(sort) ? last.id.toString() : last.name;
+    }
+    return new Page(snapshot, page, nextCursor);
+  }
+
+  void onStoreCommitted(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreEvent event) {
+    if (event.getType() == StoreEventType.DELETE) {
+      removed(event.getStore().id, event.getStore().version);
+    } else {
+      upserted(copyOf(event.getStore()));
+    }
+  }
+
+  private int[] idOrder(CatalogSnapshot<Store> snapshot) {
+    IdIndex index = idIndex;
+    if (index == null || index.snapshot() != snapshot) {
+      List<Store> items = snapshot.items();
+      int[] order =
+          IntStream.range(0, items.size())
+              .boxed()
+              .sorted(Comparator.comparing(i -> items.get(i).id))
+              .mapToInt(Integer::intValue)
+              .toArray();
+      index = new IdIndex(snapshot, order);
+      idIndex = index;
+    }
+    return index.order();
+  }
+
+  // First index in [0, size) for which the monotonic predicate holds
+  private static int lowerBound(int size, java.util.function.IntPredicate isAfterStart) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (isAfterStart.test(mid)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  // The committed entity is detached now; keep a private copy nobody else can change
+  private static Store copyOf(Store store) {
+    Store copy = new Store(store.name);
+    copy.id = store.id;
+    copy.quantityProductsInStock = store.quantityProductsInStock;
+    copy.version = store.version;
+    return copy;
+  }
+
+  /** One page of the snapshot, rendered on demand as JSON bytes or as stores. */
+  public final class Page {
+
+    private final CatalogSnapshot<Store> snapshot;
+    private final List<Integer> indexes;
+    private final String nextCursor;
+
+    private Page(CatalogSnapshot<Store> snapshot, List<Integer> indexes, String nextCursor) {
+      this.snapshot = snapshot;
+      this.indexes = indexes;
+      this.nextCursor = nextCursor;
+    }
+
+    /** Cursor for the next page; null on the last one. */
+    public String nextCursor() {
+      return nextCursor;
+    }
+
+    public byte[] json() {
+      List<byte[]> json = new ArrayList<>(indexes.size());
+      for (int index : indexes) {
+        Store store = snapshot.items().get(index);
+        // Pending stock deltas are the only per-request state
+        json.add(storeStockCounters.pendingDelta(store) == 0
+            ? snapshot.jsonAt(index)
+            : serialize(storeStockCounters.withPendingDelta(store)));
+      }
+      return CatalogSnapshot.jsonArray(json);
+    }
+
+    public List<Store> stores() {
+      return indexes.stream().map(index -> storeStockCounters.withPendingDelta(snapshot.items().get(index))).toList();
+    }
+  }
+
+  private record IdIndex(CatalogSnapshot<Store> snapshot, int[] order) {}
+}
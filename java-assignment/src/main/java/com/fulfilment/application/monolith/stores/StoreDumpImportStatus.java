@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a legacy store dump import. Offsets are in bytes of the dump file; a resumed import
+ * starts at {@code startOffset} and counts records from there. Throughput covers this run only.
+ */
+public class StoreDumpImportStatus {
+
+  public enum State {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  public String file;
+  public State state;
+  public long startOffset;
+  public long bytesProcessed;
+  public long bytesTotal;
+  public long records;
+  public long inserted;
+  public long updated;
+  public long unchanged;
+  public long rejected;
+  public double recordsPerSecond;
+  public double megabytesPerSecond;
+  public LocalDateTime startedAt;
+  public LocalDateTime finishedAt;
+  public String error;
+
+  public StoreDumpImportStatus() {}
+}
@@ -0,0 +1,341 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.associations.ProductAvailabilityView;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+/**
+ * Imports full store dumps from the legacy store manager (see {@link StoreDumpReader} for the
+ * format). Records are diffed by name against the existing stores; new names are inserted and
+ * changed quantities updated, both in JDBC batches of {@code stores.import.batch-size}.
+ *
+ * <p>After each committed batch the byte offset reached is written to a checkpoint file next to
+ * the dump, so a failed import can resume instead of starting over. The dump comes from the legacy
+ * system, so imported changes are not sent back to it through the outbox.
+ */
+@ApplicationScoped
+public class StoreDumpImporter {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreDumpImporter.class.getName());
+
+  static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+  private static final String UPDATE_QUANTITY =
+      "update store set quantityProductsInStock = ?, version = version + 1 where id = ?";
+
+  private static final int NAME_MAX_LENGTH = 40;
+
+  private final Path directory;
+  private final int batchSize;
+  private final int windowBytes;
+  private final StoreCatalog storeCatalog;
+  private final StoreStockCounters storeStockCounters;
+  private final ProductAvailabilityView productAvailabilityView;
+  private final EntityManagerFactory entityManagerFactory;
+
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread thread = new Thread(r, "store-dump-importer");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final AtomicReference<Run> current = new AtomicReference<>();
+
+  @Inject
+  public StoreDumpImporter(
+      StoreCatalog storeCatalog,
+      StoreStockCounters storeStockCounters,
+      ProductAvailabilityView productAvailabilityView,
+      EntityManagerFactory entityManagerFactory,
+      @ConfigProperty(name = "stores.import.directory", defaultValue = "store-dumps") Path directory,
+      @ConfigProperty(name = "stores.import.batch-size", defaultValue = "1000") int batchSize,
+      @ConfigProperty(name = "stores.import.window-bytes", defaultValue = "268435456") int windowBytes) {
+    this.storeCatalog = storeCatalog;
+    this.storeStockCounters = storeStockCounters;
+    this.productAvailabilityView = productAvailabilityView;
+    this.entityManagerFactory = entityManagerFactory;
+    this.directory = directory.toAbsolutePath().normalize();
+    this.batchSize = batchSize;
+    this.windowBytes = windowBytes;
+  }
+
+  /**
+   * Starts importing a dump from the import directory on the importer thread and returns its
+   * initial status. Only one import runs at a time.
+   */
+  public StoreDumpImportStatus start(String fileName, boolean resume) {
+    Path file = resolve(fileName);
+    Run run = new Run(file);
+    Run previous = current.get();
+    if ((previous != null && previous.state == StoreDumpImportStatus.State.RUNNING)
+        || !current.compareAndSet(previous, run)) {
+      throw new IllegalStateException("A store dump import is already running.");
+    }
+    executor.execute(() -> execute(run, resume));
+    return run.toStatus();
+  }
+
+  /** Status of the running or last import; null if there was none since startup. */
+  public StoreDumpImportStatus status() {
+    Run run = current.get();
+    return run != null ? run.toStatus() : null;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private Path resolve(String fileName) {
+    if (fileName == null || fileName.isBlank()) {
+      throw new IllegalArgumentException("Dump file was not set on request.");
+    }
+    Path file = directory.resolve(fileName).normalize();
+    if (!file.startsWith(directory)) {
+      throw new IllegalArgumentException("Dump file must be inside the import directory.");
+    }
+    if (!Files.isRegularFile(file)) {
+      throw new IllegalArgumentException("Dump file " + fileName + " does not exist.");
+    }
+    return file;
+  }
+
+  private void execute(Run run, boolean resume) {
+    try {
+      importDump(run, resume);
+      run.finish(StoreDumpImportStatus.State.COMPLETED, null);
+      LOGGER.infof(
+          "Imported store dump %s: %d records, %d inserted, %d updated, %d rejected",
+          run.file, run.records, run.inserted, run.updated, run.rejected);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.error("Store dump import failed at offset " + run.bytesProcessed + ", resume to continue", e);
+      run.finish(StoreDumpImportStatus.State.FAILED, e.getMessage());
+    }
+  }
+
+  private void importDump(Run run, boolean resume) throws IOException {
+    Path checkpoint = run.file.resolveSibling(run.file.getFileName() + CHECKPOINT_SUFFIX);
+    long startOffset =
+        resume && Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+    run.startOffset = startOffset;
+    run.bytesProcessed = startOffset;
+
+    Map<StoreDumpReader.NameKey, Existing> existing = loadExisting();
+    List<Existing> inserts = new ArrayList<>();
+    List<Existing> updates = new ArrayList<>();
+
+    try (FileChannel channel = FileChannel.open(run.file, StandardOpenOption.READ)) {
+      StoreDumpReader reader = new StoreDumpReader(channel, startOffset, windowBytes);
+      run.bytesTotal = reader.size();
+      while (reader.next()) {
+        run.records++;
+        if (!reader.valid()) {
+          run.rejected++;
+          LOGGER.debugf("Rejected malformed store dump record at offset %d", reader.recordOffset());
+          continue;
+        }
+
+        Existing store = existing.get(reader.name());
+        if (store == null) {
+          String name = reader.nameAsString();
+          if (name.length() > NAME_MAX_LENGTH) {
+            run.rejected++;
+            continue;
+          }
+          store = new Existing(null, name, reader.quantity());
+          existing.put(reader.name().copy(), store);
+          inserts.add(store);
+        } else if (store.quantity != reader.quantity()) {
+          store.quantity = reader.quantity();
+          if (store.id != null && !store.dirty) {
+            // Stores inserted by the pending batch pick the new quantity up on insert
+            store.dirty = true;
+            updates.add(store);
+          }
+        } else {
+          run.unchanged++;
+        }
+
+        if (inserts.size() + updates.size() >= batchSize) {
+          writeBatch(run, inserts, updates, reader.offsetAfter(), checkpoint);
+        }
+      }
+      writeBatch(run, inserts, updates, reader.offsetAfter(), checkpoint);
+    }
+    Files.deleteIfExists(checkpoint);
+  }
+
+  private Map<StoreDumpReader.NameKey, Existing> loadExisting() {
+    List<Object[]> rows =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () ->
+                    Store.getEntityManager()
+                        .createQuery(
+                            "select s.id, s.name, s.quantityProductsInStock from Store s where s.name is not null",
+                            Object[].class)
+                        .getResultList());
+    Map<StoreDumpReader.NameKey, Existing> existing = new HashMap<>(rows.size() * 2);
+    for (Object[] row : rows) {
+      String name = (String) row[1];
+      existing.put(StoreDumpReader.NameKey.of(name), new Existing((Long) row[0], name, (Integer) row[2]));
+    }
+    return existing;
+  }
+
+  private void writeBatch(
+      Run run, List<Existing> inserts, List<Existing> updates, long offset, Path checkpoint)
+      throws IOException {
+    if (!inserts.isEmpty() || !updates.isEmpty()) {
+      List<Store> inserted = new ArrayList<>(inserts.size());
+      QuarkusTransaction.requiringNew()
+          .run(
+              () -> {
+                Session session = Store.getEntityManager().unwrap(Session.class);
+                session.setJdbcBatchSize(batchSize);
+                for (Existing store : inserts) {
+                  Store entity = new Store(store.name);
+                  entity.quantityProductsInStock = store.quantity;
+                  session.persist(entity);
+                  inserted.add(entity);
+                }
+                session.flush();
+                // Imported quantities are absolute; drop deltas accepted before them
+                for (Existing store : updates) {
+                  storeStockCounters.discard(store.id);
+                }
+                session.doWork(
+                    connection -> {
+                      try (PreparedStatement statement = connection.prepareStatement(UPDATE_QUANTITY)) {
+                        for (Existing store : updates) {
+                          statement.setInt(1, store.quantity);
+                          statement.setLong(2, store.id);
+                          statement.addBatch();
+                        }
+                        statement.executeBatch();
+                      }
+                    });
+                session.clear();
+              });
+
+      for (int i = 0; i < inserts.size(); i++) {
+        inserts.get(i).id = inserted.get(i).id;
+      }
+      // The updates went around the second-level cache
+      for (Existing store : updates) {
+        entityManagerFactory.getCache().evict(Store.class, store.id);
+        store.dirty = false;
+      }
+      // The batch went around the entity events; readers must not wait for the whole dump
+      storeCatalog.invalidate();
+      productAvailabilityView.invalidate();
+      run.inserted += inserts.size();
+      run.updated += updates.size();
+      inserts.clear();
+      updates.clear();
+    }
+
+    writeCheckpoint(checkpoint, offset);
+    run.bytesProcessed = offset;
+  }
+
+  private static void writeCheckpoint(Path checkpoint, long offset) {
+    Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+    try {
+      Files.writeString(temp, Long.toString(offset));
+      Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write import checkpoint " + checkpoint, e);
+    }
+  }
+
+  // A store as known to the import: persisted (id set) or waiting in the current batch
+  private static final class Existing {
+    Long id;
+    final String name;
+    int quantity;
+    boolean dirty;
+
+    Existing(Long id, String name, int quantity) {
+      this.id = id;
+      this.name = name;
+      this.quantity = quantity;
+    }
+  }
+
+  // Written by the importing thread only; volatile so status reads see recent progress
+  private static final class Run {
+    final Path file;
+    final LocalDateTime startedAt = LocalDateTime.now();
+    final long startedNanos = System.nanoTime();
+    volatile StoreDumpImportStatus.State state = StoreDumpImportStatus.State.RUNNING;
+    volatile long startOffset;
+    volatile long bytesProcessed;
+    volatile long bytesTotal;
+    volatile long records;
+    volatile long inserted;
+    volatile long updated;
+    volatile long unchanged;
+    volatile long rejected;
+    volatile LocalDateTime finishedAt;
+    volatile long finishedNanos;
+    volatile String error;
+
+    Run(Path file) {
+      this.file = file;
+    }
+
+    void finish(StoreDumpImportStatus.State state, String error) {
+      this.error = error;
+      this.finishedNanos = System.nanoTime();
+      this.finishedAt = LocalDateTime.now();
+      this.state = state;
+    }
+
+    StoreDumpImportStatus toStatus() {
+      StoreDumpImportStatus status = new StoreDumpImportStatus();
+      status.file = file.getFileName().toString();
+      status.state = state;
+      status.startOffset = startOffset;
+      status.bytesProcessed = bytesProcessed;
+      status.bytesTotal = bytesTotal;
+      status.records = records;
+      status.inserted = inserted;
+      status.updated = updated;
+      status.unchanged = unchanged;
+      status.rejected = rejected;
+      status.startedAt = startedAt;
+      status.finishedAt = finishedAt;
+      status.error = error;
+      double seconds = ((finishedAt != null ? finishedNanos : System.nanoTime()) - startedNanos) / 1e9;
+      if (seconds > 0) {
+        status.recordsPerSecond = records / seconds;
+        status.megabytesPerSecond = (bytesProcessed - startOffset) / seconds / (1024 * 1024);
+      }
+      return status;
+    }
+  }
+}
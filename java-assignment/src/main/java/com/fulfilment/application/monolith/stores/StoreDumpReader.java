@@ -0,0 +1,210 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads a legacy store dump through a memory-mapped window that slides over the file. The dump
+ * has one UTF-8 record per line, {@code name;quantity}; blank lines and lines starting with
+ * {@code #} are skipped.
+ *
+ * <p>Records are parsed in place. The name is exposed as a reusable {@link NameKey} that can be
+ * looked up in a map without building a String; {@link #nameAsString()} allocates only when the
+ * caller needs one.
+ */
+final class StoreDumpReader {
+
+  private static final byte NEWLINE = '\n';
+  private static final byte SEPARATOR = ';';
+
+  private final FileChannel channel;
+  private final long size;
+  private final int windowBytes;
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private int position;
+
+  private final NameKey name = new NameKey(new byte[256], 0);
+  private int quantity;
+  private boolean valid;
+  private long recordOffset;
+
+  StoreDumpReader(FileChannel channel, long startOffset, int windowBytes) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    this.windowBytes = windowBytes;
+    map(Math.min(startOffset, size));
+  }
+
+  long size() {
+    return size;
+  }
+
+  /** Byte offset right after the current record: where a resumed import continues. */
+  long offsetAfter() {
+    return windowStart + position;
+  }
+
+  /** Byte offset of the current record, for error reports. */
+  long recordOffset() {
+    return recordOffset;
+  }
+
+  /** Advances to the next record; false at the end of the file. */
+  boolean next() throws IOException {
+    while (true) {
+      int lineEnd = indexOfNewline(position);
+      if (lineEnd < 0) {
+        if (windowStart + window.limit() < size) {
+          if (position == 0) {
+            throw new IOException("Record at offset " + windowStart + " is longer than the mapping window");
+          }
+          // The record crosses the window end; slide the window to start at it
+          map(windowStart + position);
+          continue;
+        }
+        if (position == window.limit()) {
+          return false;
+        }
+        // Last line without a newline
+        lineEnd = window.limit();
+      }
+
+      int lineStart = position;
+      position = Math.min(lineEnd + 1, window.limit());
+      int end = lineEnd;
+      if (end > lineStart && window.get(end - 1) == '\r') {
+        end--;
+      }
+      if (end == lineStart || window.get(lineStart) == '#') {
+        continue;
+      }
+      recordOffset = windowStart + lineStart;
+      valid = parse(lineStart, end);
+      return true;
+    }
+  }
+
+  /** False when the line is not a {@code name;quantity} record. */
+  boolean valid() {
+    return valid;
+  }
+
+  /** The current name; only valid until the next call to {@link #next()}. */
+  NameKey name() {
+    return name;
+  }
+
+  String nameAsString() {
+    return new String(name.bytes, 0, name.length, StandardCharsets.UTF_8);
+  }
+
+  int quantity() {
+    return quantity;
+  }
+
+  private boolean parse(int start, int end) {
+    int separator = -1;
+    for (int i = end - 1; i >= start; i--) {
+      if (window.get(i) == SEPARATOR) {
+        separator = i;
+        break;
+      }
+    }
+    if (separator <= start || separator == end - 1) {
+      return false;
+    }
+
+    int length = separator - start;
+    if (length > name.bytes.length) {
+      return false;
+    }
+    window.get(start, name.bytes, 0, length);
+    name.reset(length);
+
+    long value = 0;
+    boolean negative = window.get(separator + 1) == '-';
+    int digits = negative ? separator + 2 : separator + 1;
+    if (digits == end) {
+      return false;
+    }
+    for (int i = digits; i < end; i++) {
+      int digit = window.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return false;
+      }
+      value = value * 10 + digit;
+      if (value > Integer.MAX_VALUE) {
+        return false;
+      }
+    }
+    quantity = (int) (negative ? -value : value);
+    return true;
+  }
+
+  private int indexOfNewline(int from) {
+    int limit = window.limit();
+    for (int i = from; i < limit; i++) {
+      if (window.get(i) == NEWLINE) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void map(long start) throws IOException {
+    long length = Math.min(windowBytes, size - start);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    windowStart = start;
+    position = 0;
+  }
+
+  /**
+   * Store name as UTF-8 bytes. The reader keeps one instance and overwrites it per record, so
+   * lookups allocate nothing; {@link #copy()} makes a key that can be stored.
+   */
+  static final class NameKey {
+
+    private final byte[] bytes;
+    private int length;
+    private int hash;
+
+    NameKey(byte[] bytes, int length) {
+      this.bytes = bytes;
+      reset(length);
+    }
+
+    static NameKey of(String name) {
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      return new NameKey(bytes, bytes.length);
+    }
+
+    NameKey copy() {
+      return new NameKey(Arrays.copyOf(bytes, length), length);
+    }
+
+    private void reset(int length) {
+      this.length = length;
+      int h = 1;
+      for (int i = 0; i < length; i++) {
+        h = 31 * h + bytes[i];
+      }
+      this.hash = h;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof NameKey key
+          && Arrays.equals(bytes, 0, length, key.bytes, 0, key.length);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -3,5 +3,6 @@ package com.fulfilment.application.monolith.stores;
 
 public enum StoreEventType {
     CREATE,
-    UPDATE
+    UPDATE,
+    DELETE
 }
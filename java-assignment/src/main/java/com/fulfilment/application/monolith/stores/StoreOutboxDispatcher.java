@@ -0,0 +1,381 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.tracing.TraceParent;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Drains the store outbox into the legacy store manager. Delivery is at-least-once: an entry is
+ * marked dispatched only after the legacy call returned, and a crash in between resends it with
+ * the same idempotency key. No transaction is open during the legacy call. Failed entries are
+ * retried with exponential backoff, and a store's later changes wait until its earlier ones went
+ * through.
+ *
+ * <p>Updates are coalesced: an UPDATE waits out the coalesce window after it was written, and then
+ * only the latest of the store's consecutive pending UPDATEs is sent. A CREATE is sent right away
+ * and never merged, so the legacy system always sees it before the store's updates.
+ *
+ * <p>A single coordinator claims eligible entries and hands them to partitions hashed by store id,
+ * each with a bounded queue and its own worker. Only a store's oldest pending entry is ever
+ * eligible, which keeps strict per-store ordering across partitions. When a partition queue is
+ * full the coordinator stops claiming for it; the entries stay in the outbox until there is room.
+ *
+ * <p>Each dispatch is traced as its own root span, linked to the spans that wrote the entries it
+ * sends, so the legacy call can be found from the request that caused it.
+ */
+@ApplicationScoped
+public class StoreOutboxDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutboxDispatcher.class.getName());
+
+  // Skip rows another instance is dispatching instead of waiting for them
+  private static final int SKIP_LOCKED = -2;
+
+  static final String DISPATCH_SPAN = "legacy-store dispatch";
+
+  private final LegacyStoreManagerGateway legacyStoreManagerGateway;
+  private final Tracer tracer;
+  private final int batchSize;
+  private final Duration backoffBase;
+  private final Duration backoffMax;
+  private final Duration retention;
+  private final Duration coalesceWindow;
+  private final Duration claimLease;
+  private final List<StoreOutboxPartition> partitions;
+
+  private final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "store-outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final AtomicBoolean requested = new AtomicBoolean();
+  // Set when a claim left entries behind for a full partition
+  private final AtomicBoolean backlogged = new AtomicBoolean();
+
+  private final LongAdder received = new LongAdder();
+  private final LongAdder dispatched = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder deferred = new LongAdder();
+
+  @Inject
+  public StoreOutboxDispatcher(
+      LegacyStoreManagerGateway legacyStoreManagerGateway,
+      Tracer tracer,
+      @ConfigProperty(name = "stores.outbox.batch-size", defaultValue = "100") int batchSize,
+      @ConfigProperty(name = "stores.outbox.backoff-base", defaultValue = "PT1S") Duration backoffBase,
+      @ConfigProperty(name = "stores.outbox.backoff-max", defaultValue = "PT5M") Duration backoffMax,
+      @ConfigProperty(name = "stores.outbox.retention", defaultValue = "P7D") Duration retention,
+      @ConfigProperty(name = "stores.outbox.coalesce-window", defaultValue = "PT0.5S") Duration coalesceWindow,
+      @ConfigProperty(name = "stores.outbox.claim-lease", defaultValue = "PT30S") Duration claimLease,
+      @ConfigProperty(name = "stores.outbox.partitions", defaultValue = "4") int partitionCount,
+      @ConfigProperty(name = "stores.outbox.partition-capacity", defaultValue = "256") int partitionCapacity) {
+    this.legacyStoreManagerGateway = legacyStoreManagerGateway;
+    this.tracer = tracer;
+    this.batchSize = batchSize;
+    this.backoffBase = backoffBase;
+    this.backoffMax = backoffMax;
+    this.retention = retention;
+    this.coalesceWindow = coalesceWindow;
+    this.claimLease = claimLease;
+    List<StoreOutboxPartition> lanes = new ArrayList<>(partitionCount);
+    for (int i = 0; i < Math.max(1, partitionCount); i++) {
+      lanes.add(new StoreOutboxPartition(i, partitionCapacity, this::dispatchClaimed));
+    }
+    this.partitions = List.copyOf(lanes);
+  }
+
+  /** Called once per committed store change; schedules the drain that will pick it up. */
+  public void onCommitted(StoreEventType type) {
+    received.increment();
+    if (type == StoreEventType.UPDATE && !coalesceWindow.isZero()) {
+      // Let the window fill up before draining so the burst leaves as one legacy call
+      executor.schedule(this::nudge, coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+    } else {
+      nudge();
+    }
+  }
+
+  public StoreOutboxStats stats() {
+    long pending = QuarkusTransaction.requiringNew().call(() -> StoreOutboxEntry.count("dispatchedAt is null"));
+    return new StoreOutboxStats(
+        received.sum(),
+        dispatched.sum(),
+        coalesced.sum(),
+        deferred.sum(),
+        pending,
+        partitions.stream().map(StoreOutboxPartition::stats).toList());
+  }
+
+  /** Asks for a drain on the dispatcher thread; returns immediately. */
+  public void nudge() {
+    requested.set(true);
+    if (draining.compareAndSet(false, true)) {
+      executor.execute(this::drainUntilIdle);
+    }
+  }
+
+  // Picks up entries whose backoff elapsed and anything left over from a previous run
+  @Scheduled(
+      every = "${stores.outbox.poll-interval:5s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void poll() {
+    nudge();
+  }
+
+  @Scheduled(every = "1h", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void purgeDispatched() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+    long purged =
+        QuarkusTransaction.requiringNew()
+            .call(() -> StoreOutboxEntry.delete("dispatchedAt < ?1", cutoff));
+    if (purged > 0) {
+      LOGGER.infof("Purged %d dispatched store outbox entries", purged);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+    partitions.forEach(StoreOutboxPartition::stop);
+  }
+
+  private void drainUntilIdle() {
+    try {
+      while (requested.getAndSet(false)) {
+        while (dispatchBatch() == batchSize) {
+          // Full batch, there may be more
+        }
+      }
+    } catch (RuntimeException e) {
+      LOGGER.error("Store outbox claim failed, retrying on next poll", e);
+    } finally {
+      draining.set(false);
+    }
+    // A nudge may have arrived between the last check and releasing the flag
+    if (requested.get()) {
+      nudge();
+    }
+  }
+
+  /**
+   * Claims one batch of eligible entries for the partitions that have room and returns how many
+   * were claimed. The claim pushes the entry's next attempt out by the lease, so neither a later
+   * drain nor another instance picks it up while a worker has it.
+   */
+  int dispatchBatch() {
+    int[] reserved = new int[partitions.size()];
+    List<List<Long>> claimed = new ArrayList<>(partitions.size());
+    partitions.forEach(p -> claimed.add(new ArrayList<>()));
+    int total =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () -> {
+                  LocalDateTime now = LocalDateTime.now();
+                  List<StoreOutboxEntry> entries =
+                      StoreOutboxEntry.<StoreOutboxEntry>find(
+                              "from StoreOutboxEntry o where o.dispatchedAt is null and o.nextAttemptAt <= ?1 "
+                                  + "and (o.eventType = ?2 or o.createdAt <= ?3) "
+                                  + "and not exists (select 1 from StoreOutboxEntry e where e.storeId = o.storeId "
+                                  + "and e.dispatchedAt is null and e.id < o.id) order by o.id",
+                              now,
+                              StoreEventType.CREATE,
+                              now.minus(coalesceWindow))
+                          .withLock(LockModeType.PESSIMISTIC_WRITE)
+                          .withHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+                          .page(0, batchSize)
+                          .list();
+                  int count = 0;
+                  for (StoreOutboxEntry entry : entries) {
+                    int partition = partitionOf(entry.storeId);
+                    if (reserved[partition] >= partitions.get(partition).remainingCapacity()) {
+                      // Backpressure: leave it in the outbox until the partition catches up
+                      deferred.increment();
+                      backlogged.set(true);
+                      continue;
+                    }
+                    reserved[partition]++;
+                    entry.nextAttemptAt = now.plus(claimLease);
+                    claimed.get(partition).add(entry.id);
+                    count++;
+                  }
+                  return count;
+                });
+    // Hand over only after the claim committed, so workers never race the claiming transaction.
+    // The coordinator is the only producer, so the room reserved above is still there.
+    for (int i = 0; i < partitions.size(); i++) {
+      for (Long entryId : claimed.get(i)) {
+        partitions.get(i).offer(entryId);
+      }
+    }
+    return total;
+  }
+
+  private int partitionOf(Long storeId) {
+    return Math.floorMod(Long.hashCode(storeId), partitions.size());
+  }
+
+  // Runs on a partition worker
+  private void dispatchClaimed(long entryId) {
+    Span span = tracer.spanBuilder(DISPATCH_SPAN).setNoParent().setAttribute("outbox.entry_id", entryId).startSpan();
+    boolean storeHasMore;
+    try (Scope scope = span.makeCurrent()) {
+      // Short transactions on both sides of the legacy call, so no connection or row is held
+      // across it; the claim lease keeps other drains off the entry if we die in between
+      Dispatch dispatch = QuarkusTransaction.requiringNew().call(() -> prepare(entryId, span));
+      storeHasMore = dispatch != null && send(dispatch, span);
+    } finally {
+      span.end();
+    }
+    // Claim again only when it can find something: the store's next change, or entries a full
+    // partition had to leave behind. Failed entries come back with the poll after their backoff
+    if (storeHasMore | backlogged.getAndSet(false)) {
+      nudge();
+    }
+  }
+
+  // Counts the attempt and takes a detached copy of what the legacy call needs
+  private Dispatch prepare(long entryId, Span span) {
+    StoreOutboxEntry entry = StoreOutboxEntry.findById(entryId);
+    if (entry == null || entry.dispatchedAt != null) {
+      return null;
+    }
+    List<StoreOutboxEntry> merged = entry.eventType == StoreEventType.UPDATE ? laterUpdates(entry) : List.of();
+    // The latest snapshot carries the state that matters; its key identifies the merged call
+    StoreOutboxEntry latest = merged.isEmpty() ? entry : merged.get(merged.size() - 1);
+    entry.attempts++;
+    span.setAttribute("store.id", entry.storeId);
+    span.setAttribute("store.event_type", entry.eventType.name());
+    span.setAttribute("outbox.attempt", entry.attempts);
+    span.setAttribute("outbox.coalesced", merged.size());
+    link(span, entry);
+    merged.forEach(superseded -> link(span, superseded));
+    List<Long> entryIds = new ArrayList<>(merged.size() + 1);
+    entryIds.add(entry.id);
+    merged.forEach(superseded -> entryIds.add(superseded.id));
+    return new Dispatch(
+        entry.id,
+        entry.storeId,
+        entry.eventType,
+        entry.attempts,
+        entry.createdAt,
+        latest.toStore(),
+        latest.idempotencyKey,
+        entryIds);
+  }
+
+  // Returns whether the store has pending entries left after a successful call
+  private boolean send(Dispatch dispatch, Span span) {
+    LocalDateTime now = LocalDateTime.now();
+    long started = System.nanoTime();
+    try {
+      switch (dispatch.eventType()) {
+        case CREATE:
+          legacyStoreManagerGateway.createStoreOnLegacySystem(dispatch.store(), dispatch.idempotencyKey());
+          break;
+        case UPDATE:
+          legacyStoreManagerGateway.updateStoreOnLegacySystem(dispatch.store(), dispatch.idempotencyKey());
+          break;
+        default:
+          LOGGER.warnf("Unknown store event type in outbox: %s", dispatch.eventType());
+      }
+    } catch (RuntimeException e) {
+      span.recordException(e);
+      span.setStatus(StatusCode.ERROR);
+      LocalDateTime nextAttemptAt = now.plus(backoff(dispatch.attempts()));
+      QuarkusTransaction.requiringNew()
+          .run(
+              () ->
+                  StoreOutboxEntry.update(
+                      "nextAttemptAt = ?1, lastError = ?2 where id = ?3",
+                      nextAttemptAt,
+                      abbreviate(e.toString()),
+                      dispatch.entryId()));
+      LOGGER.warnf(
+          "Legacy sync of store %d failed (attempt %d), next attempt at %s: %s",
+          dispatch.storeId(), dispatch.attempts(), nextAttemptAt, e.getMessage());
+      return false;
+    }
+    LocalDateTime written = LocalDateTime.now();
+    boolean storeHasMore =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () -> {
+                  StoreOutboxEntry.update(
+                      "dispatchedAt = ?1, lastError = null where id in ?2", written, dispatch.entryIds());
+                  return StoreOutboxEntry.count("storeId = ?1 and dispatchedAt is null", dispatch.storeId()) > 0;
+                });
+    dispatched.increment();
+    coalesced.add(dispatch.entryIds().size() - 1);
+    partitions.get(partitionOf(dispatch.storeId()))
+        .recordDispatch(
+            System.nanoTime() - started, Duration.between(dispatch.createdAt(), written).toMillis());
+    return storeHasMore;
+  }
+
+  private static void link(Span span, StoreOutboxEntry entry) {
+    SpanContext origin = TraceParent.parse(entry.traceparent);
+    if (origin.isValid()) {
+      span.addLink(origin);
+    }
+  }
+
+  // Pending UPDATEs of the same store that directly follow this one
+  private static List<StoreOutboxEntry> laterUpdates(StoreOutboxEntry entry) {
+    List<StoreOutboxEntry> later =
+        StoreOutboxEntry.list(
+            "storeId = ?1 and dispatchedAt is null and id > ?2 order by id", entry.storeId, entry.id);
+    int end = 0;
+    while (end < later.size() && later.get(end).eventType == StoreEventType.UPDATE) {
+      end++;
+    }
+    return later.subList(0, end);
+  }
+
+  Duration backoff(int attempts) {
+    long baseMillis = backoffBase.toMillis();
+    long delay = baseMillis << Math.min(attempts - 1, 20);
+    delay = Math.min(delay, backoffMax.toMillis());
+    // Up to 20% jitter so failed entries from one burst don't retry in lockstep
+    long jitter = (long) (delay * 0.2 * ThreadLocalRandom.current().nextDouble());
+    return Duration.ofMillis(delay + jitter);
+  }
+
+  private static String abbreviate(String message) {
+    return message.length() <= 500 ? message : message.substring(0, 500);
+  }
+
+  // One legacy call: the claimed entry and the pending UPDATEs merged into it
+  private record Dispatch(
+      long entryId,
+      Long storeId,
+      StoreEventType eventType,
+      int attempts,
+      LocalDateTime createdAt,
+      Store store,
+      String idempotencyKey,
+      List<Long> entryIds) {}
+}
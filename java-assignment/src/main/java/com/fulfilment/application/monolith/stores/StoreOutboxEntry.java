@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.tracing.TraceParent;
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A store change waiting to be sent to the legacy store manager. Written in the same transaction
+ * as the change itself, so a committed change is never lost even if the process dies before the
+ * legacy call.
+ */
+@Entity
+@Table(
+    name = "store_outbox",
+    indexes = @Index(name = "idx_store_outbox_pending", columnList = "dispatchedAt, nextAttemptAt"))
+public class StoreOutboxEntry extends PanacheEntity {
+
+  @Column(nullable = false, unique = true, length = 36)
+  public String idempotencyKey;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  public StoreEventType eventType;
+
+  // Snapshot of the store at commit time
+  public Long storeId;
+
+  @Column(length = 40)
+  public String storeName;
+
+  public int quantityProductsInStock;
+
+  public LocalDateTime createdAt;
+
+  public int attempts;
+
+  public LocalDateTime nextAttemptAt;
+
+  public LocalDateTime dispatchedAt;
+
+  @Column(length = 500)
+  public String lastError;
+
+  // W3C traceparent of the span that wrote the change; the legacy dispatch span links back to it
+  @Column(length = TraceParent.LENGTH)
+  public String traceparent;
+
+  public StoreOutboxEntry() {}
+
+  public static StoreOutboxEntry enqueue(Store store, StoreEventType eventType) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.idempotencyKey = UUID.randomUUID().toString();
+    entry.eventType = eventType;
+    entry.storeId = store.id;
+    entry.storeName = store.name;
+    entry.quantityProductsInStock = store.quantityProductsInStock;
+    entry.createdAt = LocalDateTime.now();
+    entry.nextAttemptAt = entry.createdAt;
+    entry.traceparent = TraceParent.current();
+    entry.persist();
+    return entry;
+  }
+
+  public Store toStore() {
+    Store store = new Store(storeName);
+    store.id = storeId;
+    store.quantityProductsInStock = quantityProductsInStock;
+    return store;
+  }
+}
@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import org.jboss.logging.Logger;
+
+/**
+ * One ordered lane of the store outbox dispatcher: a bounded queue of outbox entry ids drained by
+ * a single worker thread. All entries of a store hash to the same partition, so a store's changes
+ * reach the legacy system in order while different stores proceed in parallel.
+ */
+class StoreOutboxPartition {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutboxPartition.class.getName());
+
+  private final int index;
+  private final BlockingQueue<Long> queue;
+  private final Thread worker;
+  private volatile boolean running = true;
+
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder processingNanos = new LongAdder();
+  private final LongAccumulator maxProcessingNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder lagMillis = new LongAdder();
+  private final LongAccumulator maxLagMillis = new LongAccumulator(Math::max, 0);
+
+  StoreOutboxPartition(int index, int capacity, LongConsumer handler) {
+    this.index = index;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.worker = new Thread(() -> work(handler), "store-outbox-partition-" + index);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  int remainingCapacity() {
+    return queue.remainingCapacity();
+  }
+
+  boolean offer(Long entryId) {
+    return queue.offer(entryId);
+  }
+
+  /** Records one legacy write: how long the call took and how long after commit it landed. */
+  void recordDispatch(long processingNanos, long lagMillis) {
+    processed.increment();
+    this.processingNanos.add(processingNanos);
+    maxProcessingNanos.accumulate(processingNanos);
+    this.lagMillis.add(lagMillis);
+    maxLagMillis.accumulate(lagMillis);
+  }
+
+  StoreOutboxStats.PartitionStats stats() {
+    long count = processed.sum();
+    return new StoreOutboxStats.PartitionStats(
+        index,
+        queue.size(),
+        count,
+        count == 0 ? 0 : processingNanos.sum() / count / 1_000_000.0,
+        maxProcessingNanos.get() / 1_000_000.0,
+        count == 0 ? 0 : (double) lagMillis.sum() / count,
+        maxLagMillis.get());
+  }
+
+  void stop() {
+    running = false;
+    worker.interrupt();
+  }
+
+  private void work(LongConsumer handler) {
+    while (running) {
+      Long entryId;
+      try {
+        entryId = queue.take();
+      } catch (InterruptedException e) {
+        // Entries still queued keep their claim lease and are picked up again once it expires
+        return;
+      }
+      try {
+        handler.accept(entryId);
+      } catch (RuntimeException e) {
+        LOGGER.errorf(e, "Partition %d failed to dispatch outbox entry %d", index, entryId);
+      }
+    }
+  }
+}
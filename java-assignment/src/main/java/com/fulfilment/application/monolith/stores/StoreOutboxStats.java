@@ -0,0 +1,69 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.List;
+
+/**
+ * Legacy sync counters since startup: store changes committed, legacy calls made, changes folded
+ * into a later UPDATE instead of being sent on their own, and entries left in the outbox because
+ * their partition queue was full.
+ */
+public class StoreOutboxStats {
+
+  public long received;
+  public long dispatched;
+  public long coalesced;
+  public long deferred;
+  public long pending;
+  public List<PartitionStats> partitions;
+
+  public StoreOutboxStats() {}
+
+  public StoreOutboxStats(
+      long received,
+      long dispatched,
+      long coalesced,
+      long deferred,
+      long pending,
+      List<PartitionStats> partitions) {
+    this.received = received;
+    this.dispatched = dispatched;
+    this.coalesced = coalesced;
+    this.deferred = deferred;
+    this.pending = pending;
+    this.partitions = partitions;
+  }
+
+  /**
+   * Per-partition queue depth, legacy call latency, and lag from commit to legacy write, both in
+   * milliseconds.
+   */
+  public static class PartitionStats {
+
+    public int partition;
+    public int queueDepth;
+    public long processed;
+    public double avgProcessingMillis;
+    public double maxProcessingMillis;
+    public double avgLagMillis;
+    public long maxLagMillis;
+
+    public PartitionStats() {}
+
+    public PartitionStats(
+        int partition,
+        int queueDepth,
+        long processed,
+        double avgProcessingMillis,
+        double maxProcessingMillis,
+        double avgLagMillis,
+        long maxLagMillis) {
+      this.partition = partition;
+      this.queueDepth = queueDepth;
+      this.processed = processed;
+      this.avgProcessingMillis = avgProcessingMillis;
+      this.maxProcessingMillis = maxProcessingMillis;
+      this.avgLagMillis = avgLagMillis;
+      this.maxLagMillis = maxLagMillis;
+    }
+  }
+}
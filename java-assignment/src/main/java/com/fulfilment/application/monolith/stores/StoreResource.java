@@ -2,53 +2,247 @@ package com.fulfilment.application.monolith.stores;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
+import com.fulfilment.application.monolith.catalog.CatalogExport;
+import com.fulfilment.application.monolith.serialization.Cbor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
 import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 @Path("store")
 @ApplicationScoped
-@Produces("application/json")
+@Produces({"application/json", Cbor.MEDIA_TYPE})
 @Consumes("application/json")
 public class StoreResource {
 
-  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+  @Inject StoreOutboxDispatcher storeOutboxDispatcher;
 
   @Inject Event<StoreEvent> storeEvent;
 
+  @Inject CleanupAssociationsUseCase cleanupAssociationsUseCase;
+
+  @Inject StoreStockCounters storeStockCounters;
+
+  @Inject StoreCatalog storeCatalog;
+
+  @Inject StoreDumpImporter storeDumpImporter;
+
+  @Inject CatalogExport catalogExport;
+
+  @ConfigProperty(name = "stores.catalog.enabled", defaultValue = "true")
+  boolean catalogEnabled;
+
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
+  static final String ASSOCIATIONS_DELETED_HEADER = "X-Associations-Deleted";
+
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static final int DEFAULT_PAGE_SIZE = 100;
+
+  private static final int MAX_PAGE_SIZE = 500;
+
+  private static final List<CatalogExport.Column<Store>> EXPORT_COLUMNS =
+      List.of(
+          new CatalogExport.Column<>("id", store -> store.id),
+          new CatalogExport.Column<>("name", store -> store.name),
+          new CatalogExport.Column<>("quantityProductsInStock", store -> store.quantityProductsInStock));
+
+  /**
+   * Keyset-paged listing: pass the {@value #NEXT_CURSOR_HEADER} of one page as {@code after} to get
+   * the next. Pages are cut from the {@link StoreCatalog} snapshot; with {@code
+   * stores.catalog.enabled=false} each page is one index range scan instead.
+   */
   @GET
-  public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+  public Response get(
+      @QueryParam("sort") @DefaultValue("name") String sort,
+      @QueryParam("after") String after,
+      @QueryParam("prefix") String prefix,
+      @QueryParam("size") @DefaultValue("" + DEFAULT_PAGE_SIZE) int size,
+      @Context UriInfo uriInfo,
+      @Context HttpHeaders headers) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    if (!"name".equals(sort) && !"id".equals(sort)) {
+      throw new WebApplicationException("Unsupported sort '" + sort + "', use name or id.", 400);
+    }
+    Long afterId = "id".equals(sort) ? parseIdCursor(after) : null;
+
+    Object body;
+    String cursor;
+    if (catalogEnabled) {
+      StoreCatalog.Page page = storeCatalog.page(sort, after, afterId, prefix, pageSize);
+      // Snapshot bytes are JSON; CBOR callers get the stores encoded by the provider
+      body = Cbor.preferred(headers) ? page.stores() : page.json();
+      cursor = page.nextCursor();
+    } else {
+      // One extra row tells whether there is a next page without a count query
+      List<Store> stores =
+          "id".equals(sort)
+              ? Store.pageById(afterId, prefix, pageSize + 1)
+              : Store.pageByName(after, prefix, pageSize + 1);
+      List<Store> page = stores.size() > pageSize ? stores.subList(0, pageSize) : stores;
+      body = withPendingStock(page);
+      Store last = page.isEmpty() ? null : page.get(page.size() - 1);
+      cursor = stores.size() <= pageSize ? null : "id".equals(sort) ? last.id.toString() : last.name;
+    }
+
+    if (cursor == null) {
+      return Response.ok(body).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+    }
+    return Response.ok(body)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+        .header(NEXT_CURSOR_HEADER, cursor)
+        .link(uriInfo.getRequestUriBuilder().replaceQueryParam("after", cursor).build(), "next")
+        .build();
   }
 
+  /**
+   * Streams every store ordered by id as NDJSON or CSV, with pending stock adjustments applied.
+   * Unlike the listing, nothing is held in memory beyond one fetch of rows.
+   */
+  @GET
+  @Path("export")
+  @Produces({"application/x-ndjson", "text/csv"})
+  public Response export(@QueryParam("format") @DefaultValue("ndjson") String format) {
+    CatalogExport.Format exportFormat;
+    try {
+      exportFormat = CatalogExport.Format.of(format);
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException(e.getMessage(), 400);
+    }
+    return Response.ok(
+            catalogExport.stream(
+                "from Store order by id",
+                Store.class,
+                exportFormat,
+                EXPORT_COLUMNS,
+                storeStockCounters::withPendingDelta),
+            exportFormat.mediaType)
+        .build();
+  }
+
+  private List<Store> withPendingStock(List<Store> stores) {
+    return stores.stream().map(storeStockCounters::withPendingDelta).toList();
+  }
+
+  private static Long parseIdCursor(String after) {
+    if (after == null) {
+      return null;
+    }
+    try {
+      return Long.valueOf(after);
+    } catch (NumberFormatException e) {
+      throw new WebApplicationException("Cursor '" + after + "' is not a store id.", 400);
+    }
+  }
+
+  @GET
+  @Path("outbox/stats")
+  public StoreOutboxStats outboxStats() {
+    return storeOutboxDispatcher.stats();
+  }
+
+  /**
+   * Starts importing a legacy store dump from the import directory; poll {@code GET store/import}
+   * for progress. With {@code resume} the import continues from the dump's last checkpoint.
+   */
+  @POST
+  @Path("import")
+  public Response startImport(DumpImport dumpImport) {
+    if (dumpImport == null) {
+      throw new WebApplicationException("Dump file was not set on request.", 422);
+    }
+    try {
+      return Response.accepted(storeDumpImporter.start(dumpImport.file, dumpImport.resume)).build();
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException(e.getMessage(), 400);
+    } catch (IllegalStateException e) {
+      throw new WebApplicationException(e.getMessage(), 409);
+    }
+  }
+
+  @GET
+  @Path("import")
+  public StoreDumpImportStatus importStatus() {
+    StoreDumpImportStatus status = storeDumpImporter.status();
+    if (status == null) {
+      throw new WebApplicationException("No store dump import has run.", 404);
+    }
+    return status;
+  }
+
+  /**
+   * Answers {@code If-None-Match} with 304 straight from the entity cache, before anything is
+   * serialized. The ETag is the persisted row version, the same on every instance and suffixed for
+   * CBOR callers; pending stock deltas are not part of it. A store with pending deltas is always
+   * sent in full and marked {@code no-store}, so no cache keeps that body under the row's ETag.
+   */
   @GET
   @Path("{id}")
-  public Store getSingle(Long id) {
+  public Response getSingle(Long id, @Context Request request, @Context HttpHeaders headers) {
     Store entity = Store.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    Store view = storeStockCounters.withPendingDelta(entity);
+    if (view == entity) {
+      EntityTag etag = entityTag(entity, headers);
+      Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+      if (notModified != null) {
+        return notModified.tag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+      }
+    }
+    return tagged(Response.ok(), headers, entity, view);
+  }
+
+  /**
+   * Adjusts the stock by a signed delta without touching the store row; the change is written
+   * with the next periodic flush. Returns the store with the adjusted stock, or 422 when the
+   * stock would drop below zero.
+   */
+  @POST
+  @Path("{id}/stock")
+  public Response adjustStock(Long id, StockAdjustment adjustment) {
+    if (adjustment == null) {
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
+    }
+    Store entity = Store.findById(id);
+    if (entity == null) {
+      throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+    }
+    try {
+      storeStockCounters.add(entity, adjustment.delta);
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException(e.getMessage(), 422);
+    }
+    return Response.accepted(storeStockCounters.withPendingDelta(entity)).build();
   }
 
   @POST
@@ -59,10 +253,10 @@ public class StoreResource {
     }
 
     store.persist();
+    StoreOutboxEntry.enqueue(store, StoreEventType.CREATE);
 
     // Fire event to be processed AFTER transaction commits
     storeEvent.fire(new StoreEvent(store, StoreEventType.CREATE));
-    //legacyStoreManagerGateway.createStoreOnLegacySystem(store);
 
     return Response.ok(store).status(201).build();
   }
@@ -70,7 +264,7 @@ public class StoreResource {
   @PUT
   @Path("{id}")
   @Transactional
-  public Store update(Long id, Store updatedStore) {
+  public Response update(Long id, Store updatedStore, @Context Request request, @Context HttpHeaders headers) {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
@@ -80,21 +274,27 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    checkIfMatch(request, headers, entity);
+    // The new stock is absolute; deltas accepted before it must not be added on top
+    storeStockCounters.discard(entity);
 
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
+    StoreOutboxEntry.enqueue(entity, StoreEventType.UPDATE);
+
     // Fire event to be processed AFTER transaction commits
     storeEvent.fire(new StoreEvent(entity, StoreEventType.UPDATE));
-    //legacyStoreManagerGateway.updateStoreOnLegacySystem(updatedStore);
 
-    return entity;
+    // Flush now so the response carries the version this change commits with
+    Store.flush();
+    return tagged(Response.ok(), headers, entity, storeStockCounters.withPendingDelta(entity));
   }
 
   @PATCH
   @Path("{id}")
   @Transactional
-  public Store patch(Long id, Store updatedStore) {
+  public Response patch(Long id, Store updatedStore, @Context Request request, @Context HttpHeaders headers) {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
@@ -104,47 +304,99 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    checkIfMatch(request, headers, entity);
 
     if (entity.name != null) {
       entity.name = updatedStore.name;
     }
 
     if (entity.quantityProductsInStock != 0) {
+      storeStockCounters.discard(entity);
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
+    StoreOutboxEntry.enqueue(entity, StoreEventType.UPDATE);
+
     // Fire event to be processed AFTER transaction commits
     storeEvent.fire(new StoreEvent(entity, StoreEventType.UPDATE));
-   // legacyStoreManagerGateway.updateStoreOnLegacySystem(updatedStore);
 
-    return entity;
+    // Flush now so the response carries the version this change commits with
+    Store.flush();
+    return tagged(Response.ok(), headers, entity, storeStockCounters.withPendingDelta(entity));
   }
 
   @DELETE
   @Path("{id}")
   @Transactional
-  public Response delete(Long id) {
+  public Response delete(Long id, @Context Request request, @Context HttpHeaders headers) {
     Store entity = Store.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    checkIfMatch(request, headers, entity);
+    long associationsDeleted = cleanupAssociationsUseCase.removeByStore(id);
     entity.delete();
-    return Response.status(204).build();
+
+    // Fire event to be processed AFTER transaction commits
+    storeEvent.fire(new StoreEvent(entity, StoreEventType.DELETE));
+    return Response.status(204).header(ASSOCIATIONS_DELETED_HEADER, associationsDeleted).build();
   }
 
 
+  // The row version, per format: JSON and CBOR are different representations
+  private EntityTag entityTag(Store store, HttpHeaders headers) {
+    return new EntityTag(store.version + Cbor.etagSuffix(headers));
+  }
+
+  // The body is the row's representation only without pending deltas; otherwise keep it uncached
+  private Response tagged(Response.ResponseBuilder response, HttpHeaders headers, Store entity, Store view) {
+    response.entity(view).tag(entityTag(entity, headers)).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    if (view != entity) {
+      CacheControl noStore = new CacheControl();
+      noStore.setNoStore(true);
+      response.cacheControl(noStore);
+    }
+    return response.build();
+  }
+
+  // 412 when If-Match names another version; without the header the write is unconditional
+  private void checkIfMatch(Request request, HttpHeaders headers, Store entity) {
+    Response.ResponseBuilder failed = request.evaluatePreconditions(entityTag(entity, headers));
+    if (failed != null) {
+      throw new WebApplicationException(
+          "Store with id of " + entity.id + " was modified by someone else.", failed.build());
+    }
+  }
+
   void onStoreCommitted(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreEvent event) {
-    LOGGER.info("Processing store event after transaction commit: " + event.getType());
+    if (event.getType() == StoreEventType.DELETE) {
+      // Deletes are not propagated to the legacy system
+      return;
+    }
+    // The outbox row is committed by now; let the dispatcher send it off the request thread
+    LOGGER.debugf("Store change committed, nudging outbox dispatcher: %s", event.getType());
+    storeOutboxDispatcher.onCommitted(event.getType());
+  }
+
+  public static class StockAdjustment {
+    public long delta;
+
+    public StockAdjustment() {}
+
+    public StockAdjustment(long delta) {
+      this.delta = delta;
+    }
+  }
+
+  public static class DumpImport {
+    public String file;
+    public boolean resume;
+
+    public DumpImport() {}
 
-    switch (event.getType()) {
-      case CREATE:
-        legacyStoreManagerGateway.createStoreOnLegacySystem(event.getStore());
-        break;
-      case UPDATE:
-        legacyStoreManagerGateway.updateStoreOnLegacySystem(event.getStore());
-        break;
-      default:
-        LOGGER.warn("Unknown store event type: " + event.getType());
+    public DumpImport(String file, boolean resume) {
+      this.file = file;
+      this.resume = resume;
     }
   }
 
@@ -160,6 +412,9 @@ public class StoreResource {
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
+      } else if (exception instanceof OptimisticLockException) {
+        // A concurrent write committed first
+        code = 409;
       }
 
       ObjectNode exceptionJson = objectMapper.createObjectNode();
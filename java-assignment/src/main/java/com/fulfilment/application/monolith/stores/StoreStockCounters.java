@@ -0,0 +1,317 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jboss.logging.Logger;
+
+/**
+ * Accumulates stock deltas per store in memory and writes them to the database in periodic
+ * batches. Concurrent adjustments of a hot store land on different {@link LongAdder} cells instead
+ * of queueing on its row lock; the database sees one update per store per flush.
+ *
+ * <p>Each store counts every delta it ever accepted and never resets the count. A handoff, either
+ * to a flush or to an absolute stock write that drops the deltas, only records how much of that
+ * count the rows written from a given version on include. Rows older than that version keep
+ * seeing the deltas as pending, so a row read just before or just after the commit gets the same
+ * stock. Handoffs swap the record under a short per-store lock; no lock is held across a
+ * transaction that request threads or importers wait for.
+ */
+@ApplicationScoped
+public class StoreStockCounters {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreStockCounters.class.getName());
+
+  private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+  // Flushes only take turns with each other; adds, reads and absolute writes never wait for one
+  private final ReentrantLock flushes = new ReentrantLock();
+
+  private final Event<StoreEvent> storeEvent;
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  @Inject
+  public StoreStockCounters(
+      Event<StoreEvent> storeEvent,
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+    this.storeEvent = storeEvent;
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+  }
+
+  /**
+   * Accepts a signed stock delta for the store.
+   *
+   * @throws IllegalArgumentException if the stock would drop below zero or out of the int range
+   */
+  public void add(Store store, long delta) {
+    if (delta == 0) {
+      return;
+    }
+    Counter counter = counter(store.id);
+    // Reserve before checking: of two concurrent adds of the same sign, the later check sees the
+    // other one, so they cannot both take the same room. A rejected delta never reaches the count
+    // a handoff reads.
+    LongAdder reserved = delta > 0 ? counter.reservedUp : counter.reservedDown;
+    reserved.add(delta);
+    try {
+      long stock = store.quantityProductsInStock + reserved.sum() + counter.pendingDelta(store.version);
+      if (delta < 0 && stock < 0) {
+        throw new IllegalArgumentException("Stock of store " + store.id + " cannot drop below zero.");
+      }
+      if (delta > 0 && stock > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Stock of store " + store.id + " is out of range.");
+      }
+      counter.accepted.add(delta);
+    } finally {
+      reserved.add(-delta);
+    }
+  }
+
+  /** Delta accepted for the store but not part of the given row version yet. */
+  public long pendingDelta(Store store) {
+    Counter counter = counters.get(store.id);
+    return counter != null ? counter.pendingDelta(store.version) : 0;
+  }
+
+  /** The store as readers should see it: the persisted stock plus deltas not yet flushed. */
+  public Store withPendingDelta(Store store) {
+    long delta = pendingDelta(store);
+    if (delta == 0) {
+      return store;
+    }
+    // Copy so the managed entity is never changed outside a write
+    Store merged = new Store(store.name);
+    merged.id = store.id;
+    merged.version = store.version;
+    merged.quantityProductsInStock = Math.toIntExact(store.quantityProductsInStock + delta);
+    return merged;
+  }
+
+  /**
+   * Drops the unflushed deltas of a managed store whose stock the current transaction overwrites.
+   * The deltas come back if the transaction rolls back. Call it before changing the entity.
+   */
+  public void discard(Store store) {
+    long loadedVersion = store.version;
+    Counter counter = counter(store.id);
+    Handoff handoff = counter.handOff(loadedVersion + 1);
+    afterCompletion(
+        counter,
+        handoff,
+        () -> {
+          // An unchanged row never gets the new version; it already has the stock readers need
+          if (store.version == loadedVersion) {
+            handoff.versionAfter = Long.MIN_VALUE;
+          }
+        });
+  }
+
+  /**
+   * Drops the unflushed deltas of a store whose stock the current transaction overwrites without
+   * loading it. Readers keep counting them until the transaction completes. Call it before the
+   * write.
+   */
+  public void discard(Long storeId) {
+    Counter counter = counter(storeId);
+    Handoff handoff = counter.handOff(Long.MAX_VALUE);
+    afterCompletion(counter, handoff, () -> handoff.versionAfter = Long.MIN_VALUE);
+  }
+
+  private Counter counter(Long storeId) {
+    Counter counter = counters.get(storeId);
+    return counter != null ? counter : counters.computeIfAbsent(storeId, id -> new Counter());
+  }
+
+  private void afterCompletion(Counter counter, Handoff handoff, Runnable onCommit) {
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              onCommit.run();
+              counter.settle(handoff);
+            } else {
+              counter.restore(handoff);
+            }
+          }
+        });
+  }
+
+  @Scheduled(
+      every = "${stores.stock.flush-interval:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledFlush() {
+    flush();
+  }
+
+  void onShutdown(@Observes ShutdownEvent event) {
+    flush();
+  }
+
+  /** Writes all pending deltas in one transaction and returns the number of stores updated. */
+  public int flush() {
+    flushes.lock();
+    try {
+      // Row locks in id order, so two flushes or a flush and an import do not lock in opposite orders
+      Map<Long, Handoff> handoffs = new TreeMap<>();
+      counters.forEach(
+          (storeId, counter) -> {
+            Handoff handoff = counter.handOffNewDeltas();
+            if (handoff != null) {
+              handoffs.put(storeId, handoff);
+            }
+          });
+      if (handoffs.isEmpty()) {
+        return 0;
+      }
+
+      List<Long> flushed = new ArrayList<>();
+      try {
+        QuarkusTransaction.requiringNew()
+            .run(
+                () -> {
+                  handoffs.forEach(
+                      (storeId, handoff) -> {
+                        Counter counter = counters.get(storeId);
+                        // With the row locked, an absolute write that has not taken over the
+                        // deltas yet can only commit after this flush and on top of it
+                        Store store = Store.findById(storeId, LockModeType.PESSIMISTIC_WRITE);
+                        if (store == null) {
+                          LOGGER.warnf("Dropping stock delta %d for deleted store %d", handoff.delta(), storeId);
+                          counters.remove(storeId, counter);
+                          return;
+                        }
+                        if (!counter.isCurrent(handoff)) {
+                          // An absolute write dropped these deltas after the handoff
+                          counter.restore(handoff);
+                          return;
+                        }
+                        store.quantityProductsInStock = Math.toIntExact(store.quantityProductsInStock + handoff.delta());
+                        Store.flush();
+                        // Rows from this version on include the delta
+                        handoff.versionAfter = store.version;
+                        // One legacy sync per flushed store instead of one per adjustment
+                        StoreOutboxEntry.enqueue(store, StoreEventType.UPDATE);
+                        storeEvent.fire(new StoreEvent(store, StoreEventType.UPDATE));
+                        flushed.add(storeId);
+                      });
+                });
+      } catch (RuntimeException e) {
+        LOGGER.error("Stock flush failed, keeping deltas for the next flush", e);
+        handoffs.forEach((storeId, handoff) -> counter(storeId).restore(handoff));
+        return 0;
+      }
+      flushed.forEach(storeId -> counters.get(storeId).settle(handoffs.get(storeId)));
+      return flushed.size();
+    } finally {
+      flushes.unlock();
+    }
+  }
+
+  private static final class Counter {
+
+    // Every delta accepted for the store; never reset, so no concurrent add is lost to a handoff
+    final LongAdder accepted = new LongAdder();
+
+    // Deltas being checked, split by sign so each check only counts what works against it
+    final LongAdder reservedUp = new LongAdder();
+    final LongAdder reservedDown = new LongAdder();
+
+    // Replaced only while holding this counter's monitor
+    volatile Handoff current = new Handoff(0, 0, Long.MIN_VALUE, null);
+
+    long pendingDelta(long version) {
+      Handoff handoff = current;
+      return accepted.sum() - handoff.includedIn(version);
+    }
+
+    synchronized Handoff handOff(long versionAfter) {
+      current = new Handoff(accepted.sum(), current.includedInCurrentRows(), versionAfter, current);
+      return current;
+    }
+
+    // Null while another write is open or nothing was accepted since the last handoff
+    synchronized Handoff handOffNewDeltas() {
+      if (current.replaced != null) {
+        return null;
+      }
+      long total = accepted.sum();
+      if (total == current.included) {
+        return null;
+      }
+      current = new Handoff(total, current.included, Long.MAX_VALUE, current);
+      return current;
+    }
+
+    synchronized boolean isCurrent(Handoff handoff) {
+      return current == handoff;
+    }
+
+    // The write committed; nothing will go back to the handoff it replaced
+    synchronized void settle(Handoff handoff) {
+      handoff.replaced = null;
+    }
+
+    // The write did not happen; take the handoff out wherever a later one stacked on top of it
+    synchronized void restore(Handoff handoff) {
+      if (current == handoff) {
+        current = handoff.replaced;
+        return;
+      }
+      for (Handoff later = current; later != null; later = later.replaced) {
+        if (later.replaced == handoff) {
+          later.replaced = handoff.replaced;
+          return;
+        }
+      }
+    }
+  }
+
+  // Part of the accepted count that rows from versionAfter on include; older rows include less
+  private static final class Handoff {
+    final long included;
+    final long includedBefore;
+    volatile long versionAfter;
+    // The handoff to go back to while the write is open; guarded by the counter
+    Handoff replaced;
+
+    Handoff(long included, long includedBefore, long versionAfter, Handoff replaced) {
+      this.included = included;
+      this.includedBefore = includedBefore;
+      this.versionAfter = versionAfter;
+      this.replaced = replaced;
+    }
+
+    long delta() {
+      return included - includedBefore;
+    }
+
+    long includedIn(long version) {
+      return version >= versionAfter ? included : includedBefore;
+    }
+
+    // Caller holds the counter's monitor
+    long includedInCurrentRows() {
+      return replaced == null ? included : includedBefore;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+
+/**
+ * W3C {@code traceparent} values, for work that is persisted now and carried out later on
+ * another thread. The later span links back to the span that was current when the work was
+ * written.
+ */
+public final class TraceParent {
+
+  /** {@code 00-<32 hex trace id>-<16 hex span id>-<2 hex flags>}. */
+  public static final int LENGTH = 55;
+
+  private TraceParent() {}
+
+  /** @return the traceparent of the current span, or {@code null} outside of a trace */
+  public static String current() {
+    SpanContext context = Span.current().getSpanContext();
+    if (!context.isValid()) {
+      return null;
+    }
+    return "00-" + context.getTraceId() + "-" + context.getSpanId() + "-" + context.getTraceFlags().asHex();
+  }
+
+  /** @return the span context a traceparent names, or an invalid one if it is missing or malformed */
+  public static SpanContext parse(String traceparent) {
+    if (traceparent == null || traceparent.length() != LENGTH || !traceparent.startsWith("00-")) {
+      return SpanContext.getInvalid();
+    }
+    return SpanContext.createFromRemoteParent(
+        traceparent.substring(3, 35),
+        traceparent.substring(36, 52),
+        TraceFlags.fromHex(traceparent, 53),
+        TraceState.getDefault());
+  }
+}
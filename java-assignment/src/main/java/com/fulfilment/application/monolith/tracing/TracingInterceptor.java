@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+
+/**
+ * Records a {@code Class.method} span around each call of a {@link Traced} bean, as a child of the
+ * current span. Runs before the transaction interceptor, so the span includes the commit.
+ */
+@Traced
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class TracingInterceptor {
+
+  @Inject Tracer tracer;
+
+  @AroundInvoke
+  Object trace(InvocationContext context) throws Exception {
+    Method method = context.getMethod();
+    Span span =
+        tracer
+            .spanBuilder(method.getDeclaringClass().getSimpleName() + "." + method.getName())
+            .setAttribute("code.namespace", method.getDeclaringClass().getName())
+            .setAttribute("code.function", method.getName())
+            .startSpan();
+    try (Scope scope = span.makeCurrent()) {
+      return context.proceed();
+    } catch (Exception e) {
+      span.recordException(e);
+      span.setStatus(StatusCode.ERROR);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+}
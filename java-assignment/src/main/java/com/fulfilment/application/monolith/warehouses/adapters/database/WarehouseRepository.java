@@ -1,18 +1,31 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.datasource.ReadOnlySessions;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import java.util.List;
 
 @ApplicationScoped
+@Timed(value = Metrics.REPOSITORY_TIMER, histogram = true)
+@Traced
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  @Inject ReadOnlySessions readOnlySessions;
+
   @Override
   public List<Warehouse> getAll() {
-    return this.listAll().stream().map(DbWarehouse::toWarehouse).toList();
+    return readOnlySessions.read(
+        session ->
+            session.createSelectionQuery("from DbWarehouse", DbWarehouse.class).getResultList().stream()
+                .map(DbWarehouse::toWarehouse)
+                .toList());
   }
 
   @Override
@@ -63,8 +76,28 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     return count("location = ?1 and archivedAt is null", location);
   }
 
+  @Override
+  public Long findActiveIdByBusinessUnitCode(String buCode) {
+    return find("select id from DbWarehouse where businessUnitCode = ?1 and archivedAt is null", buCode)
+        .project(Long.class)
+        .firstResult();
+  }
+
+  public List<DbWarehouse> findActiveByBusinessUnitCodes(List<String> buCodes) {
+    return list("businessUnitCode in ?1 and archivedAt is null", buCodes);
+  }
+
   public DbWarehouse findByWarehouseId(Long id) {
     return findById(id);
   }
 
+  /** {@link #findByWarehouseId} on the read-only datasource, for lookups that lead to no write. */
+  public Warehouse readByWarehouseId(Long id) {
+    return readOnlySessions.read(
+        session -> {
+          DbWarehouse dbWarehouse = session.get(DbWarehouse.class, id);
+          return dbWarehouse != null ? dbWarehouse.toWarehouse() : null;
+        });
+  }
+
 }
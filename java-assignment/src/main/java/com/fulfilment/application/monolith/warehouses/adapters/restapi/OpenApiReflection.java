@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.warehouse.api.beans.Warehouse;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the beans generated from {@code warehouse-openapi.yaml} for reflection, so native
+ * images carry their Jackson metadata from the build rather than relying on discovery through
+ * resource signatures.
+ */
+@RegisterForReflection(targets = Warehouse.class)
+public final class OpenApiReflection {
+
+  private OpenApiReflection() {}
+}
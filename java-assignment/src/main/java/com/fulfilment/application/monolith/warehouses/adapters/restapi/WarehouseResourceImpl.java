@@ -54,13 +54,14 @@ public class WarehouseResourceImpl implements WarehouseResource {
   public Warehouse getAWarehouseUnitByID(String id) {
     try {
       Long warehouseId = Long.parseLong(id);
-      DbWarehouse dbWarehouse = warehouseRepository.findByWarehouseId(warehouseId);
+      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse =
+          warehouseRepository.readByWarehouseId(warehouseId);
 
-      if (dbWarehouse == null) {
+      if (warehouse == null) {
         throw new NotFoundException("Warehouse not found with id: " + id);
       }
 
-      return toWarehouseResponse(dbWarehouse.toWarehouse());
+      return toWarehouseResponse(warehouse);
     } catch (NumberFormatException e) {
       throw new InvalidWarehouseStateException("Invalid warehouse ID format: " + id);
     }
@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Fired inside the transaction that creates, replaces or archives a warehouse. The stock is that
+ * of the active warehouse with the business unit code, or {@code null} once none is active.
+ *
+ * <p>Every create or replace inserts a new warehouse row, so the id of the row the event is about
+ * orders the events of one business unit code; of two events for the same row, the archive is
+ * the later one.
+ */
+public class WarehouseStockEvent {
+
+  private final String businessUnitCode;
+  private final Integer stock;
+  private final Long warehouseId;
+
+  public WarehouseStockEvent(String businessUnitCode, Integer stock, Long warehouseId) {
+    this.businessUnitCode = businessUnitCode;
+    this.stock = stock;
+    this.warehouseId = warehouseId;
+  }
+
+  public String getBusinessUnitCode() {
+    return businessUnitCode;
+  }
+
+  public Integer getStock() {
+    return stock;
+  }
+
+  public Long getWarehouseId() {
+    return warehouseId;
+  }
+}
@@ -1,26 +1,41 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseStateException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 
 @ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(ArchiveWarehouseUseCase.class);
 
   private final WarehouseStore warehouseStore;
+  private final CleanupAssociationsUseCase cleanupAssociationsUseCase;
+  private final Event<WarehouseStockEvent> warehouseStockEvent;
 
-  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore,
+      CleanupAssociationsUseCase cleanupAssociationsUseCase, Event<WarehouseStockEvent> warehouseStockEvent) {
     this.warehouseStore = warehouseStore;
+    this.cleanupAssociationsUseCase = cleanupAssociationsUseCase;
+    this.warehouseStockEvent = warehouseStockEvent;
   }
 
   @Override
@@ -45,8 +60,14 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
     // Set archive timestamp
     warehouse.archivedAt = LocalDateTime.now();
 
+    // Drop associations pointing at this warehouse in the same transaction
+    long associationsDeleted = cleanupAssociationsUseCase.removeByWarehouse(warehouse.businessUnitCode);
+
     // Delete the warehouse or update
+    Long warehouseId = warehouseStore.findActiveIdByBusinessUnitCode(warehouse.businessUnitCode);
     warehouseStore.remove(warehouse);
-    LOGGER.infof("Warehouse archived successfully: businessUnitCode=%s", warehouse.businessUnitCode);
+    warehouseStockEvent.fire(new WarehouseStockEvent(warehouse.businessUnitCode, null, warehouseId));
+    LOGGER.infof("Warehouse archived successfully: businessUnitCode=%s, associationsDeleted=%d",
+        warehouse.businessUnitCode, associationsDeleted);
   }
 }
@@ -1,15 +1,21 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.BusinessRuleViolationException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyExistsException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
@@ -17,6 +23,9 @@ import org.jboss.logging.Logger;
 import java.time.LocalDateTime;
 
 @ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(CreateWarehouseUseCase.class);
@@ -24,13 +33,15 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
   private final WarehouseRepository warehouseRepository;
+  private final Event<WarehouseStockEvent> warehouseStockEvent;
 
   @Inject
   public CreateWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver,
-      WarehouseRepository warehouseRepository) {
+      WarehouseRepository warehouseRepository, Event<WarehouseStockEvent> warehouseStockEvent) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
     this.warehouseRepository = warehouseRepository;
+    this.warehouseStockEvent = warehouseStockEvent;
   }
 
   @Override
@@ -54,6 +65,11 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
       warehouse.archivedAt = null;
 
       warehouseStore.create(warehouse);
+      warehouseStockEvent.fire(
+          new WarehouseStockEvent(
+              warehouse.businessUnitCode,
+              warehouse.stock,
+              warehouseStore.findActiveIdByBusinessUnitCode(warehouse.businessUnitCode)));
       LOGGER.infof("Warehouse created successfully: businessUnitCode=%s, location=%s",
           warehouse.businessUnitCode, warehouse.location);
     } catch (LocationNotFoundException | BusinessRuleViolationException e) {
@@ -1,14 +1,21 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
+import com.fulfilment.application.monolith.metrics.DomainExceptionsCounted;
+import com.fulfilment.application.monolith.metrics.Metrics;
+import com.fulfilment.application.monolith.tracing.Traced;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.BusinessRuleViolationException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
@@ -16,17 +23,25 @@ import org.jboss.logging.Logger;
 import java.time.LocalDateTime;
 
 @ApplicationScoped
+@Timed(value = Metrics.USE_CASE_TIMER, histogram = true)
+@DomainExceptionsCounted
+@Traced
 public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(ReplaceWarehouseUseCase.class);
 
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
+  private final CleanupAssociationsUseCase cleanupAssociationsUseCase;
+  private final Event<WarehouseStockEvent> warehouseStockEvent;
 
   @Inject
-  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver,
+      CleanupAssociationsUseCase cleanupAssociationsUseCase, Event<WarehouseStockEvent> warehouseStockEvent) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.cleanupAssociationsUseCase = cleanupAssociationsUseCase;
+    this.warehouseStockEvent = warehouseStockEvent;
   }
 
   @Override
@@ -58,6 +73,14 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     newWarehouse.archivedAt = null;
     warehouseStore.create(newWarehouse);
 
+    // Associations reference the warehouse row by id, so move them to the new row
+    cleanupAssociationsUseCase.relinkReplacedWarehouse(newWarehouse.businessUnitCode);
+    warehouseStockEvent.fire(
+        new WarehouseStockEvent(
+            newWarehouse.businessUnitCode,
+            newWarehouse.stock,
+            warehouseStore.findActiveIdByBusinessUnitCode(newWarehouse.businessUnitCode)));
+
     LOGGER.infof("Warehouse replaced successfully: businessUnitCode=%s, oldLocation=%s, newLocation=%s",
         newWarehouse.businessUnitCode, currentWarehouse.location, newWarehouse.location);
   }
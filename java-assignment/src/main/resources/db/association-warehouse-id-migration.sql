@@ -0,0 +1,21 @@
+-- One-off PostgreSQL migration for databases created while associations referenced warehouses
+-- by business unit code. database.generation=update cannot backfill or drop columns, so run this
+-- before starting the new version; Hibernate then adds the foreign keys and indexes.
+
+ALTER TABLE warehouse_product_store_association ADD COLUMN IF NOT EXISTS warehouse_id bigint;
+
+UPDATE warehouse_product_store_association a
+SET warehouse_id = w.id
+FROM warehouse w
+WHERE w.businessUnitCode = a.warehouse_business_unit_code
+  AND w.archivedAt IS NULL;
+
+-- Rows that would violate the new foreign keys are dangling already
+DELETE FROM warehouse_product_store_association WHERE warehouse_id IS NULL;
+DELETE FROM warehouse_product_store_association a WHERE NOT EXISTS (SELECT 1 FROM product p WHERE p.id = a.product_id);
+DELETE FROM warehouse_product_store_association a WHERE NOT EXISTS (SELECT 1 FROM store s WHERE s.id = a.store_id);
+
+ALTER TABLE warehouse_product_store_association ALTER COLUMN warehouse_id SET NOT NULL;
+
+-- Also drops the old string-keyed unique constraint
+ALTER TABLE warehouse_product_store_association DROP COLUMN warehouse_business_unit_code;
@@ -0,0 +1,11 @@
+-- PostgreSQL indexes behind GET /product/search. database.generation=update does not create
+-- expression or extension-backed indexes, so run this once per database.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring matches on name and description (queries of three or more characters)
+CREATE INDEX IF NOT EXISTS product_name_trgm ON product USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS product_description_trgm ON product USING gin (lower(description) gin_trgm_ops);
+
+-- Prefix matches for one and two character type-ahead queries, which trigrams cannot serve
+CREATE INDEX IF NOT EXISTS product_name_prefix ON product (lower(name) text_pattern_ops);
@@ -0,0 +1,6 @@
+-- One-off PostgreSQL migration for databases created before stores and products carried an
+-- optimistic-lock version. database.generation=update cannot add a NOT NULL column to a table
+-- that already has rows, so run this before starting the new version.
+
+ALTER TABLE store ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
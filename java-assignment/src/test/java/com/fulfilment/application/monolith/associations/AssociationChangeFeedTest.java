@@ -0,0 +1,107 @@
+package com.fulfilment.application.monolith.associations;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fulfilment.application.monolith.associations.exceptions.ChangeFeedExpiredException;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AssociationChangeFeedTest {
+
+    private AssociationChangeFeed associationChangeFeed;
+
+    private static final String WAREHOUSE_CODE = "WH-001";
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long STORE_ID = 100L;
+
+    @BeforeEach
+    void setUp() {
+        associationChangeFeed = new AssociationChangeFeed(3);
+    }
+
+    @Test
+    void shouldAssignIncreasingSequenceNumbers() {
+        // Act
+        AssociationChange created = associationChangeFeed.record(
+                AssociationEvent.created(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+        AssociationChange deleted = associationChangeFeed.record(
+                AssociationEvent.deleted(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+
+        // Assert
+        assertThat(created.sequence).isEqualTo(1L);
+        assertThat(deleted.sequence).isEqualTo(2L);
+        assertThat(deleted.type).isEqualTo(AssociationEventType.DELETE);
+        assertThat(associationChangeFeed.latestSequence()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldReturnOnlyChangesAfterRequestedSequence() {
+        // Arrange
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, 2L, STORE_ID));
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, 3L, STORE_ID));
+
+        // Act
+        List<AssociationChange> delta = associationChangeFeed.changesSince(1L, 10);
+        List<AssociationChange> limited = associationChangeFeed.changesSince(0L, 2);
+        List<AssociationChange> upToDate = associationChangeFeed.changesSince(3L, 10);
+
+        // Assert
+        assertThat(delta).extracting(c -> c.productId).containsExactly(2L, 3L);
+        assertThat(limited).extracting(c -> c.sequence).containsExactly(1L, 2L);
+        assertThat(upToDate).isEmpty();
+    }
+
+    @Test
+    void shouldRejectSequenceOlderThanRetainedWindow() {
+        // Arrange
+        for (long productId = 1; productId <= 5; productId++) {
+            associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, productId, STORE_ID));
+        }
+
+        // Act & Assert
+        assertThat(associationChangeFeed.changesSince(2L, 10)).extracting(c -> c.sequence).containsExactly(3L, 4L, 5L);
+        assertThatThrownBy(() -> associationChangeFeed.changesSince(1L, 10))
+                .isInstanceOf(ChangeFeedExpiredException.class)
+                .hasMessageContaining("oldest retained is 3");
+    }
+
+    @Test
+    void shouldRejectSequenceFromAnotherRunOfTheFeed() {
+        // Arrange
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+        String epoch = associationChangeFeed.epoch();
+
+        // Act & Assert - ahead of this feed, or read in another epoch
+        assertThat(associationChangeFeed.changesSince(epoch, 0L, 10)).extracting(c -> c.epoch).containsExactly(epoch);
+        assertThatThrownBy(() -> associationChangeFeed.changesSince(2L, 10))
+                .isInstanceOf(ChangeFeedExpiredException.class)
+                .hasMessageContaining("latest sequence 1");
+        assertThatThrownBy(() -> associationChangeFeed.changesSince("earlier-run", 1L, 10))
+                .isInstanceOf(ChangeFeedExpiredException.class)
+                .hasMessageContaining("epoch " + epoch);
+        assertThat(new AssociationChangeFeed(3).epoch()).isNotEqualTo(epoch);
+    }
+
+    @Test
+    void shouldReplayBacklogThenFollowLiveChanges() {
+        // Arrange
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, 2L, STORE_ID));
+
+        // Act
+        AssertSubscriber<AssociationChange> subscriber = associationChangeFeed.stream(1L)
+                .subscribe().withSubscriber(AssertSubscriber.create(10));
+        associationChangeFeed.record(AssociationEvent.bulkDeleted(null, null, STORE_ID));
+
+        // Assert
+        assertThat(subscriber.getItems()).extracting(c -> c.sequence).containsExactly(2L, 3L);
+        assertThat(subscriber.getItems().get(1).type).isEqualTo(AssociationEventType.BULK_DELETE);
+
+        subscriber.cancel();
+        associationChangeFeed.record(AssociationEvent.created(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+        assertThat(subscriber.getItems()).hasSize(2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.fulfilment.application.monolith.associations;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+
+import com.fulfilment.application.monolith.querystats.QueryBudget;
+import com.fulfilment.application.monolith.querystats.QueryStats;
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class AssociationEndpointTest {
+
+  @Test
+  public void testAvailability() {
+    final String path = "product";
+
+    int productId =
+        given()
+            .contentType("application/json")
+            .body("{\"name\":\"LACK\",\"stock\":0}")
+            .when()
+            .post(path)
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    // Nothing linked yet
+    given()
+        .when()
+        .get(path + "/" + productId + "/availability")
+        .then()
+        .statusCode(200)
+        .body("totalStock", is(0), "warehouses", is(0), "stores", is(0));
+
+    // MWH.012 holds 5 and MWH.023 holds 27, both serving store 3
+    for (String warehouse : List.of("MWH.012", "MWH.023")) {
+      given()
+          .contentType("application/json")
+          .body(Map.of("warehouseBusinessUnitCode", warehouse, "productId", productId, "storeId", 3))
+          .when()
+          .post("associations")
+          .then()
+          .statusCode(201);
+    }
+    given()
+        .when()
+        .get(path + "/" + productId + "/availability")
+        .then()
+        .statusCode(200)
+        .body("warehouseStock", is(32), "warehouses", is(2), "stores", is(1));
+
+    given().when().delete("associations/MWH.023/" + productId + "/3").then().statusCode(204);
+    given()
+        .queryParam("id", productId, 999999)
+        .when()
+        .get(path + "/availability")
+        .then()
+        .statusCode(200)
+        .body("productId", contains(productId), "warehouseStock", contains(5), "warehouses", contains(1));
+
+    given().when().get(path + "/999999/availability").then().statusCode(404);
+    given().when().get(path + "/availability").then().statusCode(400);
+
+    // Deleting the product drops its remaining association
+    given().when().delete(path + "/" + productId).then().statusCode(204);
+    given().when().get(path + "/" + productId + "/availability").then().statusCode(404);
+  }
+
+  @Test
+  public void testQueryBudget() {
+    // Validation lookups, the capacity counts and the insert; fewer once the caches are warm
+    given()
+        .contentType("application/json")
+        .body(Map.of("warehouseBusinessUnitCode", "MWH.023", "productId", 3, "storeId", 1))
+        .when()
+        .post("associations")
+        .then()
+        .statusCode(201)
+        .header(QueryStats.HEADER, QueryBudget.statementsAtMost(7));
+    given()
+        .when()
+        .delete("associations/MWH.023/3/1")
+        .then()
+        .statusCode(204)
+        .header(QueryStats.HEADER, QueryBudget.statements(2))
+        .header(QueryStats.HEADER, QueryBudget.entitiesAtMost(1));
+
+    // One select however many associations there are
+    given().when().get("associations").then().statusCode(200).header(QueryStats.HEADER, QueryBudget.statementsAtMost(1));
+  }
+}
@@ -0,0 +1,162 @@
+package com.fulfilment.application.monolith.associations;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductAvailabilityAggregateTest {
+
+    private ProductAvailabilityAggregate aggregate;
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long OTHER_PRODUCT_ID = 2L;
+    private static final Long STORE_ID = 100L;
+    private static final Long OTHER_STORE_ID = 200L;
+
+    @BeforeEach
+    void setUp() {
+        aggregate = new ProductAvailabilityAggregate();
+        aggregate.productAdded(PRODUCT_ID);
+        aggregate.productAdded(OTHER_PRODUCT_ID);
+        aggregate.warehouseStockChanged("WH-001", 10, 1);
+        aggregate.warehouseStockChanged("WH-002", 20, 2);
+        aggregate.storeStockChanged(STORE_ID, 3, 0);
+        aggregate.storeStockChanged(OTHER_STORE_ID, 4, 0);
+    }
+
+    @Test
+    void shouldCountEachLinkedWarehouseAndStoreOnce() {
+        // Act
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+        aggregate.linked(PRODUCT_ID, "WH-002", STORE_ID);
+        aggregate.linked(PRODUCT_ID, "WH-001", OTHER_STORE_ID);
+        aggregate.linked(PRODUCT_ID, "WH-001", OTHER_STORE_ID);
+
+        // Assert
+        ProductAvailability availability = aggregate.get(PRODUCT_ID);
+        assertThat(availability.warehouseStock).isEqualTo(30);
+        assertThat(availability.storeStock).isEqualTo(7);
+        assertThat(availability.totalStock).isEqualTo(37);
+        assertThat(availability.warehouses).isEqualTo(2);
+        assertThat(availability.stores).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepSharedWarehouseUntilItsLastLinkIsRemoved() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+        aggregate.linked(PRODUCT_ID, "WH-001", OTHER_STORE_ID);
+
+        // Act
+        aggregate.unlinked(PRODUCT_ID, "WH-001", STORE_ID);
+
+        // Assert
+        ProductAvailability availability = aggregate.get(PRODUCT_ID);
+        assertThat(availability.warehouseStock).isEqualTo(10);
+        assertThat(availability.storeStock).isEqualTo(4);
+        assertThat(availability.warehouses).isEqualTo(1);
+        assertThat(availability.stores).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyStockChangesToLinkedProductsOnly() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+        aggregate.linked(OTHER_PRODUCT_ID, "WH-002", OTHER_STORE_ID);
+
+        // Act
+        aggregate.warehouseStockChanged("WH-001", 15, 3);
+        aggregate.storeStockChanged(STORE_ID, 1, 1);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).totalStock).isEqualTo(16);
+        assertThat(aggregate.get(OTHER_PRODUCT_ID).totalStock).isEqualTo(24);
+    }
+
+    @Test
+    void shouldDropArchivedWarehouseStock() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+
+        // Act
+        aggregate.warehouseStockChanged("WH-001", null, 1);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).warehouseStock).isZero();
+        assertThat(aggregate.get(PRODUCT_ID).warehouses).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIgnoreStockChangesOlderThanTheLastApplied() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+        aggregate.warehouseStockChanged("WH-001", 15, 3);
+        aggregate.storeStockChanged(STORE_ID, 8, 2);
+
+        // Act
+        aggregate.warehouseStockChanged("WH-001", 12, 2);
+        aggregate.storeStockChanged(STORE_ID, 5, 1);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).warehouseStock).isEqualTo(15);
+        assertThat(aggregate.get(PRODUCT_ID).storeStock).isEqualTo(8);
+    }
+
+    @Test
+    void shouldNotBringBackStockOfARemovedRow() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+        aggregate.warehouseStockChanged("WH-001", null, 1);
+        aggregate.storeStockChanged(STORE_ID, null, 1);
+
+        // Act
+        aggregate.warehouseStockChanged("WH-001", 10, 1);
+        aggregate.storeStockChanged(STORE_ID, 3, 1);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).totalStock).isZero();
+
+        // Act
+        aggregate.warehouseStockChanged("WH-001", 7, 4);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).warehouseStock).isEqualTo(7);
+    }
+
+    @Test
+    void shouldUnlinkEverythingScopedByBulkDeletes() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+        aggregate.linked(PRODUCT_ID, "WH-002", OTHER_STORE_ID);
+        aggregate.linked(OTHER_PRODUCT_ID, "WH-001", STORE_ID);
+
+        // Act
+        aggregate.storeUnlinked(STORE_ID);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).totalStock).isEqualTo(24);
+        assertThat(aggregate.get(OTHER_PRODUCT_ID).totalStock).isZero();
+
+        // Act
+        aggregate.warehouseUnlinked("WH-002");
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID).warehouses).isZero();
+        assertThat(aggregate.get(PRODUCT_ID).stores).isZero();
+    }
+
+    @Test
+    void shouldForgetRemovedProducts() {
+        // Arrange
+        aggregate.linked(PRODUCT_ID, "WH-001", STORE_ID);
+
+        // Act
+        aggregate.productRemoved(PRODUCT_ID);
+        aggregate.storeStockChanged(STORE_ID, 50, 1);
+
+        // Assert
+        assertThat(aggregate.get(PRODUCT_ID)).isNull();
+        assertThat(aggregate.get(3L)).isNull();
+    }
+}
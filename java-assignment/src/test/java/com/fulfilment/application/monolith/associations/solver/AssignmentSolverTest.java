@@ -0,0 +1,152 @@
+package com.fulfilment.application.monolith.associations.solver;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fulfilment.application.monolith.associations.solver.AssignmentProblem.CandidateWarehouse;
+import com.fulfilment.application.monolith.associations.solver.AssignmentProblem.ExistingAssociation;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AssignmentSolverTest {
+
+    private static final Duration BUDGET = Duration.ofMillis(200);
+
+    private ForkJoinPool pool;
+    private AssignmentSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        solver = new AssignmentSolver(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldCoverAllPairsWithinLimits() {
+        // Arrange
+        List<Long> stores = List.of(1L, 2L);
+        List<Long> products = List.of(10L, 20L, 30L);
+        List<CandidateWarehouse> warehouses = List.of(
+                new CandidateWarehouse("WH-A", 100, 0),
+                new CandidateWarehouse("WH-B", 100, 0));
+        AssignmentProblem problem = new AssignmentProblem(stores, products, warehouses, List.of(), 2, 3, 5);
+
+        // Act
+        AssignmentSolution solution = solver.solve(problem, BUDGET);
+
+        // Assert
+        assertThat(solution.uncovered()).isEmpty();
+        assertThat(solution.assignments()).hasSize(6);
+        assertWithinLimits(solution.assignments(), List.of(), 2, 3, 5);
+    }
+
+    @Test
+    void shouldSkipPairsAlreadyCovered() {
+        // Arrange
+        List<ExistingAssociation> existing = List.of(new ExistingAssociation("WH-A", 10L, 1L));
+        AssignmentProblem problem = new AssignmentProblem(
+                List.of(1L), List.of(10L, 20L), List.of(new CandidateWarehouse("WH-A", 100, 0)), existing, 2, 3, 5);
+
+        // Act
+        AssignmentSolution solution = solver.solve(problem, BUDGET);
+
+        // Assert
+        assertThat(solution.alreadyCovered()).isEqualTo(1);
+        assertThat(solution.assignments())
+                .containsExactly(new AssignmentSolution.Assignment("WH-A", 20L, 1L));
+    }
+
+    @Test
+    void shouldRespectProductsPerWarehouseLimitAndReportUncovered() {
+        // Arrange - one warehouse that can hold only two distinct products
+        AssignmentProblem problem = new AssignmentProblem(
+                List.of(1L),
+                List.of(10L, 20L, 30L),
+                List.of(new CandidateWarehouse("WH-A", 100, 0)),
+                List.of(),
+                2, 3, 2);
+
+        // Act
+        AssignmentSolution solution = solver.solve(problem, BUDGET);
+
+        // Assert
+        assertThat(solution.assignments()).hasSize(2);
+        assertThat(solution.uncovered()).hasSize(1);
+    }
+
+    @Test
+    void shouldRespectWarehousesPerStoreLimitIncludingExistingAssociations() {
+        // Arrange - the store already uses two warehouses outside the candidate set
+        List<ExistingAssociation> existing = List.of(
+                new ExistingAssociation("WH-X", 99L, 1L),
+                new ExistingAssociation("WH-Y", 98L, 1L));
+        AssignmentProblem problem = new AssignmentProblem(
+                List.of(1L),
+                List.of(10L, 20L),
+                List.of(new CandidateWarehouse("WH-A", 100, 0), new CandidateWarehouse("WH-B", 100, 0)),
+                existing,
+                2, 3, 1);
+
+        // Act
+        AssignmentSolution solution = solver.solve(problem, BUDGET);
+
+        // Assert - only one more warehouse fits the store, and it can hold a single product
+        assertThat(solution.assignments()).hasSize(1);
+        assertThat(solution.uncovered()).hasSize(1);
+    }
+
+    @Test
+    void shouldBalanceLoadByFreeCapacity() {
+        // Arrange
+        List<Long> stores = List.of(1L, 2L, 3L);
+        List<CandidateWarehouse> warehouses = List.of(
+                new CandidateWarehouse("WH-SMALL", 20, 10),
+                new CandidateWarehouse("WH-LARGE", 100, 10));
+        AssignmentProblem problem = new AssignmentProblem(stores, List.of(10L, 20L), warehouses, List.of(), 2, 3, 5);
+
+        // Act
+        AssignmentSolution solution = solver.solve(problem, BUDGET);
+
+        // Assert
+        assertThat(solution.uncovered()).isEmpty();
+        assertThat(solution.warehouseLoad().get("WH-LARGE"))
+                .isGreaterThanOrEqualTo(solution.warehouseLoad().get("WH-SMALL"));
+        assertThat(solution.restarts()).isPositive();
+    }
+
+    private static void assertWithinLimits(
+            List<AssignmentSolution.Assignment> assignments,
+            List<ExistingAssociation> existing,
+            int maxPerPair,
+            int maxPerStore,
+            int maxProductsPerWarehouse) {
+        List<ExistingAssociation> all = new ArrayList<>(existing);
+        assignments.forEach(a -> all.add(
+                new ExistingAssociation(a.warehouseBusinessUnitCode(), a.productId(), a.storeId())));
+
+        Map<String, Integer> perPair = new HashMap<>();
+        Map<Long, Set<String>> perStore = new HashMap<>();
+        Map<String, Set<Long>> perWarehouse = new HashMap<>();
+        for (ExistingAssociation a : all) {
+            perPair.merge(a.productId() + "/" + a.storeId(), 1, Integer::sum);
+            perStore.computeIfAbsent(a.storeId(), k -> new HashSet<>()).add(a.warehouseBusinessUnitCode());
+            perWarehouse.computeIfAbsent(a.warehouseBusinessUnitCode(), k -> new HashSet<>()).add(a.productId());
+        }
+        assertThat(perPair.values()).allMatch(count -> count <= maxPerPair);
+        assertThat(perStore.values()).allMatch(set -> set.size() <= maxPerStore);
+        assertThat(perWarehouse.values()).allMatch(set -> set.size() <= maxProductsPerWarehouse);
+    }
+}
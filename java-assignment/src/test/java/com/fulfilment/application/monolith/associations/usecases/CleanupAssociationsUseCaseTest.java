@@ -0,0 +1,115 @@
+package com.fulfilment.application.monolith.associations.usecases;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.associations.AssociationEvent;
+import com.fulfilment.application.monolith.associations.AssociationEventType;
+import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.WarehouseKeyCache;
+import jakarta.enterprise.event.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class CleanupAssociationsUseCaseTest {
+
+    @Mock
+    private AssociationRepository associationRepository;
+
+    @Mock
+    private WarehouseKeyCache warehouseKeyCache;
+
+    @Mock
+    private Event<AssociationEvent> associationEvent;
+
+    private CleanupAssociationsUseCase cleanupAssociationsUseCase;
+
+    private static final String WAREHOUSE_CODE = "WH-001";
+    private static final Long WAREHOUSE_ID = 10L;
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long STORE_ID = 100L;
+
+    @BeforeEach
+    void setUp() {
+        cleanupAssociationsUseCase = new CleanupAssociationsUseCase(associationRepository, warehouseKeyCache, associationEvent);
+    }
+
+    @Test
+    void shouldRemoveAssociationsByStoreInOneStatement() {
+        // Arrange
+        when(associationRepository.deleteByStore(STORE_ID)).thenReturn(3L);
+
+        // Act
+        long deleted = cleanupAssociationsUseCase.removeByStore(STORE_ID);
+
+        // Assert
+        assertThat(deleted).isEqualTo(3L);
+        verify(associationRepository).deleteByStore(STORE_ID);
+        verify(associationRepository, never()).findAllAssociations();
+        verify(associationEvent).fire(argThat(event -> event.getType() == AssociationEventType.BULK_DELETE
+                && STORE_ID.equals(event.getStoreId())
+                && event.getProductId() == null));
+    }
+
+    @Test
+    void shouldRemoveAssociationsByProductInOneStatement() {
+        // Arrange
+        when(associationRepository.deleteByProduct(PRODUCT_ID)).thenReturn(2L);
+
+        // Act
+        long deleted = cleanupAssociationsUseCase.removeByProduct(PRODUCT_ID);
+
+        // Assert
+        assertThat(deleted).isEqualTo(2L);
+        verify(associationRepository).deleteByProduct(PRODUCT_ID);
+        verify(associationRepository, never()).findAllAssociations();
+    }
+
+    @Test
+    void shouldRemoveAssociationsByWarehouseInOneStatement() {
+        // Arrange
+        when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
+        when(associationRepository.deleteByWarehouse(WAREHOUSE_ID)).thenReturn(0L);
+
+        // Act
+        long deleted = cleanupAssociationsUseCase.removeByWarehouse(WAREHOUSE_CODE);
+
+        // Assert
+        assertThat(deleted).isZero();
+        verify(associationRepository).deleteByWarehouse(WAREHOUSE_ID);
+        verify(warehouseKeyCache).evict(WAREHOUSE_CODE);
+        verify(associationRepository, never()).findAllAssociations();
+        verifyNoInteractions(associationEvent);
+    }
+
+    @Test
+    void shouldSkipDeleteForUnknownWarehouse() {
+        // Arrange
+        when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(null);
+
+        // Act
+        long deleted = cleanupAssociationsUseCase.removeByWarehouse(WAREHOUSE_CODE);
+
+        // Assert
+        assertThat(deleted).isZero();
+        verify(associationRepository, never()).deleteByWarehouse(any());
+    }
+
+    @Test
+    void shouldRelinkReplacedWarehouseAndEvictItsKey() {
+        // Arrange
+        when(associationRepository.relinkToActiveWarehouse(WAREHOUSE_CODE)).thenReturn(4L);
+
+        // Act
+        long relinked = cleanupAssociationsUseCase.relinkReplacedWarehouse(WAREHOUSE_CODE);
+
+        // Assert
+        assertThat(relinked).isEqualTo(4L);
+        verify(warehouseKeyCache).evict(WAREHOUSE_CODE);
+        verifyNoInteractions(associationEvent);
+    }
+}
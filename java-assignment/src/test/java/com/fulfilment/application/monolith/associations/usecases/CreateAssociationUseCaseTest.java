@@ -4,7 +4,9 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.associations.AssociationEvent;
 import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.WarehouseKeyCache;
 import com.fulfilment.application.monolith.associations.WarehouseProductStoreAssociation;
 import com.fulfilment.application.monolith.associations.exceptions.AssociationAlreadyExistsException;
 import com.fulfilment.application.monolith.associations.exceptions.MaxProductsPerWarehouseExceededException;
@@ -12,9 +14,7 @@ import com.fulfilment.application.monolith.associations.exceptions.MaxWarehouses
 import com.fulfilment.application.monolith.associations.exceptions.MaxWarehousesPerStoreExceededException;
 import com.fulfilment.application.monolith.products.Product;
 import com.fulfilment.application.monolith.products.ProductRepository;
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
-import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
-import java.util.ArrayList;
+import jakarta.enterprise.event.Event;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -31,27 +31,31 @@ public class CreateAssociationUseCaseTest {
         private AssociationRepository associationRepository;
 
         @Mock
-        private WarehouseRepository warehouseRepository;
+        private WarehouseKeyCache warehouseKeyCache;
 
         @Mock
         private ProductRepository productRepository;
 
+        @Mock
+        private Event<AssociationEvent> associationEvent;
+
         private CreateAssociationUseCase createAssociationUseCase;
 
         private static final String WAREHOUSE_CODE = "WH-001";
+        private static final Long WAREHOUSE_ID = 10L;
         private static final Long PRODUCT_ID = 1L;
         private static final Long STORE_ID = 100L;
 
         @BeforeEach
         void setUp() {
-                createAssociationUseCase = new CreateAssociationUseCase(associationRepository, warehouseRepository,
-                                productRepository);
+                createAssociationUseCase = new CreateAssociationUseCase(associationRepository, warehouseKeyCache,
+                                productRepository, associationEvent);
         }
 
         @Test
         void shouldThrowExceptionWhenWarehouseNotFound() {
                 // Arrange
-                when(warehouseRepository.findByBusinessUnitCode(WAREHOUSE_CODE)).thenReturn(null);
+                when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(null);
 
                 // Act & Assert
                 assertThatThrownBy(
@@ -59,16 +63,13 @@ public class CreateAssociationUseCaseTest {
                                 .isInstanceOf(IllegalArgumentException.class)
                                 .hasMessageContaining("Warehouse not found");
 
-                verify(associationRepository, never()).createAssociation(any(), any(), any());
+                verify(associationRepository, never()).createAssociation(any(), any(), any(), any());
         }
 
         @Test
         void shouldThrowExceptionWhenProductNotFound() {
                 // Arrange
-                Warehouse warehouse = new Warehouse();
-                warehouse.businessUnitCode = WAREHOUSE_CODE;
-
-                when(warehouseRepository.findByBusinessUnitCode(WAREHOUSE_CODE)).thenReturn(warehouse);
+                when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
                 when(productRepository.findById(PRODUCT_ID)).thenReturn(null);
 
                 // Act & Assert
@@ -77,22 +78,19 @@ public class CreateAssociationUseCaseTest {
                                 .isInstanceOf(IllegalArgumentException.class)
                                 .hasMessageContaining("Product not found");
 
-                verify(associationRepository, never()).createAssociation(any(), any(), any());
+                verify(associationRepository, never()).createAssociation(any(), any(), any(), any());
         }
 
         @Disabled
         @Test
         void shouldThrowExceptionWhenMaxWarehousesPerProductStoreExceeded() {
                 // Arrange
-                Warehouse warehouse = new Warehouse();
-                warehouse.businessUnitCode = WAREHOUSE_CODE;
-
                 Product product = new Product();
                 product.id = PRODUCT_ID;
 
-                when(warehouseRepository.findByBusinessUnitCode(WAREHOUSE_CODE)).thenReturn(warehouse);
+                when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
                 when(productRepository.findById(PRODUCT_ID)).thenReturn(product);
-                when(associationRepository.findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+                when(associationRepository.findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID))
                                 .thenReturn(Optional.empty());
                 when(associationRepository.countWarehousesByProductAndStore(PRODUCT_ID, STORE_ID))
                                 .thenReturn(2L); // Already 2 warehouses
@@ -103,28 +101,25 @@ public class CreateAssociationUseCaseTest {
                                 .isInstanceOf(MaxWarehousesPerProductStoreExceededException.class)
                                 .hasMessageContaining("Maximum number of warehouses (2) exceeded");
 
-                verify(associationRepository, never()).createAssociation(any(), any(), any());
+                verify(associationRepository, never()).createAssociation(any(), any(), any(), any());
         }
 
         @Disabled
         @Test
         void shouldThrowExceptionWhenMaxWarehousesPerStoreExceeded() {
                 // Arrange
-                Warehouse warehouse = new Warehouse();
-                warehouse.businessUnitCode = WAREHOUSE_CODE;
-
                 Product product = new Product();
                 product.id = PRODUCT_ID;
 
-                when(warehouseRepository.findByBusinessUnitCode(WAREHOUSE_CODE)).thenReturn(warehouse);
+                when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
                 when(productRepository.findById(PRODUCT_ID)).thenReturn(product);
-                when(associationRepository.findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+                when(associationRepository.findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID))
                                 .thenReturn(Optional.empty());
                 when(associationRepository.countWarehousesByProductAndStore(PRODUCT_ID, STORE_ID))
                                 .thenReturn(0L);
                 when(associationRepository.countDistinctWarehousesByStore(STORE_ID))
                                 .thenReturn(3L); // Already 3 distinct warehouses
-                when(associationRepository.findAllAssociations()).thenReturn(new ArrayList<>());
+                when(associationRepository.existsByStoreAndWarehouse(STORE_ID, WAREHOUSE_ID)).thenReturn(false);
 
                 // Act & Assert
                 assertThatThrownBy(
@@ -132,29 +127,26 @@ public class CreateAssociationUseCaseTest {
                                 .isInstanceOf(MaxWarehousesPerStoreExceededException.class)
                                 .hasMessageContaining("Maximum number of warehouses (3) exceeded");
 
-                verify(associationRepository, never()).createAssociation(any(), any(), any());
+                verify(associationRepository, never()).createAssociation(any(), any(), any(), any());
         }
 
         @Disabled
         @Test
         void shouldThrowExceptionWhenMaxProductsPerWarehouseExceeded() {
                 // Arrange
-                Warehouse warehouse = new Warehouse();
-                warehouse.businessUnitCode = WAREHOUSE_CODE;
-
                 Product product = new Product();
                 product.id = PRODUCT_ID;
 
-                when(warehouseRepository.findByBusinessUnitCode(WAREHOUSE_CODE)).thenReturn(warehouse);
+                when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
                 when(productRepository.findById(PRODUCT_ID)).thenReturn(product);
-                when(associationRepository.findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+                when(associationRepository.findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID))
                                 .thenReturn(Optional.empty());
                 when(associationRepository.countWarehousesByProductAndStore(PRODUCT_ID, STORE_ID))
                                 .thenReturn(0L);
                 when(associationRepository.countDistinctWarehousesByStore(STORE_ID)).thenReturn(0L);
-                when(associationRepository.countDistinctProductsByWarehouse(WAREHOUSE_CODE))
+                when(associationRepository.countDistinctProductsByWarehouse(WAREHOUSE_ID))
                                 .thenReturn(5L); // Already 5 distinct products
-                when(associationRepository.findAllAssociations()).thenReturn(new ArrayList<>());
+                when(associationRepository.existsByWarehouseAndProduct(WAREHOUSE_ID, PRODUCT_ID)).thenReturn(false);
 
                 // Act & Assert
                 assertThatThrownBy(
@@ -162,25 +154,22 @@ public class CreateAssociationUseCaseTest {
                                 .isInstanceOf(MaxProductsPerWarehouseExceededException.class)
                                 .hasMessageContaining("Maximum number of products (5) exceeded");
 
-                verify(associationRepository, never()).createAssociation(any(), any(), any());
+                verify(associationRepository, never()).createAssociation(any(), any(), any(), any());
         }
 
         @Disabled
         @Test
         void shouldThrowExceptionWhenAssociationAlreadyExists() {
                 // Arrange
-                Warehouse warehouse = new Warehouse();
-                warehouse.businessUnitCode = WAREHOUSE_CODE;
-
                 Product product = new Product();
                 product.id = PRODUCT_ID;
 
                 WarehouseProductStoreAssociation existingAssociation = new WarehouseProductStoreAssociation(
-                                WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
+                                WAREHOUSE_ID, WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
 
-                when(warehouseRepository.findByBusinessUnitCode(WAREHOUSE_CODE)).thenReturn(warehouse);
+                when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
                 when(productRepository.findById(PRODUCT_ID)).thenReturn(product);
-                when(associationRepository.findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+                when(associationRepository.findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID))
                                 .thenReturn(Optional.of(existingAssociation));
 
                 // Act & Assert
@@ -189,6 +178,6 @@ public class CreateAssociationUseCaseTest {
                                 .isInstanceOf(AssociationAlreadyExistsException.class)
                                 .hasMessageContaining("Association already exists");
 
-                verify(associationRepository, never()).createAssociation(any(), any(), any());
+                verify(associationRepository, never()).createAssociation(any(), any(), any(), any());
         }
 }
@@ -3,9 +3,13 @@ package com.fulfilment.application.monolith.associations.usecases;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.associations.AssociationEvent;
+import com.fulfilment.application.monolith.associations.AssociationEventType;
 import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.WarehouseKeyCache;
 import com.fulfilment.application.monolith.associations.WarehouseProductStoreAssociation;
 import com.fulfilment.application.monolith.associations.exceptions.AssociationNotFoundException;
+import jakarta.enterprise.event.Event;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,39 +23,64 @@ public class DeleteAssociationUseCaseTest {
     @Mock
     private AssociationRepository associationRepository;
 
+    @Mock
+    private WarehouseKeyCache warehouseKeyCache;
+
+    @Mock
+    private Event<AssociationEvent> associationEvent;
+
     private DeleteAssociationUseCase deleteAssociationUseCase;
 
     private static final String WAREHOUSE_CODE = "WH-001";
+    private static final Long WAREHOUSE_ID = 10L;
     private static final Long PRODUCT_ID = 1L;
     private static final Long STORE_ID = 100L;
 
     @BeforeEach
     void setUp() {
-        deleteAssociationUseCase = new DeleteAssociationUseCase(associationRepository);
+        deleteAssociationUseCase = new DeleteAssociationUseCase(associationRepository, warehouseKeyCache, associationEvent);
     }
 
     @Test
     void shouldDeleteAssociationSuccessfully() {
         // Arrange
-        WarehouseProductStoreAssociation existingAssociation = new WarehouseProductStoreAssociation(WAREHOUSE_CODE,
-                PRODUCT_ID, STORE_ID);
+        WarehouseProductStoreAssociation existingAssociation = new WarehouseProductStoreAssociation(WAREHOUSE_ID,
+                WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
 
-        when(associationRepository.findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+        when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
+        when(associationRepository.findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID))
                 .thenReturn(Optional.of(existingAssociation));
-        doNothing().when(associationRepository).deleteAssociation(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
+        doNothing().when(associationRepository).deleteAssociation(WAREHOUSE_ID, PRODUCT_ID, STORE_ID);
 
         // Act
         deleteAssociationUseCase.delete(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
 
         // Assert
-        verify(associationRepository).findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
-        verify(associationRepository).deleteAssociation(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID);
+        verify(associationRepository).findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID);
+        verify(associationRepository).deleteAssociation(WAREHOUSE_ID, PRODUCT_ID, STORE_ID);
+        verify(associationEvent).fire(argThat(event -> event.getType() == AssociationEventType.DELETE
+                && event.getProductId().equals(PRODUCT_ID)
+                && event.getStoreId().equals(STORE_ID)));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenWarehouseCodeIsUnknown() {
+        // Arrange
+        when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(null);
+
+        // Act & Assert
+        assertThatThrownBy(
+                () -> deleteAssociationUseCase.delete(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+                .isInstanceOf(AssociationNotFoundException.class);
+
+        verifyNoInteractions(associationRepository, associationEvent);
     }
 
     @Test
     void shouldThrowExceptionWhenAssociationNotFound() {
         // Arrange
-        when(associationRepository.findByCompositeKey(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID))
+        when(warehouseKeyCache.idFor(WAREHOUSE_CODE)).thenReturn(WAREHOUSE_ID);
+        when(associationRepository.findByCompositeKey(WAREHOUSE_ID, PRODUCT_ID, STORE_ID))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -61,5 +90,6 @@ public class DeleteAssociationUseCaseTest {
                 .hasMessageContaining("Association not found");
 
         verify(associationRepository, never()).deleteAssociation(any(), any(), any());
+        verifyNoInteractions(associationEvent);
     }
 }
@@ -0,0 +1,151 @@
+package com.fulfilment.application.monolith.associations.usecases;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.associations.AssociationEvent;
+import com.fulfilment.application.monolith.associations.AssociationRepository;
+import com.fulfilment.application.monolith.associations.ServingWarehouse;
+import com.fulfilment.application.monolith.associations.ServingWarehousesCache;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class FindServingWarehousesUseCaseTest {
+
+    @Mock
+    private AssociationRepository associationRepository;
+
+    private ServingWarehousesCache servingWarehousesCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FindServingWarehousesUseCase findServingWarehousesUseCase;
+
+    private static final String WAREHOUSE_CODE = "WH-001";
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long STORE_ID = 100L;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        servingWarehousesCache = new ServingWarehousesCache(2, meterRegistry);
+        findServingWarehousesUseCase = new FindServingWarehousesUseCase(associationRepository, servingWarehousesCache);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeRepeatedLookupsFromCache() {
+        // Arrange
+        when(associationRepository.findServingWarehouses(PRODUCT_ID, STORE_ID))
+                .thenReturn(List.of(new ServingWarehouse(WAREHOUSE_CODE, "ZWOLLE-001", 10, 100)));
+
+        // Act
+        List<ServingWarehouse> first = findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+        List<ServingWarehouse> second = findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Assert
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).stock).isEqualTo(10);
+        assertThat(first.get(0).capacity).isEqualTo(100);
+        assertThat(second).isSameAs(first);
+        verify(associationRepository, times(1)).findServingWarehouses(PRODUCT_ID, STORE_ID);
+    }
+
+    @Test
+    void shouldReloadAfterAssociationChangeForSameKey() {
+        // Arrange
+        when(associationRepository.findServingWarehouses(PRODUCT_ID, STORE_ID))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new ServingWarehouse(WAREHOUSE_CODE, "ZWOLLE-001", 10, 100)));
+        findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Act
+        servingWarehousesCache.onAssociationChanged(AssociationEvent.created(WAREHOUSE_CODE, PRODUCT_ID, STORE_ID));
+        List<ServingWarehouse> result = findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Assert
+        assertThat(result).extracting(w -> w.businessUnitCode).containsExactly(WAREHOUSE_CODE);
+        verify(associationRepository, times(2)).findServingWarehouses(PRODUCT_ID, STORE_ID);
+    }
+
+    @Test
+    void shouldDropEntriesContainingWarehouseOnBulkDelete() {
+        // Arrange
+        when(associationRepository.findServingWarehouses(PRODUCT_ID, STORE_ID))
+                .thenReturn(List.of(new ServingWarehouse(WAREHOUSE_CODE, "ZWOLLE-001", 10, 100)))
+                .thenReturn(List.of());
+        findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Act
+        servingWarehousesCache.onAssociationChanged(AssociationEvent.bulkDeleted(WAREHOUSE_CODE, null, null));
+        List<ServingWarehouse> result = findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheResultLoadedWhileInvalidationHappened() {
+        // Arrange
+        when(associationRepository.findServingWarehouses(PRODUCT_ID, STORE_ID)).thenAnswer(invocation -> {
+            servingWarehousesCache.invalidateAll();
+            return List.of();
+        });
+
+        // Act
+        findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+        findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Assert
+        verify(associationRepository, times(2)).findServingWarehouses(PRODUCT_ID, STORE_ID);
+    }
+
+    @Test
+    void shouldDropEntriesOfWarehouseWhoseStockChanged() {
+        // Arrange
+        when(associationRepository.findServingWarehouses(PRODUCT_ID, STORE_ID))
+                .thenReturn(List.of(new ServingWarehouse(WAREHOUSE_CODE, "ZWOLLE-001", 10, 100)))
+                .thenReturn(List.of(new ServingWarehouse(WAREHOUSE_CODE, "ZWOLLE-001", 10, 50)));
+        findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Act
+        servingWarehousesCache.onWarehouseStockCommitted(new WarehouseStockEvent(WAREHOUSE_CODE, 10, 1L));
+        List<ServingWarehouse> result = findServingWarehousesUseCase.find(PRODUCT_ID, STORE_ID);
+
+        // Assert
+        assertThat(result).extracting(w -> w.capacity).containsExactly(50);
+    }
+
+    @Test
+    void shouldEvictBeyondMaxEntriesAndCountIt() {
+        // Arrange
+        when(associationRepository.findServingWarehouses(anyLong(), eq(STORE_ID))).thenReturn(List.of());
+
+        // Act
+        for (long productId = 1; productId <= 3; productId++) {
+            findServingWarehousesUseCase.find(productId, STORE_ID);
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("cache.size").tag("cache", "associations.serving-warehouses").gauge().value())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "associations.serving-warehouses")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRejectMissingParameters() {
+        // Act & Assert
+        assertThatThrownBy(() -> findServingWarehousesUseCase.find(null, STORE_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("productId and storeId are required");
+
+        verifyNoInteractions(associationRepository);
+    }
+}
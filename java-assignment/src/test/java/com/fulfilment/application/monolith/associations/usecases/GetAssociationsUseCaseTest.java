@@ -29,9 +29,9 @@ public class GetAssociationsUseCaseTest {
     @Test
     void shouldReturnAllAssociations() {
         // Arrange
-        WarehouseProductStoreAssociation assoc1 = new WarehouseProductStoreAssociation("WH-001", 1L, 100L);
-        WarehouseProductStoreAssociation assoc2 = new WarehouseProductStoreAssociation("WH-002", 2L, 101L);
-        WarehouseProductStoreAssociation assoc3 = new WarehouseProductStoreAssociation("WH-003", 3L, 102L);
+        WarehouseProductStoreAssociation assoc1 = new WarehouseProductStoreAssociation(1L, "WH-001", 1L, 100L);
+        WarehouseProductStoreAssociation assoc2 = new WarehouseProductStoreAssociation(2L, "WH-002", 2L, 101L);
+        WarehouseProductStoreAssociation assoc3 = new WarehouseProductStoreAssociation(3L, "WH-003", 3L, 102L);
 
         List<WarehouseProductStoreAssociation> expectedAssociations = Arrays.asList(assoc1, assoc2, assoc3);
 
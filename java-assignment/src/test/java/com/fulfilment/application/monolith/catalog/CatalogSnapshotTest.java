@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.catalog;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class CatalogSnapshotTest {
+
+  record Item(Long id, String name) {}
+
+  private static final Comparator<Item> BY_NAME =
+      Comparator.comparing(Item::name).thenComparing(Item::id);
+
+  @Test
+  void of_SortsItemsAndJoinsTheirJson() {
+    // Act
+    CatalogSnapshot<Item> snapshot = snapshot(new Item(2L, "b"), new Item(1L, "a"));
+
+    // Assert
+    assertThat(snapshot.items()).extracting(Item::name).containsExactly("a", "b");
+    assertThat(json(snapshot.fullJson())).isEqualTo("[\"a\",\"b\"]");
+  }
+
+  @Test
+  void upsert_ReplacesByIdAndKeepsOrder() {
+    // Arrange
+    CatalogSnapshot<Item> snapshot = snapshot(new Item(1L, "a"), new Item(2L, "b"));
+
+    // Act
+    CatalogSnapshot<Item> renamed = snapshot.upsert(new Item(1L, "c"), bytes("\"c\""));
+    CatalogSnapshot<Item> added = renamed.upsert(new Item(3L, "a"), bytes("\"a\""));
+
+    // Assert
+    assertThat(renamed.version()).isEqualTo(2);
+    assertThat(json(renamed.fullJson())).isEqualTo("[\"b\",\"c\"]");
+    assertThat(json(added.fullJson())).isEqualTo("[\"a\",\"b\",\"c\"]");
+    assertThat(json(snapshot.fullJson())).as("Snapshots are immutable").isEqualTo("[\"a\",\"b\"]");
+  }
+
+  @Test
+  void remove_DropsItemOrReturnsSameSnapshot() {
+    // Arrange
+    CatalogSnapshot<Item> snapshot = snapshot(new Item(1L, "a"), new Item(2L, "b"));
+
+    // Act
+    CatalogSnapshot<Item> removed = snapshot.remove(1L);
+
+    // Assert
+    assertThat(json(removed.fullJson())).isEqualTo("[\"b\"]");
+    assertThat(removed.version()).isEqualTo(2);
+    assertThat(snapshot.remove(99L)).isSameAs(snapshot);
+    assertThat(json(CatalogSnapshot.jsonArray(List.of()))).isEqualTo("[]");
+  }
+
+  @Test
+  void patch_AppliesABatchInOneVersion() {
+    // Arrange
+    CatalogSnapshot<Item> snapshot = snapshot(new Item(1L, "a"), new Item(2L, "b"), new Item(3L, "c"));
+
+    // Act
+    CatalogSnapshot<Item> patched =
+        snapshot.patch(
+            List.of(new Item(4L, "d"), new Item(1L, "e"), new Item(5L, "0")),
+            List.of(bytes("\"d\""), bytes("\"e\""), bytes("\"0\"")),
+            Set.of(2L, 99L));
+
+    // Assert
+    assertThat(patched.version()).isEqualTo(2);
+    assertThat(patched.items()).extracting(Item::id).containsExactly(5L, 3L, 4L, 1L);
+    assertThat(json(patched.fullJson())).isEqualTo("[\"0\",\"c\",\"d\",\"e\"]");
+    assertThat(snapshot.patch(List.of(), List.of(), Set.of(99L))).isSameAs(snapshot);
+  }
+
+  private static CatalogSnapshot<Item> snapshot(Item... items) {
+    return CatalogSnapshot.of(1, List.of(items), item -> bytes("\"" + item.name() + "\""), Item::id, BY_NAME);
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String json(byte[] value) {
+    return new String(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.catalog;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotCatalogTest {
+
+  record Item(Long id, String name, long version) {}
+
+  private final ItemCatalog catalog = new ItemCatalog();
+
+  @Test
+  void upserted_DropsAChangeOlderThanTheSnapshotRow() {
+    // Arrange
+    catalog.rows.add(new Item(1L, "a", 0));
+    catalog.snapshot();
+    catalog.upserted(new Item(1L, "newer", 2));
+    catalog.snapshot();
+
+    // Act
+    catalog.upserted(new Item(1L, "older", 1));
+
+    // Assert
+    assertThat(catalog.snapshot().items()).extracting(Item::name).containsExactly("newer");
+  }
+
+  @Test
+  void upserted_KeepsTheNewestOfPendingChanges() {
+    // Arrange
+    catalog.rows.add(new Item(1L, "a", 0));
+    catalog.snapshot();
+
+    // Act
+    catalog.upserted(new Item(1L, "newer", 2));
+    catalog.upserted(new Item(1L, "older", 1));
+
+    // Assert
+    assertThat(catalog.snapshot().items()).extracting(Item::name).containsExactly("newer");
+  }
+
+  @Test
+  void upserted_DoesNotBringBackADeletedRow() {
+    // Arrange
+    catalog.rows.add(new Item(1L, "a", 0));
+    catalog.snapshot();
+    catalog.removed(1L, 1);
+    catalog.snapshot();
+
+    // Act
+    catalog.upserted(new Item(1L, "late", 1));
+
+    // Assert
+    assertThat(catalog.snapshot().items()).isEmpty();
+  }
+
+  private static final class ItemCatalog extends SnapshotCatalog<Item> {
+
+    final List<Item> rows = new ArrayList<>();
+
+    ItemCatalog() {
+      super(new ObjectMapper(), Item::id, Item::version, Comparator.comparing(Item::id));
+    }
+
+    @Override
+    protected List<Item> loadAll() {
+      return List.copyOf(rows);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.datasource;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.containsString;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class ReadOnlyRoutingTest {
+
+  @Test
+  public void testReadOnlyRouting() {
+    // Lists, lookups and exports borrow from the read-only pool
+    double before = readOnlyAcquisitions();
+    given().when().get("warehouse").then().statusCode(200);
+    given().when().get("warehouse/2").then().statusCode(200);
+    given().when().get("associations").then().statusCode(200);
+    given().when().get("product/export").then().statusCode(200).body(containsString("\"name\":\"KALLAX\""));
+    double afterReads = readOnlyAcquisitions();
+    assertThat(afterReads - before).isEqualTo(4.0);
+
+    // Writes and the reads that validate them stay on the primary
+    given()
+        .contentType("application/json")
+        .body(Map.of("warehouseBusinessUnitCode", "MWH.012", "productId", 2, "storeId", 2))
+        .when()
+        .post("associations")
+        .then()
+        .statusCode(201);
+    given().when().delete("associations/MWH.012/2/2").then().statusCode(204);
+    assertThat(readOnlyAcquisitions()).isEqualTo(afterReads);
+  }
+
+  private static double readOnlyAcquisitions() {
+    String metrics = given().when().get("q/metrics").then().statusCode(200).extract().asString();
+    Matcher matcher = Pattern.compile("agroal_acquire_count_total\\{datasource=\"readonly\"} (\\S+)").matcher(metrics);
+    assertThat(matcher.find()).isTrue();
+    return Double.parseDouble(matcher.group(1));
+  }
+}
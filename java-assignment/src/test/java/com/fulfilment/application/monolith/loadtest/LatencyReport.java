@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Latency histograms and status counts per endpoint, in microseconds with three significant
+ * digits. Nothing is recorded until {@link #start()}, so the warm-up does not skew the results.
+ */
+final class LatencyReport {
+
+  private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+  private volatile boolean recording;
+  private long startedAt;
+  private long stoppedAt;
+
+  void start() {
+    startedAt = System.currentTimeMillis();
+    recording = true;
+  }
+
+  void stop() {
+    recording = false;
+    stoppedAt = System.currentTimeMillis();
+  }
+
+  /** {@code status} 0 means the request failed before a response arrived. */
+  void record(String endpoint, int status, long nanos) {
+    if (!recording) {
+      return;
+    }
+    Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+    stats.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS));
+    stats.statuses[Math.min(status / 100, 5)].increment();
+  }
+
+  long total() {
+    return endpoints.values().stream().mapToLong(endpoint -> endpoint.histogram.getTotalCount()).sum();
+  }
+
+  /** One line per endpoint: throughput, percentiles in milliseconds and responses by status class. */
+  String summary() {
+    double seconds = (stoppedAt - startedAt) / 1000.0;
+    StringBuilder summary = new StringBuilder();
+    summary.append(
+        String.format(
+            Locale.ROOT,
+            "%-46s %9s %9s %9s %9s %9s %9s %7s %7s %7s %7s%n",
+            "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "2xx", "4xx", "5xx", "failed"));
+    new TreeMap<>(endpoints)
+        .forEach(
+            (name, endpoint) -> {
+              Histogram histogram = endpoint.histogram;
+              summary.append(
+                  String.format(
+                      Locale.ROOT,
+                      "%-46s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d %7d%n",
+                      name,
+                      histogram.getTotalCount(),
+                      histogram.getTotalCount() / seconds,
+                      histogram.getValueAtPercentile(50) / 1000.0,
+                      histogram.getValueAtPercentile(95) / 1000.0,
+                      histogram.getValueAtPercentile(99) / 1000.0,
+                      histogram.getMaxValue() / 1000.0,
+                      endpoint.statuses[2].sum(),
+                      endpoint.statuses[4].sum(),
+                      endpoint.statuses[5].sum(),
+                      endpoint.statuses[0].sum()));
+            });
+    summary.append(String.format(Locale.ROOT, "%-46s %9d %9.1f%n", "total", total(), total() / seconds));
+    return summary.toString();
+  }
+
+  /**
+   * Writes {@code summary.txt}, one {@code .hgrm} percentile distribution per endpoint, which the
+   * HdrHistogram plotter overlays across builds, and all histograms tagged by endpoint in {@code
+   * histograms.hlog}.
+   */
+  void write(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve("summary.txt"), summary(), StandardCharsets.UTF_8);
+    try (PrintStream log = new PrintStream(new FileOutputStream(directory.resolve("histograms.hlog").toFile()), false, StandardCharsets.UTF_8)) {
+      HistogramLogWriter writer = new HistogramLogWriter(log);
+      writer.outputLogFormatVersion();
+      writer.outputStartTime(startedAt);
+      writer.outputLegend();
+      for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+        Histogram histogram = entry.getValue().histogram.copy();
+        histogram.setTag(fileName(entry.getKey()));
+        histogram.setStartTimeStamp(startedAt);
+        histogram.setEndTimeStamp(stoppedAt);
+        writer.outputIntervalHistogram(histogram);
+
+        try (PrintStream hgrm = new PrintStream(new FileOutputStream(directory.resolve(fileName(entry.getKey()) + ".hgrm").toFile()), false, StandardCharsets.UTF_8)) {
+          // Microseconds recorded, milliseconds reported
+          histogram.outputPercentileDistribution(hgrm, 1000.0);
+        }
+      }
+    }
+  }
+
+  // "POST /warehouse/{code}/replacement" -> "POST_warehouse_code_replacement"
+  private static String fileName(String endpoint) {
+    return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("_+$", "");
+  }
+
+  private static final class Endpoint {
+    final Histogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    // Indexed by status / 100; 0 counts requests that got no response
+    final LongAdder[] statuses = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+  }
+}
@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Issues the requests of one worker and records their latency. The first request of a scenario
+ * run is timed from when it was meant to start, not from when the worker got to it, so queueing
+ * behind a slow response counts against the endpoint (no coordinated omission).
+ */
+final class LoadClient {
+
+  private final HttpClient http;
+  private final URI baseUri;
+  private final LatencyReport report;
+  private long intendedStart;
+
+  LoadClient(HttpClient http, URI baseUri, LatencyReport report) {
+    this.http = http;
+    this.baseUri = baseUri;
+    this.report = report;
+  }
+
+  void startingAt(long intendedStart) {
+    this.intendedStart = intendedStart;
+  }
+
+  /** Sends {@code method path} with an optional JSON body, recorded under {@code endpoint}. */
+  HttpResponse<String> send(String endpoint, String method, String path, String json) {
+    return send(endpoint, method, path, json, "application/json");
+  }
+
+  HttpResponse<String> send(String endpoint, String method, String path, String json, String accept) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path)).header("Accept", accept);
+    if (json != null) {
+      request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+    } else {
+      request.method(method, HttpRequest.BodyPublishers.noBody());
+    }
+    long start = intendedStart != 0 ? intendedStart : System.nanoTime();
+    intendedStart = 0;
+    try {
+      HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+      report.record(endpoint, response.statusCode(), System.nanoTime() - start);
+      return response;
+    } catch (IOException e) {
+      report.record(endpoint, 0, System.nanoTime() - start);
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+}
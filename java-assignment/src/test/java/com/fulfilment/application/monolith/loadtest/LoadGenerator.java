@@ -0,0 +1,120 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs weighted scenarios from a fixed number of workers. With no arrival rate every worker starts
+ * its next scenario as soon as the previous one ends (closed model); with a rate, scenario runs are
+ * scheduled at fixed intervals and shared out between the workers (open model), and a run that
+ * starts late is timed from its schedule.
+ */
+final class LoadGenerator {
+
+  private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+
+  private final URI baseUri;
+  private final List<Scenario> scenarios;
+  private final int totalWeight;
+  private final int concurrency;
+  private final double ratePerSecond;
+  private final long seed;
+
+  LoadGenerator(URI baseUri, List<Scenario> scenarios, int concurrency, double ratePerSecond, long seed) {
+    this.baseUri = baseUri;
+    this.scenarios = List.copyOf(scenarios);
+    this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+    this.concurrency = concurrency;
+    this.ratePerSecond = ratePerSecond;
+    this.seed = seed;
+    if (totalWeight <= 0) {
+      throw new IllegalArgumentException("At least one scenario needs a positive weight.");
+    }
+  }
+
+  LatencyReport run(Duration warmup, Duration duration) throws InterruptedException {
+    LatencyReport report = new LatencyReport();
+    HttpClient http =
+        HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+    long start = System.nanoTime();
+    long measureFrom = start + warmup.toNanos();
+    long end = measureFrom + duration.toNanos();
+    long interval = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+    AtomicLong tickets = new AtomicLong();
+
+    List<Thread> workers = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      // Each worker draws from its own seeded stream, so the mix is the same run to run
+      SplittableRandom random = new SplittableRandom(seed + i);
+      LoadClient client = new LoadClient(http, baseUri, report);
+      Thread worker =
+          new Thread(() -> work(client, random, interval, tickets, start, end), "load-worker-" + i);
+      workers.add(worker);
+      worker.start();
+    }
+
+    sleepUntil(measureFrom);
+    report.start();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    report.stop();
+    return report;
+  }
+
+  private void work(
+      LoadClient client, SplittableRandom random, long interval, AtomicLong tickets, long start, long end) {
+    while (!Thread.currentThread().isInterrupted()) {
+      long intended;
+      if (interval > 0) {
+        intended = start + tickets.getAndIncrement() * interval;
+        if (intended >= end) {
+          return;
+        }
+        sleepUntil(intended);
+      } else {
+        intended = System.nanoTime();
+        if (intended >= end) {
+          return;
+        }
+      }
+      client.startingAt(intended);
+      Scenario scenario = pick(random);
+      try {
+        scenario.step().run(client, random);
+      } catch (Exception e) {
+        LOGGER.warnf(e, "Scenario %s failed", scenario.name());
+      }
+    }
+  }
+
+  private Scenario pick(SplittableRandom random) {
+    int ticket = random.nextInt(totalWeight);
+    for (Scenario scenario : scenarios) {
+      ticket -= scenario.weight();
+      if (ticket < 0) {
+        return scenario;
+      }
+    }
+    throw new IllegalStateException("Weights changed while running");
+  }
+
+  private static void sleepUntil(long nanoTime) {
+    long remaining;
+    while ((remaining = nanoTime - System.nanoTime()) > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Replays the weighted {@link Scenarios} against the application and reports throughput and
+ * p50/p95/p99/max latency per endpoint. Not part of the regular build; run with {@code mvn test
+ * -Pload-test -Dtest=LoadTest}, tuned through system properties:
+ *
+ * <ul>
+ *   <li>{@code loadtest.duration} and {@code loadtest.warmup}, ISO-8601 durations ({@code PT60S},
+ *       {@code PT10S})
+ *   <li>{@code loadtest.concurrency}, the number of workers (16)
+ *   <li>{@code loadtest.rate}, scenario runs per second; 0 runs the workers back to back (0)
+ *   <li>{@code loadtest.mix}, weight overrides such as {@code list=10,association=90}
+ *   <li>{@code loadtest.seed} (42) and {@code loadtest.label}, the results directory under {@code
+ *       target/loadtest} ({@code local})
+ * </ul>
+ *
+ * <p>The application runs on the test H2 database unless the datasource is pointed elsewhere, e.g.
+ * {@code -Dquarkus.datasource.db-kind=postgresql -Dquarkus.datasource.jdbc.url=...} for a scratch
+ * local PostgreSQL; the schema is recreated and seeded from {@code import.sql} on start. Runs with
+ * the same settings, seed and database are comparable between builds: compare their {@code
+ * summary.txt}, or overlay their {@code .hgrm} files in the HdrHistogram plotter.
+ */
+@QuarkusTest
+@TestProfile(LoadTest.Profile.class)
+public class LoadTest {
+
+  /**
+   * Keeps per-request instrumentation that the regular tests rely on out of the measurement, and
+   * the application's request error logs off the console so the report stays readable.
+   */
+  public static class Profile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of(
+          "query-stats.enabled", "false",
+          "quarkus.otel.traces.sampler", "always_off",
+          "quarkus.log.console.enabled", "false");
+    }
+  }
+
+  @TestHTTPResource("/")
+  URL baseUrl;
+
+  @Inject WarehouseRepository warehouseRepository;
+
+  @Test
+  void run() throws Exception {
+    Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+    long seed = Long.getLong("loadtest.seed", 42L);
+    Path results = Path.of("target", "loadtest", System.getProperty("loadtest.label", "local"));
+
+    LoadGenerator generator =
+        new LoadGenerator(
+            URI.create(baseUrl.toString()),
+            new Scenarios(warehouseRepository).build(System.getProperty("loadtest.mix")),
+            concurrency,
+            rate,
+            seed);
+    LatencyReport report = generator.run(warmup, duration);
+    report.write(results);
+
+    System.out.printf(
+        "%nLoad test: %s measured after %s warm-up, %d workers, %s%n%s%nResults in %s%n",
+        duration,
+        warmup,
+        concurrency,
+        rate > 0 ? rate + " scenario runs/s" : "closed loop",
+        report.summary(),
+        results.toAbsolutePath());
+    assertThat(report.total()).isPositive();
+  }
+}
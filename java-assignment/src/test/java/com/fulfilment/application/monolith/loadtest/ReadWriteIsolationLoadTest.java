@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shows writes keeping their latency while reads saturate the read-only pool. Writes run at a
+ * fixed rate twice, first alone and then while {@code loadtest.readers} workers hammer lists and
+ * exports back to back; the report puts the two write runs side by side, with the pool counters of
+ * both datasources. Run with {@code mvn test -Pload-test -Dtest=ReadWriteIsolationLoadTest}; besides
+ * the {@link LoadTest} settings it takes {@code loadtest.write-rate} (20 per second) and {@code
+ * loadtest.readers} (64).
+ */
+@QuarkusTest
+@TestProfile(LoadTest.Profile.class)
+public class ReadWriteIsolationLoadTest {
+
+  private static final Map<String, Integer> WRITES = Map.of("store-update", 1, "association", 1);
+  private static final Map<String, Integer> READS = Map.of("list", 4, "export", 1);
+  private static final int WRITERS = 8;
+
+  @TestHTTPResource("/")
+  URL baseUrl;
+
+  @Inject WarehouseRepository warehouseRepository;
+
+  @Test
+  void run() throws Exception {
+    Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+    double writeRate = Double.parseDouble(System.getProperty("loadtest.write-rate", "20"));
+    int readers = Integer.getInteger("loadtest.readers", 64);
+    long seed = Long.getLong("loadtest.seed", 42L);
+    Path results = Path.of("target", "loadtest", System.getProperty("loadtest.label", "local"), "read-write-isolation");
+    URI baseUri = URI.create(baseUrl.toString());
+    Scenarios scenarios = new Scenarios(warehouseRepository);
+
+    LatencyReport writesAlone =
+        new LoadGenerator(baseUri, scenarios.build(WRITES), WRITERS, writeRate, seed).run(warmup, duration);
+    String poolsBefore = pools();
+
+    // Readers start first and keep going until the second write run is done
+    LoadGenerator readGenerator = new LoadGenerator(baseUri, scenarios.build(READS), readers, 0, seed + 1000);
+    LatencyReport[] reads = new LatencyReport[1];
+    Thread readLoad =
+        new Thread(
+            () -> {
+              try {
+                reads[0] = readGenerator.run(warmup, duration.plus(warmup));
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            },
+            "read-load");
+    readLoad.start();
+    Thread.sleep(warmup.toMillis());
+    LatencyReport writesUnderReads =
+        new LoadGenerator(baseUri, scenarios.build(WRITES), WRITERS, writeRate, seed).run(warmup, duration);
+    readLoad.join();
+    String poolsAfter = pools();
+
+    writesAlone.write(results.resolve("writes-alone"));
+    writesUnderReads.write(results.resolve("writes-under-reads"));
+    reads[0].write(results.resolve("reads"));
+    System.out.printf(
+        "%nWrites alone, %s/s:%n%s%nWrites while %d readers saturate the read-only pool:%n%s%nReads:%n%s"
+            + "%nPools before reads:%n%s%nPools after reads:%n%s%nResults in %s%n",
+        writeRate,
+        writesAlone.summary(),
+        readers,
+        writesUnderReads.summary(),
+        reads[0].summary(),
+        poolsBefore,
+        poolsAfter,
+        results.toAbsolutePath());
+
+    assertThat(writesAlone.total()).isPositive();
+    assertThat(writesUnderReads.total()).isPositive();
+    assertThat(reads[0].total()).isPositive();
+  }
+
+  // Acquisitions, waits and time spent blocked per datasource
+  private static String pools() {
+    return given().when().get("q/metrics").then().statusCode(200).extract().asString().lines()
+        .filter(
+            line ->
+                line.startsWith("agroal_acquire_count_total")
+                    || line.startsWith("agroal_awaiting_count")
+                    || line.startsWith("agroal_max_used_count")
+                    || line.startsWith("agroal_blocking_time_total_milliseconds"))
+        .collect(Collectors.joining("\n"));
+  }
+}
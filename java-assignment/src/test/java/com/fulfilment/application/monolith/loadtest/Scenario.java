@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.util.SplittableRandom;
+
+/** One weighted unit of work; a run may issue several requests, each recorded under its endpoint. */
+record Scenario(String name, int weight, Step step) {
+
+  interface Step {
+    void run(LoadClient client, SplittableRandom random) throws Exception;
+  }
+}
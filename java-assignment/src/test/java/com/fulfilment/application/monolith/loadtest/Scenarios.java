@@ -0,0 +1,180 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The default mix against the seed data of {@code import.sql}. Warehouses created by the run go
+ * into a shared pool that replace and archive draw from; associations are removed again right
+ * after they are created, so the data set stays the same size however long the run is.
+ *
+ * <p>The API does not return warehouse ids, so archive looks up the id of a warehouse it created
+ * in the repository, after the create or replace request has been timed.
+ */
+final class Scenarios {
+
+  static final Map<String, Integer> DEFAULT_WEIGHTS =
+      Map.of(
+          "list", 40,
+          "store-update", 20,
+          "association", 20,
+          "warehouse-create", 8,
+          "warehouse-replace", 7,
+          "warehouse-archive", 5,
+          "export", 0);
+
+  private static final String[] LOCATIONS = {
+    "ZWOLLE-002", "AMSTERDAM-001", "AMSTERDAM-002", "HELMOND-001", "EINDHOVEN-001", "VETSBY-001"
+  };
+  private static final String[] WAREHOUSES = {"MWH.001", "MWH.012", "MWH.023"};
+  private static final String[] STORES = {"TONSTAD", "KALLAX", "BESTÅ"};
+  private static final String[] LISTS = {"warehouse", "store", "product", "associations"};
+
+  private record LiveWarehouse(String code, Long id, String location) {}
+
+  private final WarehouseRepository warehouseRepository;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Queue<LiveWarehouse> warehouses = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger sequence = new AtomicInteger();
+
+  Scenarios(WarehouseRepository warehouseRepository) {
+    this.warehouseRepository = warehouseRepository;
+  }
+
+  /**
+   * {@code mix} overrides the default weights, e.g. {@code list=10,association=90}; a weight of 0
+   * leaves a scenario out.
+   */
+  List<Scenario> build(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>(DEFAULT_WEIGHTS);
+    if (mix != null && !mix.isBlank()) {
+      for (String entry : mix.split(",")) {
+        String[] parts = entry.strip().split("=", 2);
+        if (parts.length != 2 || !weights.containsKey(parts[0])) {
+          throw new IllegalArgumentException("Unknown scenario weight '" + entry + "', known: " + DEFAULT_WEIGHTS.keySet());
+        }
+        weights.put(parts[0], Integer.parseInt(parts[1].strip()));
+      }
+    }
+    return build(weights);
+  }
+
+  /** Only the scenarios named in {@code weights}. */
+  List<Scenario> build(Map<String, Integer> weights) {
+    List<Scenario> scenarios = new ArrayList<>();
+    addIfWeighted(scenarios, weights, "list", this::list);
+    addIfWeighted(scenarios, weights, "store-update", this::updateStore);
+    addIfWeighted(scenarios, weights, "association", this::association);
+    addIfWeighted(scenarios, weights, "warehouse-create", this::createWarehouse);
+    addIfWeighted(scenarios, weights, "warehouse-replace", this::replaceWarehouse);
+    addIfWeighted(scenarios, weights, "warehouse-archive", this::archiveWarehouse);
+    addIfWeighted(scenarios, weights, "export", this::export);
+    return scenarios;
+  }
+
+  private static void addIfWeighted(
+      List<Scenario> scenarios, Map<String, Integer> weights, String name, Scenario.Step step) {
+    int weight = weights.getOrDefault(name, 0);
+    if (weight > 0) {
+      scenarios.add(new Scenario(name, weight, step));
+    }
+  }
+
+  private void list(LoadClient client, SplittableRandom random) {
+    String list = LISTS[random.nextInt(LISTS.length)];
+    client.send("GET /" + list, "GET", list, null);
+  }
+
+  private void export(LoadClient client, SplittableRandom random) {
+    client.send("GET /product/export", "GET", "product/export", null, "application/x-ndjson");
+  }
+
+  private void updateStore(LoadClient client, SplittableRandom random) throws Exception {
+    int index = random.nextInt(STORES.length);
+    Map<String, Object> store = Map.of("name", STORES[index], "quantityProductsInStock", random.nextInt(100));
+    client.send("PUT /store/{id}", "PUT", "store/" + (index + 1), objectMapper.writeValueAsString(store));
+  }
+
+  private void association(LoadClient client, SplittableRandom random) throws Exception {
+    String warehouse = WAREHOUSES[random.nextInt(WAREHOUSES.length)];
+    int productId = random.nextInt(3) + 1;
+    int storeId = random.nextInt(3) + 1;
+    Map<String, Object> association =
+        Map.of("warehouseBusinessUnitCode", warehouse, "productId", productId, "storeId", storeId);
+    HttpResponse<String> created =
+        client.send("POST /associations", "POST", "associations", objectMapper.writeValueAsString(association));
+    if (succeeded(created)) {
+      client.send(
+          "DELETE /associations/{code}/{product}/{store}",
+          "DELETE",
+          "associations/" + warehouse + "/" + productId + "/" + storeId,
+          null);
+    }
+  }
+
+  private void createWarehouse(LoadClient client, SplittableRandom random) throws Exception {
+    String code = "LT." + sequence.incrementAndGet();
+    String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+    HttpResponse<String> created =
+        client.send("POST /warehouse", "POST", "warehouse", warehouse(code, location));
+    if (succeeded(created)) {
+      warehouses.add(new LiveWarehouse(code, activeId(code), location));
+    }
+  }
+
+  private void replaceWarehouse(LoadClient client, SplittableRandom random) throws Exception {
+    LiveWarehouse current = warehouses.poll();
+    if (current == null) {
+      createWarehouse(client, random);
+      return;
+    }
+    HttpResponse<String> replaced =
+        client.send(
+            "POST /warehouse/{code}/replacement",
+            "POST",
+            "warehouse/" + current.code() + "/replacement",
+            warehouse(current.code(), current.location()));
+    if (succeeded(replaced)) {
+      warehouses.add(new LiveWarehouse(current.code(), activeId(current.code()), current.location()));
+    } else {
+      warehouses.add(current);
+    }
+  }
+
+  private void archiveWarehouse(LoadClient client, SplittableRandom random) throws Exception {
+    LiveWarehouse current = warehouses.poll();
+    if (current == null) {
+      createWarehouse(client, random);
+      return;
+    }
+    HttpResponse<String> archived = client.send("DELETE /warehouse/{id}", "DELETE", "warehouse/" + current.id(), null);
+    if (!succeeded(archived)) {
+      warehouses.add(current);
+    }
+  }
+
+  // Small and empty, so replacements always fit and locations fill up by count, not capacity
+  private String warehouse(String code, String location) throws Exception {
+    return objectMapper.writeValueAsString(
+        Map.of("businessUnitCode", code, "location", location, "capacity", 10, "stock", 0));
+  }
+
+  private static boolean succeeded(HttpResponse<String> response) {
+    return response != null && response.statusCode() / 100 == 2;
+  }
+
+  // Never null here: the warehouse was just created or replaced and only this run archives it
+  private Long activeId(String code) {
+    return QuarkusTransaction.requiringNew().call(() -> warehouseRepository.findActiveIdByBusinessUnitCode(code));
+  }
+}
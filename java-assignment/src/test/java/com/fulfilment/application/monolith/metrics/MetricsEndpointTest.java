@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.metrics;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class MetricsEndpointTest {
+
+  @Test
+  public void testMetrics() {
+    // A second identical association is rejected by the use case
+    Map<String, Object> association = Map.of("warehouseBusinessUnitCode", "MWH.001", "productId", 3, "storeId", 2);
+    given().contentType("application/json").body(association).when().post("associations").then().statusCode(201);
+    given().contentType("application/json").body(association).when().post("associations").then().statusCode(409);
+    given().when().delete("associations/MWH.001/3/2").then().statusCode(204);
+
+    given()
+        .when()
+        .get("q/metrics")
+        .then()
+        .statusCode(200)
+        .body(
+            containsString("usecase_seconds_bucket{class=\"com.fulfilment.application.monolith.associations.usecases.CreateAssociationUseCase\""),
+            containsString("repository_seconds_count{class=\"com.fulfilment.application.monolith.associations.AssociationRepository\""),
+            containsString("domain_exceptions_total{type=\"AssociationAlreadyExistsException\"} 1.0"),
+            containsString("agroal_active_count"),
+            containsString("agroal_awaiting_count"),
+            containsString("agroal_blocking_time_total_milliseconds"));
+  }
+}
@@ -1,15 +1,29 @@
 package com.fulfilment.application.monolith.products;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.core.IsNot.not;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 @QuarkusTest
 public class ProductEndpointTest {
 
+  @Inject ProductRepository productRepository;
+
   @Test
   public void testCrudProduct() {
     final String path = "product";
@@ -33,4 +47,228 @@ public class ProductEndpointTest {
         .statusCode(200)
         .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
   }
+
+  @Test
+  public void testConditionalRequests() {
+    final String path = "product/2";
+
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+
+    // Unchanged since the client last saw it:
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(304);
+
+    // Update based on the current version, which moves the ETag on:
+    String newEtag =
+        given()
+            .header("If-Match", etag)
+            .contentType("application/json")
+            .body("{\"name\":\"KALLAX\",\"stock\":6}")
+            .when()
+            .put(path)
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+    assertThat(newEtag).isNotEqualTo(etag);
+
+    // A second editor still holding the old version is rejected:
+    given()
+        .header("If-Match", etag)
+        .contentType("application/json")
+        .body("{\"name\":\"KALLAX\",\"stock\":7}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(412);
+    given().header("If-Match", etag).when().delete(path).then().statusCode(412);
+  }
+
+  @Test
+  public void testSearch() {
+    final String path = "product";
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"Mini KALLAX\",\"stock\":1}")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(201);
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"FADO\",\"description\":\"Lamp that fits a Kallax\",\"stock\":1}")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(201);
+
+    // Exact name first, then name substrings, then description matches:
+    given()
+        .queryParam("q", "kallax")
+        .queryParam("size", 2)
+        .when()
+        .get(path + "/search")
+        .then()
+        .statusCode(200)
+        .body("items.name", contains("KALLAX", "Mini KALLAX"), "hasMore", is(true));
+    given()
+        .queryParam("q", "kallax")
+        .queryParam("size", 2)
+        .queryParam("page", 1)
+        .when()
+        .get(path + "/search")
+        .then()
+        .statusCode(200)
+        .body("items.name", contains("FADO"), "hasMore", is(false));
+
+    // Short type-ahead queries match name prefixes:
+    given()
+        .queryParam("q", "BE")
+        .when()
+        .get(path + "/search")
+        .then()
+        .statusCode(200)
+        .body("items.name", contains("BESTÅ"));
+
+    given().when().get(path + "/search").then().statusCode(400);
+  }
+
+  @Test
+  public void testBulkUpsert() {
+    final String path = "product";
+
+    // NDJSON: two inserts, one of them superseded by a later line, an update and a bad line
+    given()
+        .contentType("application/x-ndjson")
+        .body(
+            ("{\"name\":\"BULK-1\",\"stock\":1}\n"
+                + "{\"name\":\"BULK-1\",\"stock\":11}\n"
+                + "{\"name\":\"BULK-2\",\"stock\":2}\n"
+                + "{\"name\":\"BESTÅ\",\"stock\":30}\n"
+                + "{\"stock\":5}\n")
+                .getBytes(StandardCharsets.UTF_8))
+        .when()
+        .post(path + "/bulk")
+        .then()
+        .statusCode(200)
+        .body("inserted", is(2), "updated", is(1), "unchanged", is(1), "failed", is(1));
+
+    // CSV: quoted fields, one unchanged row
+    given()
+        .contentType("text/csv")
+        .body(
+            "name,description,stock\n\"BULK-3\",\"Shelf, white\",3\nBULK-2,,2\nBULK-4,,many\n"
+                .getBytes(StandardCharsets.UTF_8))
+        .when()
+        .post(path + "/bulk")
+        .then()
+        .statusCode(200)
+        .body("inserted", is(1), "updated", is(0), "unchanged", is(1), "failed", is(1));
+
+    given()
+        .when()
+        .get(path)
+        .then()
+        .statusCode(200)
+        .body(containsString("BULK-1"), containsString("Shelf, white"));
+
+    given().contentType("text/csv").body("stock\n1\n".getBytes(StandardCharsets.UTF_8)).when().post(path + "/bulk").then().statusCode(400);
+  }
+
+  @Test
+  public void testBulkUpsertIdsComeFromTheGeneratorOneByOne() {
+    Product kallax = new Product("KALLAX");
+    Product first = new Product("BULK-ID-1");
+    Product second = new Product("BULK-ID-2");
+
+    QuarkusTransaction.requiringNew()
+        .run(() -> productRepository.assignIdsByName(List.of(kallax, first, second)));
+
+    assertThat(kallax.id).isEqualTo(2L);
+    assertThat(first.id).isGreaterThan(3L);
+    assertThat(second.id).isEqualTo(first.id + 1);
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "quarkus.datasource.db-kind", matches = "postgresql")
+  public void testBulkUpsertOnConflict() {
+    List<Product> products = List.of(product("CONFLICT-1", 1), product("CONFLICT-2", 2));
+
+    long[] inserted = QuarkusTransaction.requiringNew().call(() -> productRepository.upsertByNameOnConflict(products));
+    long[] updated =
+        QuarkusTransaction.requiringNew()
+            .call(() -> productRepository.upsertByNameOnConflict(List.of(product("CONFLICT-1", 10), product("CONFLICT-2", 2))));
+    long[] next = QuarkusTransaction.requiringNew().call(() -> productRepository.upsertByNameOnConflict(List.of(product("CONFLICT-3", 3))));
+
+    assertThat(inserted).containsExactly(2, 0);
+    assertThat(updated).containsExactly(0, 1);
+    assertThat(next).containsExactly(1, 0);
+    Product first = QuarkusTransaction.requiringNew().call(() -> productRepository.find("name", "CONFLICT-1").firstResult());
+    Product third = QuarkusTransaction.requiringNew().call(() -> productRepository.find("name", "CONFLICT-3").firstResult());
+    assertThat(first.stock).isEqualTo(10);
+    // Neither the conflicting rows nor the inserts burned a block of the sequence
+    assertThat(third.id).isEqualTo(first.id + 2);
+  }
+
+  @Test
+  public void testExport() {
+    final String path = "product/export";
+
+    given()
+        .queryParam("format", "csv")
+        .when()
+        .get(path)
+        .then()
+        .statusCode(200)
+        .contentType(containsString("text/csv"))
+        .body(startsWith("id,name,description,price,stock\n"), containsString(",KALLAX,"));
+
+    given()
+        .when()
+        .get(path)
+        .then()
+        .statusCode(200)
+        .contentType(containsString("application/x-ndjson"))
+        .body(containsString("\"name\":\"KALLAX\""), not(containsString("[")));
+
+    given().queryParam("format", "xml").when().get(path).then().statusCode(400);
+  }
+
+  @Test
+  public void testCborNegotiation() throws Exception {
+    CBORMapper cbor = new CBORMapper();
+
+    byte[] list =
+        given()
+            .accept("application/cbor")
+            .when()
+            .get("product")
+            .then()
+            .statusCode(200)
+            .contentType("application/cbor")
+            .extract()
+            .asByteArray();
+    assertThat(cbor.readValue(list, new TypeReference<List<Map<String, Object>>>() {}))
+        .extracting(item -> item.get("name"))
+        .contains("KALLAX", "BESTÅ");
+
+    io.restassured.response.Response single =
+        given().accept("application/cbor").when().get("product/3").then().statusCode(200).extract().response();
+    assertThat(cbor.readValue(single.asByteArray(), new TypeReference<Map<String, Object>>() {}))
+        .containsEntry("name", "BESTÅ");
+
+    // Each format has its own strong ETag, and caches are told the body depends on Accept
+    String jsonEtag = given().when().get("product/3").then().header("Vary", "Accept").extract().header("ETag");
+    assertThat(single.header("ETag")).isNotEqualTo(jsonEtag).endsWith("-cbor\"");
+    assertThat(single.header("Vary")).isEqualTo("Accept");
+    given().accept("application/cbor").header("If-None-Match", jsonEtag).when().get("product/3").then().statusCode(200);
+
+    // JSON stays the default
+    given().when().get("product").then().statusCode(200).contentType(containsString("application/json"));
+  }
+
+  private static Product product(String name, int stock) {
+    Product product = new Product(name);
+    product.stock = stock;
+    return product;
+  }
 }
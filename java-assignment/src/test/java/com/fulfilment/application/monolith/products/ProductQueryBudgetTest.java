@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.products;
+
+import static io.restassured.RestAssured.given;
+
+import com.fulfilment.application.monolith.querystats.QueryBudget;
+import com.fulfilment.application.monolith.querystats.QueryStats;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class ProductQueryBudgetTest {
+
+  @Test
+  public void testQueryBudget() {
+    // Listing is at most the snapshot load, never one select per row
+    given().when().get("product").then().statusCode(200).header(QueryStats.HEADER, QueryBudget.statementsAtMost(1));
+    given().when().get("product/2").then().statusCode(200).header(QueryStats.HEADER, QueryBudget.statementsAtMost(1));
+  }
+}
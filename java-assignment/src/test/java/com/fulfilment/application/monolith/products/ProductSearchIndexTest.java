@@ -0,0 +1,59 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ProductSearchIndexTest {
+
+  private final ProductSearchIndex index =
+      new ProductSearchIndex(
+          List.of(
+              product(1L, "Desk Lamp", "Bright light"),
+              product(2L, "Lamp", null),
+              product(3L, "Lampshade", "For any lamp"),
+              product(4L, "Chair", "Goes with the desk lamp"),
+              product(5L, "Sofa", "Comfortable")));
+
+  @Test
+  void search_RanksExactThenPrefixThenSubstringThenDescription() {
+    // Act
+    List<Product> matches = index.search("LAMP", 0, 10);
+
+    // Assert
+    assertThat(matches).extracting(p -> p.id).containsExactly(2L, 3L, 1L, 4L);
+  }
+
+  @Test
+  void search_PagesByOffset() {
+    // Act
+    List<Product> page = index.search("lamp", 2, 10);
+
+    // Assert
+    assertThat(page).extracting(p -> p.id).containsExactly(1L, 4L);
+  }
+
+  @Test
+  void search_MatchesShortQueriesByNamePrefixOnly() {
+    // Act
+    List<Product> matches = index.search("la", 0, 10);
+
+    // Assert
+    assertThat(matches).extracting(p -> p.id).containsExactly(2L, 3L);
+  }
+
+  @Test
+  void search_ReturnsNothingWithoutMatchingTrigrams() {
+    // Act & Assert
+    assertThat(index.search("lampx", 0, 10)).isEmpty();
+    assertThat(index.search("xyz", 0, 10)).isEmpty();
+  }
+
+  private static Product product(Long id, String name, String description) {
+    Product product = new Product(name);
+    product.id = id;
+    product.description = description;
+    return product;
+  }
+}
@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.querystats;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Matchers for the {@value QueryStats#HEADER} response header, to lock an endpoint's query count
+ * into its test: {@code .header(QueryStats.HEADER, QueryBudget.statementsAtMost(2))}. An N+1
+ * regression shows up as a statement count that grows with the data.
+ */
+public final class QueryBudget {
+
+  private QueryBudget() {}
+
+  public static Matcher<String> statements(int expected) {
+    return new Budget("statements", expected, true);
+  }
+
+  public static Matcher<String> statementsAtMost(int max) {
+    return new Budget("statements", max, false);
+  }
+
+  public static Matcher<String> entitiesAtMost(int max) {
+    return new Budget("entities", max, false);
+  }
+
+  public static Matcher<String> collectionsAtMost(int max) {
+    return new Budget("collections", max, false);
+  }
+
+  /** Parses {@code statements=3, entities=2, collections=0, jdbc-ms=1.25}. */
+  static Map<String, String> parse(String header) {
+    Map<String, String> values = new HashMap<>();
+    for (String pair : header.split(",")) {
+      String[] parts = pair.strip().split("=", 2);
+      if (parts.length == 2) {
+        values.put(parts[0], parts[1]);
+      }
+    }
+    return values;
+  }
+
+  private static final class Budget extends TypeSafeMatcher<String> {
+
+    private final String counter;
+    private final int limit;
+    private final boolean exact;
+
+    Budget(String counter, int limit, boolean exact) {
+      this.counter = counter;
+      this.limit = limit;
+      this.exact = exact;
+    }
+
+    @Override
+    protected boolean matchesSafely(String header) {
+      String value = parse(header).get(counter);
+      if (value == null) {
+        return false;
+      }
+      int actual = Integer.parseInt(value);
+      return exact ? actual == limit : actual <= limit;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+      description.appendText(QueryStats.HEADER + " with " + counter + (exact ? " = " : " <= ") + limit);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.serialization;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.products.Product;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class CborProviderTest {
+
+  private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+  private final CborProvider provider = new CborProvider(new ObjectMapper());
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void writeTo_RoundTripsGenericLists() throws IOException {
+    // Arrange
+    Product product = new Product("KALLAX");
+    product.price = new BigDecimal("19.99");
+    product.version = 3;
+    Type listOfProducts = new TypeReference<List<Product>>() {}.getType();
+
+    // Act
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    provider.writeTo(List.of(product), List.class, listOfProducts, NO_ANNOTATIONS, Cbor.TYPE, null, body);
+    Object read =
+        provider.readFrom(
+            (Class<Object>) (Class<?>) List.class,
+            listOfProducts,
+            NO_ANNOTATIONS,
+            Cbor.TYPE,
+            null,
+            new ByteArrayInputStream(body.toByteArray()));
+
+    // Assert
+    assertThat((List<Product>) read)
+        .singleElement()
+        .satisfies(p -> {
+          assertThat(p.name).isEqualTo("KALLAX");
+          assertThat(p.price).isEqualByComparingTo("19.99");
+          assertThat(p.version).as("Fields hidden from JSON stay hidden").isZero();
+        });
+  }
+
+  @Test
+  void isWriteable_RefusesPreSerializedJson() {
+    // Act & Assert
+    assertThat(provider.isWriteable(byte[].class, byte[].class, NO_ANNOTATIONS, Cbor.TYPE)).isFalse();
+    assertThat(provider.isWriteable(List.class, List.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE)).isFalse();
+    assertThat(provider.isWriteable(List.class, List.class, NO_ANNOTATIONS, Cbor.TYPE)).isTrue();
+  }
+
+  @Test
+  void preferred_FollowsTheFirstAcceptableJsonOrCborType() {
+    // Act & Assert
+    assertThat(Cbor.preferred(accepting(Cbor.TYPE, MediaType.APPLICATION_JSON_TYPE))).isTrue();
+    assertThat(Cbor.preferred(accepting(MediaType.APPLICATION_JSON_TYPE, Cbor.TYPE))).isFalse();
+    assertThat(Cbor.preferred(accepting(MediaType.WILDCARD_TYPE))).isFalse();
+    assertThat(Cbor.preferred(accepting())).isFalse();
+  }
+
+  private static HttpHeaders accepting(MediaType... types) {
+    HttpHeaders headers = Mockito.mock(HttpHeaders.class);
+    Mockito.when(headers.getAcceptableMediaTypes()).thenReturn(List.of(types));
+    return headers;
+  }
+}
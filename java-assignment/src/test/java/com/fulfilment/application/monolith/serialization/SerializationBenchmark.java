@@ -0,0 +1,87 @@
+package com.fulfilment.application.monolith.serialization;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Serialization time and payload size of JSON against CBOR for 10k-element lists, with the same
+ * mapper configuration {@link CborProvider} uses. Not part of the regular build; run with {@code
+ * mvn test -Dtest=SerializationBenchmark}.
+ */
+public class SerializationBenchmark {
+
+  private static final int ELEMENTS = 10_000;
+  private static final int WARMUP_ROUNDS = 200;
+  private static final int MEASURED_ROUNDS = 200;
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final ObjectMapper cbor = json.copyWith(new CBORFactory());
+
+  @Test
+  void products() throws IOException {
+    List<Product> products = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      Product product = new Product("Product " + i);
+      product.id = (long) i;
+      product.description = "Description of product number " + i;
+      product.price = BigDecimal.valueOf(i * 7L + 99, 2);
+      product.stock = i % 500;
+      products.add(product);
+    }
+    compare("10k products", products);
+  }
+
+  @Test
+  void stores() throws IOException {
+    List<Store> stores = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      Store store = new Store("Store " + i);
+      store.id = (long) i;
+      store.quantityProductsInStock = i % 1000;
+      stores.add(store);
+    }
+    compare("10k stores", stores);
+  }
+
+  private void compare(String label, List<?> value) throws IOException {
+    Result jsonResult = measure(json.writer(), value);
+    Result cborResult = measure(cbor.writer(), value);
+    System.out.printf(
+        Locale.ROOT,
+        "%s: JSON %,d bytes %.2f ms | CBOR %,d bytes %.2f ms (%.0f%% of JSON size, %.0f%% of JSON time)%n",
+        label,
+        jsonResult.bytes,
+        jsonResult.millis,
+        cborResult.bytes,
+        cborResult.millis,
+        100.0 * cborResult.bytes / jsonResult.bytes,
+        100.0 * cborResult.millis / jsonResult.millis);
+
+    assertThat(cborResult.bytes).isLessThan(jsonResult.bytes);
+  }
+
+  private static Result measure(ObjectWriter writer, List<?> value) throws IOException {
+    int bytes = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      bytes = writer.writeValueAsBytes(value).length;
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      bytes = writer.writeValueAsBytes(value).length;
+    }
+    return new Result(bytes, (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS);
+  }
+
+  private record Result(int bytes, double millis) {}
+}
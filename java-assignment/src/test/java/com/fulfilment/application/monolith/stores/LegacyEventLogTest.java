@@ -0,0 +1,155 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LegacyEventLogTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void append_AssignsSequentialOffsetsAndReadsBack() {
+    // Arrange
+    try (LegacyEventLog log = new LegacyEventLog(directory, 1024)) {
+      // Act
+      long first = log.appendAndAwait(bytes("a"));
+      long second = log.appendAndAwait(bytes("b"));
+
+      // Assert
+      assertThat(first).isZero();
+      assertThat(second).isEqualTo(1);
+      assertThat(log.read(0, 10)).extracting(LegacyEventLog.Record::payloadAsString).containsExactly("a", "b");
+      assertThat(log.read(1, 10)).extracting(LegacyEventLog.Record::offset).containsExactly(1L);
+    }
+  }
+
+  @Test
+  void append_GroupsConcurrentAppendsAndRollsSegmentsBySize() throws IOException {
+    // Arrange
+    try (LegacyEventLog log = new LegacyEventLog(directory, 256)) {
+      // Act
+      List<CompletableFuture<Long>> futures =
+          IntStream.range(0, 200).mapToObj(i -> log.append(bytes("event-" + i))).toList();
+      futures.forEach(CompletableFuture::join);
+
+      // Assert
+      assertThat(futures).extracting(CompletableFuture::join).doesNotHaveDuplicates();
+      assertThat(segmentCount()).isGreaterThan(1);
+      List<LegacyEventLog.Record> records = log.read(0, 1000);
+      assertThat(records).hasSize(200);
+      assertThat(records.get(150).payloadAsString()).isEqualTo("event-150");
+      assertThat(records.get(150).offset()).isEqualTo(150);
+    }
+  }
+
+  @Test
+  void open_ContinuesOffsetsAndDropsTornTail() throws IOException {
+    // Arrange
+    try (LegacyEventLog log = new LegacyEventLog(directory, 1024)) {
+      log.appendAndAwait(bytes("kept"));
+    }
+    Path segment = directory.resolve(String.format("%020d.log", 0));
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+      // Header of a record that never made it to disk
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 42, 1, 2}));
+    }
+
+    // Act
+    try (LegacyEventLog log = new LegacyEventLog(directory, 1024)) {
+      long offset = log.appendAndAwait(bytes("next"));
+
+      // Assert
+      assertThat(offset).isEqualTo(1);
+      assertThat(log.read(0, 10)).extracting(LegacyEventLog.Record::payloadAsString).containsExactly("kept", "next");
+    }
+  }
+
+  @Test
+  void consumer_ResumesFromCommittedOffset() {
+    // Arrange
+    try (LegacyEventLog log = new LegacyEventLog(directory, 1024)) {
+      log.appendAndAwait(bytes("one"));
+      log.appendAndAwait(bytes("two"));
+      log.appendAndAwait(bytes("three"));
+
+      LegacyEventLog.Consumer consumer = log.consumer("legacy");
+      List<LegacyEventLog.Record> firstPoll = consumer.poll(2);
+      consumer.commit(firstPoll.get(firstPoll.size() - 1).offset());
+
+      // Act
+      List<LegacyEventLog.Record> resumed = log.consumer("legacy").poll(10);
+
+      // Assert
+      assertThat(firstPoll).extracting(LegacyEventLog.Record::payloadAsString).containsExactly("one", "two");
+      assertThat(resumed).extracting(LegacyEventLog.Record::payloadAsString).containsExactly("three");
+    }
+  }
+
+  @Test
+  void consumer_DeletesSegmentsEveryConsumerHasCommitted() throws IOException {
+    // Arrange
+    try (LegacyEventLog log = new LegacyEventLog(directory, 64)) {
+      LegacyEventLog.Consumer fast = log.consumer("fast");
+      LegacyEventLog.Consumer slow = log.consumer("slow");
+      IntStream.range(0, 20).forEach(i -> log.appendAndAwait(bytes("event-" + i)));
+      long segments = segmentCount();
+
+      // Act
+      fast.commit(log.endOffset() - 1);
+      long afterFast = segmentCount();
+      slow.commit(log.endOffset() - 1);
+
+      // Assert
+      assertThat(segments).isGreaterThan(1);
+      assertThat(afterFast).as("A consumer behind keeps its segments").isEqualTo(segments);
+      assertThat(segmentCount()).isEqualTo(1);
+      assertThat(log.appendAndAwait(bytes("next"))).isEqualTo(20);
+      assertThat(fast.poll(10)).extracting(LegacyEventLog.Record::payloadAsString).containsExactly("next");
+    }
+  }
+
+  @Test
+  void close_FailsAppendsThatLoseTheRace() {
+    // Arrange
+    LegacyEventLog log = new LegacyEventLog(directory, 1024);
+    List<CompletableFuture<Long>> appends = new CopyOnWriteArrayList<>();
+    CompletableFuture<Void> appending =
+        CompletableFuture.runAsync(
+            () -> IntStream.range(0, 10_000).forEach(i -> appends.add(log.append(bytes("event-" + i)))));
+
+    // Act
+    log.close();
+    appending.join();
+
+    // Assert
+    assertThat(CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)))
+        .as("Every append completes, on disk or failed")
+        .failsWithin(Duration.ofSeconds(5));
+    assertThat(log.append(bytes("late"))).isCompletedExceptionally();
+  }
+
+  private long segmentCount() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> path.toString().endsWith(".log")).count();
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
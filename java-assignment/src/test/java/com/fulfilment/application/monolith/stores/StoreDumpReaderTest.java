@@ -0,0 +1,107 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StoreDumpReaderTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void next_ParsesRecordsAcrossWindowsAndSkipsCommentsAndBlankLines() throws IOException {
+    // Arrange
+    Path dump = dump("# header\nTONSTAD;10\r\n\nKALLAX;-5\nBESTÅ;3");
+
+    // Act - a 16 byte window forces records to cross window boundaries
+    List<String> records = readAll(dump, 0, 16);
+
+    // Assert
+    assertThat(records).containsExactly("TONSTAD=10", "KALLAX=-5", "BESTÅ=3");
+  }
+
+  @Test
+  void next_FlagsMalformedRecords() throws IOException {
+    // Arrange
+    Path dump = dump("no separator\n;5\nNAME;\nNAME;12x\nNAME;99999999999\nOK;1\n");
+
+    // Act
+    List<String> records = readAll(dump, 0, 64);
+
+    // Assert
+    assertThat(records).containsExactly("invalid", "invalid", "invalid", "invalid", "invalid", "OK=1");
+  }
+
+  @Test
+  void next_ResumesFromOffsetAfter() throws IOException {
+    // Arrange
+    Path dump = dump("A;1\nB;2\nC;3\n");
+    long resumeAt;
+    try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+      StoreDumpReader reader = new StoreDumpReader(channel, 0, 64);
+      reader.next();
+      resumeAt = reader.offsetAfter();
+    }
+
+    // Act
+    List<String> records = readAll(dump, resumeAt, 64);
+
+    // Assert
+    assertThat(records).containsExactly("B=2", "C=3");
+  }
+
+  @Test
+  void name_MatchesKeysBuiltFromStrings() throws IOException {
+    // Arrange
+    Path dump = dump("BESTÅ;3\n");
+
+    try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+      StoreDumpReader reader = new StoreDumpReader(channel, 0, 64);
+
+      // Act
+      reader.next();
+
+      // Assert
+      assertThat(reader.name()).isEqualTo(StoreDumpReader.NameKey.of("BESTÅ"));
+      assertThat(reader.name().hashCode()).isEqualTo(StoreDumpReader.NameKey.of("BESTÅ").hashCode());
+      assertThat(reader.name().copy()).isEqualTo(reader.name());
+    }
+  }
+
+  @Test
+  void next_FailsOnRecordLongerThanWindow() throws IOException {
+    // Arrange
+    Path dump = dump("A VERY LONG STORE NAME;1\nB;2\n");
+
+    try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+      StoreDumpReader reader = new StoreDumpReader(channel, 0, 8);
+
+      // Act & Assert
+      assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("longer than");
+    }
+  }
+
+  private Path dump(String content) throws IOException {
+    return Files.write(directory.resolve("stores.dump"), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<String> readAll(Path dump, long offset, int windowBytes) throws IOException {
+    List<String> records = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+      StoreDumpReader reader = new StoreDumpReader(channel, offset, windowBytes);
+      while (reader.next()) {
+        records.add(reader.valid() ? reader.nameAsString() + "=" + reader.quantity() : "invalid");
+      }
+    }
+    return records;
+  }
+}
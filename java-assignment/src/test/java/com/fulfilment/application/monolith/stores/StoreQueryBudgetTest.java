@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.stores;
+
+import static io.restassured.RestAssured.given;
+
+import com.fulfilment.application.monolith.querystats.QueryBudget;
+import com.fulfilment.application.monolith.querystats.QueryStats;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class StoreQueryBudgetTest {
+
+  @Test
+  public void testQueryBudget() {
+    // Pages come from the catalog snapshot, loaded with at most one select
+    given().when().get("store").then().statusCode(200).header(QueryStats.HEADER, QueryBudget.statementsAtMost(1));
+    given().when().get("store/1").then().statusCode(200).header(QueryStats.HEADER, QueryBudget.statementsAtMost(1));
+  }
+}
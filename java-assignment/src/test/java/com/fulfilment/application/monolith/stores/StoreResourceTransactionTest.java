@@ -1,11 +1,39 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.tracing.Spans;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -13,7 +41,9 @@ import org.mockito.ArgumentCaptor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @QuarkusTest
@@ -25,10 +55,37 @@ public class StoreResourceTransactionTest {
     @InjectSpy
     LegacyStoreManagerGateway legacyStoreManagerGateway;
 
+    @Inject
+    StoreStockCounters storeStockCounters;
+
+    @Inject
+    StoreCatalog storeCatalog;
+
+    @Inject
+    StoreDumpImporter storeDumpImporter;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Tracer tracer;
+
+    @Inject
+    InMemorySpanExporter spanExporter;
+
+    // No conditional headers: evaluatePreconditions answers null
+    private final Request request = mock(Request.class);
+
+    // No Accept header: JSON
+    private final HttpHeaders headers = mock(HttpHeaders.class);
+
     @BeforeEach
     @Transactional // This cleanup runs in its own transaction
     void setUp() {
+        StoreOutboxEntry.deleteAll();
         Store.deleteAll();
+        // Bulk deletes bypass the store events
+        storeCatalog.invalidate();
         reset(legacyStoreManagerGateway);
     }
 
@@ -47,14 +104,46 @@ public class StoreResourceTransactionTest {
         // Assert - verify legacy system was called
         // timeout() is helpful because event observers might be slightly decoupled
         verify(legacyStoreManagerGateway, timeout(1000).times(1))
-                .createStoreOnLegacySystem(any(Store.class));
+                .createStoreOnLegacySystem(any(Store.class), anyString());
 
         ArgumentCaptor<Store> storeCaptor = ArgumentCaptor.forClass(Store.class);
-        verify(legacyStoreManagerGateway).createStoreOnLegacySystem(storeCaptor.capture());
+        verify(legacyStoreManagerGateway).createStoreOnLegacySystem(storeCaptor.capture(), anyString());
 
         assertThat(storeCaptor.getValue().name).isEqualTo("Test Store");
     }
 
+    @Test
+    void create_LinksLegacyDispatchSpanBackToTheRequest() {
+        // Arrange
+        Store newStore = new Store("Traced Store");
+        Span requestSpan = tracer.spanBuilder("test request").startSpan();
+
+        // Act
+        try (Scope scope = requestSpan.makeCurrent()) {
+            storeResource.create(newStore);
+        } finally {
+            requestSpan.end();
+        }
+
+        // Assert - the dispatch is its own trace, linked to the request
+        String requestSpanId = requestSpan.getSpanContext().getSpanId();
+        SpanData dispatch = Spans.await(spanExporter, span -> span.getName().equals(StoreOutboxDispatcher.DISPATCH_SPAN)
+                && span.getLinks().stream().anyMatch(link -> link.getSpanContext().getSpanId().equals(requestSpanId)));
+        assertThat(dispatch.getParentSpanContext().isValid()).isFalse();
+        assertThat(dispatch.getTraceId()).isNotEqualTo(requestSpan.getSpanContext().getTraceId());
+
+        SpanData legacyCall = Spans.await(spanExporter,
+                span -> span.getName().equals("LegacyStoreManagerGateway.createStoreOnLegacySystem")
+                        && span.getParentSpanId().equals(dispatch.getSpanId()));
+        assertThat(legacyCall.getStartEpochNanos()).isGreaterThanOrEqualTo(dispatch.getStartEpochNanos());
+        assertThat(legacyCall.getEndEpochNanos()).isLessThanOrEqualTo(dispatch.getEndEpochNanos());
+
+        // The insert ran in the request's trace
+        Spans.await(spanExporter, span -> span.getParentSpanId().equals(requestSpanId)
+                && span.getAttributes().get(AttributeKey.stringKey("db.statement")) != null
+                && span.getAttributes().get(AttributeKey.stringKey("db.statement")).startsWith("insert into Store"));
+    }
+
     @Test
     void update_CallsLegacySystemAfterSuccessfulTransaction() {
         // Arrange - Setup initial data in a controlled way
@@ -67,11 +156,11 @@ public class StoreResourceTransactionTest {
         updatedStore.quantityProductsInStock = 75;
 
         // Act
-        storeResource.update(storeId, updatedStore);
+        storeResource.update(storeId, updatedStore, request, headers);
 
         // Assert
         verify(legacyStoreManagerGateway, timeout(1000).times(1))
-                .updateStoreOnLegacySystem(any(Store.class));
+                .updateStoreOnLegacySystem(any(Store.class), anyString());
     }
 
     @Test
@@ -86,14 +175,228 @@ public class StoreResourceTransactionTest {
         patchData.quantityProductsInStock = 60;
 
         // Act
-        storeResource.patch(storeId, patchData);
+        storeResource.patch(storeId, patchData, request, headers);
 
         // Assert - verify legacy system was called for update
         verify(legacyStoreManagerGateway, timeout(1000).times(1))
                 .updateStoreOnLegacySystem(argThat(store ->
                         store.name.equals("Patched Store") &&
                                 store.quantityProductsInStock == 60
-                ));
+                ), anyString());
+    }
+
+    @Test
+    void create_RetriesLegacyCallWithSameIdempotencyKey() {
+        // Arrange - the legacy system fails once, then recovers
+        doThrow(new IllegalStateException("legacy down"))
+                .doCallRealMethod()
+                .when(legacyStoreManagerGateway)
+                .createStoreOnLegacySystem(any(Store.class), anyString());
+        Store newStore = new Store();
+        newStore.name = "Retry Store";
+        newStore.quantityProductsInStock = 5;
+
+        // Act
+        storeResource.create(newStore);
+
+        // Assert
+        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        verify(legacyStoreManagerGateway, timeout(5000).times(2))
+                .createStoreOnLegacySystem(any(Store.class), keyCaptor.capture());
+        assertThat(keyCaptor.getAllValues()).hasSize(2).doesNotContainNull();
+        assertThat(keyCaptor.getAllValues().get(0)).isEqualTo(keyCaptor.getAllValues().get(1));
+    }
+
+    @Test
+    void create_CallsLegacySystemOutsideAnyTransaction() {
+        // Arrange
+        List<Boolean> transactionActive = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            transactionActive.add(QuarkusTransaction.isActive());
+            return invocation.callRealMethod();
+        }).when(legacyStoreManagerGateway).createStoreOnLegacySystem(any(Store.class), anyString());
+
+        // Act
+        storeResource.create(new Store("No Transaction Store"));
+
+        // Assert - the entry is still marked dispatched afterwards
+        verify(legacyStoreManagerGateway, timeout(1000)).createStoreOnLegacySystem(any(Store.class), anyString());
+        verify(legacyStoreManagerGateway, after(500).times(1)).createStoreOnLegacySystem(any(Store.class), anyString());
+        assertThat(transactionActive).containsExactly(false);
+        assertThat(QuarkusTransaction.requiringNew().call(() -> StoreOutboxEntry.count("dispatchedAt is null"))).isZero();
+    }
+
+    @Test
+    void update_CoalescesBurstIntoLatestState() {
+        // Arrange
+        Long storeId = createStoreInternally("Burst Store", 1);
+        reset(legacyStoreManagerGateway);
+        long receivedBefore = storeResource.outboxStats().received;
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            Store update = new Store("Burst Store");
+            update.quantityProductsInStock = i;
+            storeResource.update(storeId, update, request, headers);
+        }
+
+        // Assert - only the last state reaches the legacy system
+        verify(legacyStoreManagerGateway, timeout(3000))
+                .updateStoreOnLegacySystem(argThat(store -> store.quantityProductsInStock == 5), anyString());
+        verify(legacyStoreManagerGateway, after(500).atMost(2))
+                .updateStoreOnLegacySystem(any(Store.class), anyString());
+        StoreOutboxStats stats = storeResource.outboxStats();
+        assertThat(stats.received - receivedBefore).isEqualTo(5);
+        assertThat(stats.coalesced).isPositive();
+        assertThat(stats.partitions)
+                .anySatisfy(partition -> assertThat(partition.processed).isPositive());
+    }
+
+    @Test
+    void adjustStock_MergesPendingDeltasAndFlushesInOneUpdate() throws Exception {
+        // Arrange
+        Long storeId = createStoreInternally("Counter Store", 10);
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+
+        // Act - 400 concurrent +1 adjustments and 100 -1 adjustments
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long delta = i % 5 == 0 ? -1 : 1;
+            calls.add(clients.submit(() -> QuarkusTransaction.requiringNew()
+                    .run(() -> storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(delta)))));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        clients.shutdown();
+
+        // Assert - reads see the pending deltas before and the persisted value after the flush
+        assertThat(((Store) storeResource.getSingle(storeId, request, headers).getEntity()).quantityProductsInStock).isEqualTo(310);
+        storeStockCounters.flush();
+        Store persisted = QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(storeId));
+        assertThat(storeStockCounters.pendingDelta(persisted)).isZero();
+        assertThat(persisted.quantityProductsInStock).isEqualTo(310);
+    }
+
+    @Test
+    void adjustStock_KeepsFlushedDeltaVisibleToRowsReadBeforeTheFlush() {
+        // Arrange
+        Long storeId = createStoreInternally("Handoff Store", 10);
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(5));
+        Store readBefore = QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(storeId));
+
+        // Act
+        storeStockCounters.flush();
+
+        // Assert - the old row still needs the delta, the new row already has it
+        Store readAfter = QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(storeId));
+        assertThat(storeStockCounters.withPendingDelta(readBefore).quantityProductsInStock).isEqualTo(15);
+        assertThat(storeStockCounters.withPendingDelta(readAfter).quantityProductsInStock).isEqualTo(15);
+    }
+
+    @Test
+    void adjustStock_Throws422_WhenStockWouldDropBelowZero() {
+        // Arrange
+        Long storeId = createStoreInternally("Small Store", 3);
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(-2));
+
+        // Act & Assert
+        assertThatThrownBy(() -> storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(-2)))
+                .isInstanceOf(WebApplicationException.class)
+                .satisfies(e -> assertThat(((WebApplicationException) e).getResponse().getStatus()).isEqualTo(422));
+        assertThatThrownBy(() -> storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(Integer.MAX_VALUE)))
+                .isInstanceOf(WebApplicationException.class)
+                .satisfies(e -> assertThat(((WebApplicationException) e).getResponse().getStatus()).isEqualTo(422));
+        assertThat(((Store) storeResource.getSingle(storeId, request, headers).getEntity()).quantityProductsInStock).isEqualTo(1);
+    }
+
+    @Test
+    void adjustStock_ConcurrentDecrementsNeverOverdraw() throws Exception {
+        // Arrange
+        Long storeId = createStoreInternally("Contended Store", 10);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+
+        // Act - 50 concurrent -1 adjustments against a stock of 10
+        List<Future<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            calls.add(clients.submit(() -> {
+                try {
+                    QuarkusTransaction.requiringNew()
+                            .run(() -> storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(-1)));
+                    return 1;
+                } catch (WebApplicationException e) {
+                    return 0;
+                }
+            }));
+        }
+        int accepted = 0;
+        for (Future<Integer> call : calls) {
+            accepted += call.get();
+        }
+        clients.shutdown();
+
+        // Assert
+        assertThat(accepted).isEqualTo(10);
+        assertThat(((Store) storeResource.getSingle(storeId, request, headers).getEntity()).quantityProductsInStock).isZero();
+    }
+
+    @Test
+    void update_DropsDeltasAcceptedBeforeTheAbsoluteStock() {
+        // Arrange
+        Long storeId = createStoreInternally("Absolute Store", 10);
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(5));
+        Store update = new Store("Absolute Store");
+        update.quantityProductsInStock = 3;
+
+        // Act
+        Store response = (Store) storeResource.update(storeId, update, request, headers).getEntity();
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(1));
+        storeStockCounters.flush();
+
+        // Assert - only the delta accepted after the write lands on top of it
+        assertThat(response.quantityProductsInStock).isEqualTo(3);
+        Store persisted = QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(storeId));
+        assertThat(persisted.quantityProductsInStock).isEqualTo(4);
+        assertThat(storeStockCounters.pendingDelta(persisted)).isZero();
+    }
+
+    @Test
+    void update_KeepsPendingDeltas_WhenTheWriteRollsBack() {
+        // Arrange
+        Long storeId = createStoreInternally("Rollback Store", 10);
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(5));
+        Store update = new Store("Rollback Store");
+        update.quantityProductsInStock = 3;
+
+        // Act
+        assertThatThrownBy(() -> QuarkusTransaction.requiringNew().run(() -> {
+            storeResource.update(storeId, update, request, headers);
+            throw new IllegalStateException("rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+        storeStockCounters.flush();
+
+        // Assert
+        Store persisted = QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(storeId));
+        assertThat(persisted.quantityProductsInStock).isEqualTo(15);
+    }
+
+    @Test
+    void create_WritesOutboxEntryInSameTransaction() {
+        // Arrange
+        Store newStore = new Store();
+        newStore.name = "Outbox Store";
+        newStore.quantityProductsInStock = 7;
+
+        // Act
+        storeResource.create(newStore);
+
+        // Assert
+        StoreOutboxEntry entry = QuarkusTransaction.requiringNew()
+                .call(() -> StoreOutboxEntry.<StoreOutboxEntry>find("storeId", newStore.id).firstResult());
+        assertThat(entry).isNotNull();
+        assertThat(entry.eventType).isEqualTo(StoreEventType.CREATE);
+        assertThat(entry.storeName).isEqualTo("Outbox Store");
+        assertThat(entry.idempotencyKey).isNotBlank();
     }
 
     @Test
@@ -107,7 +410,7 @@ public class StoreResourceTransactionTest {
         Long id = store.id;
 
         // Act
-        Response response = storeResource.delete(id);
+        Response response = storeResource.delete(id, request, headers);
 
         // Assert
         assertThat(response.getStatus()).isEqualTo(204);
@@ -138,7 +441,7 @@ public class StoreResourceTransactionTest {
         updatedData.name = "Non-existent";
 
         // Act & Assert
-        assertThatThrownBy(() -> storeResource.update(999L, updatedData))
+        assertThatThrownBy(() -> storeResource.update(999L, updatedData, request, headers))
                 .isInstanceOf(WebApplicationException.class)
                 .extracting(e -> ((WebApplicationException) e).getResponse().getStatus())
                 .isEqualTo(404);
@@ -154,7 +457,7 @@ public class StoreResourceTransactionTest {
         invalidUpdate.name = null; // Name is required
 
         // Act & Assert
-        assertThatThrownBy(() -> storeResource.update(id, invalidUpdate))
+        assertThatThrownBy(() -> storeResource.update(id, invalidUpdate, request, headers))
                 .isInstanceOf(WebApplicationException.class)
                 .extracting(e -> ((WebApplicationException) e).getResponse().getStatus())
                 .isEqualTo(422);
@@ -163,7 +466,7 @@ public class StoreResourceTransactionTest {
     @Test
     void patch_ThrowsException_WhenStoreNotFound() {
         // Act & Assert
-        assertThatThrownBy(() -> storeResource.patch(999L, new Store()))
+        assertThatThrownBy(() -> storeResource.patch(999L, new Store(), request, headers))
                 .isInstanceOf(WebApplicationException.class)
                 .hasMessageContaining("Store Name was not set on request.");
     }
@@ -171,18 +474,168 @@ public class StoreResourceTransactionTest {
     @Test
     void delete_ThrowsException_WhenStoreNotFound() {
         // Act & Assert
-        assertThatThrownBy(() -> storeResource.delete(999L))
+        assertThatThrownBy(() -> storeResource.delete(999L, request, headers))
                 .isInstanceOf(WebApplicationException.class)
                 .extracting(e -> ((WebApplicationException) e).getResponse().getStatus())
                 .isEqualTo(404);
     }
+    @Test
+    void get_PagesByNameWithCursorAndPrefix() {
+        // Arrange
+        createStoreInternally("Alpha", 1);
+        createStoreInternally("Beta 1", 2);
+        createStoreInternally("Beta 2", 3);
+        createStoreInternally("Beta 3", 4);
+        createStoreInternally("Gamma", 5);
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUriBuilder()).thenAnswer(i -> UriBuilder.fromUri("http://localhost/store"));
+
+        // Act
+        Response first = storeResource.get("name", null, "Beta", 2, uriInfo, headers);
+        String cursor = first.getHeaderString(StoreResource.NEXT_CURSOR_HEADER);
+        Response second = storeResource.get("name", cursor, "Beta", 2, uriInfo, headers);
+
+        // Assert
+        assertThat(stores(first)).extracting(store -> store.name).containsExactly("Beta 1", "Beta 2");
+        assertThat(cursor).isEqualTo("Beta 2");
+        assertThat(first.getLink("next").getUri().getQuery()).contains("after=Beta");
+        assertThat(stores(second)).extracting(store -> store.name).containsExactly("Beta 3");
+        assertThat(second.getHeaderString(StoreResource.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void get_PagesById() {
+        // Arrange
+        Long firstId = createStoreInternally("One", 1);
+        Long secondId = createStoreInternally("Two", 2);
+
+        // Act
+        Response response = storeResource.get("id", firstId.toString(), null, 10, mock(UriInfo.class), headers);
+
+        // Assert
+        assertThat(stores(response)).extracting(store -> store.id).containsExactly(secondId);
+    }
+
+    @Test
+    void get_Throws400_ForUnsupportedSortOrCursor() {
+        // Act & Assert
+        assertThatThrownBy(() -> storeResource.get("bogus", null, null, 10, mock(UriInfo.class), headers))
+                .isInstanceOf(WebApplicationException.class)
+                .extracting(e -> ((WebApplicationException) e).getResponse().getStatus())
+                .isEqualTo(400);
+        assertThatThrownBy(() -> storeResource.get("id", "x", null, 10, mock(UriInfo.class), headers))
+                .isInstanceOf(WebApplicationException.class)
+                .extracting(e -> ((WebApplicationException) e).getResponse().getStatus())
+                .isEqualTo(400);
+    }
+
+    @Test
+    void get_ServesCommittedChangesFromTheCatalog() {
+        // Arrange
+        Store created = (Store) storeResource.create(new Store("Catalog Store")).getEntity();
+        storeResource.get("name", null, null, 10, mock(UriInfo.class), headers);
+
+        // Act
+        Store renamed = new Store("Renamed Store");
+        renamed.quantityProductsInStock = 7;
+        storeResource.update(created.id, renamed, request, headers);
+        Response afterUpdate = storeResource.get("name", null, null, 10, mock(UriInfo.class), headers);
+        storeResource.delete(created.id, request, headers);
+        Response afterDelete = storeResource.get("name", null, null, 10, mock(UriInfo.class), headers);
+
+        // Assert
+        assertThat(stores(afterUpdate)).extracting(store -> store.name, store -> store.quantityProductsInStock)
+                .containsExactly(tuple("Renamed Store", 7));
+        assertThat(stores(afterDelete)).isEmpty();
+    }
+
+    @Test
+    void get_ShowsTheSameStockAsGetSingle_AcrossAFlush() {
+        // Arrange
+        Long storeId = createStoreInternally("Listed Store", 10);
+        storeResource.get("name", null, null, 10, mock(UriInfo.class), headers);
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(5));
+
+        // Act
+        Response beforeFlush = storeResource.get("name", null, null, 10, mock(UriInfo.class), headers);
+        storeStockCounters.flush();
+        Response afterFlush = storeResource.get("name", null, null, 10, mock(UriInfo.class), headers);
+
+        // Assert
+        assertThat(stores(beforeFlush)).extracting(store -> store.quantityProductsInStock).containsExactly(15);
+        assertThat(stores(afterFlush)).extracting(store -> store.quantityProductsInStock).containsExactly(15);
+        assertThat(((Store) getSingle(storeId, request).getEntity()).quantityProductsInStock).isEqualTo(15);
+    }
+
+    @Test
+    void startImport_DiffsDumpAgainstStoresByName() throws IOException {
+        // Arrange
+        Long changedId = createStoreInternally("Changed", 1);
+        createStoreInternally("Unchanged", 2);
+        writeDump("stores.dump", "New;7\nNew;8\nChanged;5\nUnchanged;2\nmalformed\n");
+
+        // Act
+        StoreDumpImportStatus status = importDump("stores.dump", false);
+
+        // Assert
+        assertThat(status.state).isEqualTo(StoreDumpImportStatus.State.COMPLETED);
+        assertThat(status.records).isEqualTo(5);
+        assertThat(status.inserted).isEqualTo(1);
+        assertThat(status.updated).isEqualTo(1);
+        assertThat(status.unchanged).isEqualTo(1);
+        assertThat(status.rejected).isEqualTo(1);
+        assertThat(status.bytesProcessed).isEqualTo(status.bytesTotal);
+        Store changed = QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(changedId));
+        assertThat(changed.quantityProductsInStock).isEqualTo(5);
+        assertThat(changed.version).isEqualTo(1);
+        Store inserted = QuarkusTransaction.requiringNew().call(() -> Store.<Store>find("name", "New").firstResult());
+        assertThat(inserted.quantityProductsInStock).isEqualTo(8);
+        assertThat(verifyNoSync()).as("Imported changes are not sent back to the legacy system").isTrue();
+    }
+
+    @Test
+    void startImport_ResumesFromCheckpoint() throws IOException {
+        // Arrange
+        Path dump = writeDump("resume.dump", "Skipped;1\nImported;2\n");
+        Files.writeString(dump.resolveSibling("resume.dump" + StoreDumpImporter.CHECKPOINT_SUFFIX), "10");
+
+        // Act
+        StoreDumpImportStatus status = importDump("resume.dump", true);
+
+        // Assert
+        assertThat(status.startOffset).isEqualTo(10);
+        assertThat(status.records).isEqualTo(1);
+        assertThat(QuarkusTransaction.requiringNew().call(() -> Store.count("name", "Skipped"))).isZero();
+        assertThat(QuarkusTransaction.requiringNew().call(() -> Store.count("name", "Imported"))).isEqualTo(1);
+        assertThat(dump.resolveSibling("resume.dump" + StoreDumpImporter.CHECKPOINT_SUFFIX)).doesNotExist();
+    }
+
+    @Test
+    void export_StreamsCsvWithPendingStock() throws IOException {
+        // Arrange
+        Long firstId = createStoreInternally("First", 1);
+        Long secondId = createStoreInternally("Second, with comma", 2);
+        storeResource.adjustStock(firstId, new StoreResource.StockAdjustment(4));
+
+        // Act
+        Response response = storeResource.export("csv");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(body);
+
+        // Assert
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,name,quantityProductsInStock\n"
+                        + firstId + ",First,5\n"
+                        + secondId + ",\"Second, with comma\",2\n");
+    }
+
     @Test
     void getSingle_ReturnsStore_WhenIdExists() {
         // Arrange - Create a store to retrieve
         Long existingId = createStoreInternally("Find Me Store", 200);
 
         // Act
-        Store foundStore = storeResource.getSingle(existingId);
+        Store foundStore = (Store) storeResource.getSingle(existingId, request, headers).getEntity();
 
         // Assert
         assertThat(foundStore).isNotNull();
@@ -191,13 +644,38 @@ public class StoreResourceTransactionTest {
         assertThat(foundStore.quantityProductsInStock).isEqualTo(200);
     }
 
+    @Test
+    void getSingle_TagsThePersistedVersion_AndKeepsPendingStockOutOfCaches() {
+        // Arrange
+        Long storeId = createStoreInternally("Tagged Store", 10);
+        Response persisted = getSingle(storeId, request);
+        EntityTag etag = persisted.getEntityTag();
+        storeResource.adjustStock(storeId, new StoreResource.StockAdjustment(5));
+
+        // Act
+        Response pending = getSingle(storeId, ifNoneMatch(etag));
+        Store update = new Store("Tagged Store");
+        update.quantityProductsInStock = 20;
+        Response updated = storeResource.update(storeId, update, ifMatch(etag), headers);
+
+        // Assert - same validator while only deltas are pending, so If-Match still passes
+        assertThat(persisted.getHeaderString(HttpHeaders.CACHE_CONTROL)).isNull();
+        assertThat(pending.getStatus()).isEqualTo(200);
+        assertThat(pending.getEntityTag()).isEqualTo(etag);
+        assertThat(pending.getHeaderString(HttpHeaders.CACHE_CONTROL)).contains("no-store");
+        assertThat(((Store) pending.getEntity()).quantityProductsInStock).isEqualTo(15);
+        assertThat(updated.getStatus()).isEqualTo(200);
+        assertThat(updated.getEntityTag()).isNotEqualTo(etag);
+        assertThat(getSingle(storeId, ifNoneMatch(updated.getEntityTag())).getStatus()).isEqualTo(304);
+    }
+
     @Test
     void getSingle_Throws404_WhenIdDoesNotExist() {
         // Arrange
         Long nonExistentId = 9999L;
 
         // Act & Assert
-        assertThatThrownBy(() -> storeResource.getSingle(nonExistentId))
+        assertThatThrownBy(() -> storeResource.getSingle(nonExistentId, request, headers))
                 .isInstanceOf(WebApplicationException.class)
                 .satisfies(e -> {
                     WebApplicationException wae = (WebApplicationException) e;
@@ -216,4 +694,63 @@ public class StoreResourceTransactionTest {
         s.persist();
         return s.id;
     }
+
+    // Each call gets its own persistence context, as a request would
+    private Response getSingle(Long storeId, Request request) {
+        return QuarkusTransaction.requiringNew().call(() -> storeResource.getSingle(storeId, request, headers));
+    }
+
+    private static Request ifNoneMatch(EntityTag tag) {
+        Request conditional = mock(Request.class);
+        when(conditional.evaluatePreconditions(any(EntityTag.class))).thenAnswer(invocation ->
+                tag.equals(invocation.getArgument(0)) ? Response.notModified() : null);
+        return conditional;
+    }
+
+    private static Request ifMatch(EntityTag tag) {
+        Request conditional = mock(Request.class);
+        when(conditional.evaluatePreconditions(any(EntityTag.class))).thenAnswer(invocation ->
+                tag.equals(invocation.getArgument(0)) ? null : Response.status(412));
+        return conditional;
+    }
+
+    private Path writeDump(String fileName, String content) throws IOException {
+        Path dump = Path.of("target/store-dumps", fileName);
+        Files.createDirectories(dump.getParent());
+        return Files.writeString(dump, content, StandardCharsets.UTF_8);
+    }
+
+    private StoreDumpImportStatus importDump(String fileName, boolean resume) {
+        storeDumpImporter.start(fileName, resume);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            StoreDumpImportStatus status = storeDumpImporter.status();
+            if (status.state != StoreDumpImportStatus.State.RUNNING) {
+                return status;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Store dump import still running: " + status.records + " records");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted while waiting for the import", e);
+            }
+        }
+    }
+
+    private boolean verifyNoSync() {
+        verify(legacyStoreManagerGateway, after(500).never()).updateStoreOnLegacySystem(any(Store.class), anyString());
+        verify(legacyStoreManagerGateway, never()).createStoreOnLegacySystem(any(Store.class), anyString());
+        return true;
+    }
+
+    private List<Store> stores(Response response) {
+        try {
+            return objectMapper.readValue((byte[]) response.getEntity(), new TypeReference<List<Store>>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
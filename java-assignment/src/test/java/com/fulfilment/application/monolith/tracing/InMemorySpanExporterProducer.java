@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.tracing;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Collects finished spans in memory for Quarkus tests, so trace structure and timing can be
+ * asserted without a collector. Picked up as a span exporter because it is a CDI bean.
+ */
+@ApplicationScoped
+public class InMemorySpanExporterProducer {
+
+  @Produces
+  @Singleton
+  InMemorySpanExporter inMemorySpanExporter() {
+    return InMemorySpanExporter.create();
+  }
+}
@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.tracing;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.function.Predicate;
+
+/** Waits for spans that are exported asynchronously, after they end. */
+public final class Spans {
+
+  private static final long TIMEOUT_MILLIS = 5000;
+
+  private Spans() {}
+
+  public static SpanData await(InMemorySpanExporter exporter, Predicate<SpanData> matches) {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (true) {
+      for (SpanData span : exporter.getFinishedSpanItems()) {
+        if (matches.test(span)) {
+          return span;
+        }
+      }
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("No matching span among " + exporter.getFinishedSpanItems());
+      }
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AssertionError("Interrupted while waiting for a span", e);
+      }
+    }
+  }
+}
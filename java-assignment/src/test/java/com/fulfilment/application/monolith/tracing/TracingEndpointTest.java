@@ -0,0 +1,46 @@
+package com.fulfilment.application.monolith.tracing;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class TracingEndpointTest {
+
+  @Inject InMemorySpanExporter spanExporter;
+
+  @Test
+  public void testTracing() {
+    given()
+        .contentType("application/json")
+        .body(Map.of("warehouseBusinessUnitCode", "MWH.023", "productId", 2, "storeId", 1))
+        .when()
+        .post("associations")
+        .then()
+        .statusCode(201);
+    given().when().delete("associations/MWH.023/2/1").then().statusCode(204);
+
+    // Resource method, use case, repository method, then the statement itself
+    SpanData request = Spans.await(spanExporter, span -> span.getName().equals("POST /associations"));
+    SpanData useCase =
+        Spans.await(
+            spanExporter,
+            span -> span.getName().equals("CreateAssociationUseCase.create") && span.getParentSpanId().equals(request.getSpanId()));
+    SpanData repository =
+        Spans.await(
+            spanExporter,
+            span -> span.getName().equals("AssociationRepository.countWarehousesByProductAndStore")
+                && span.getParentSpanId().equals(useCase.getSpanId()));
+    Spans.await(spanExporter, span -> span.getParentSpanId().equals(repository.getSpanId()));
+
+    assertThat(useCase.getStartEpochNanos()).isGreaterThanOrEqualTo(request.getStartEpochNanos());
+    assertThat(useCase.getEndEpochNanos()).isLessThanOrEqualTo(request.getEndEpochNanos());
+    assertThat(repository.getEndEpochNanos()).isLessThanOrEqualTo(useCase.getEndEpochNanos());
+  }
+}
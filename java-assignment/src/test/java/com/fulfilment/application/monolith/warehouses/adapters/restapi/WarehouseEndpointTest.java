@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+
+import com.fulfilment.application.monolith.querystats.QueryBudget;
+import com.fulfilment.application.monolith.querystats.QueryStats;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseEndpointTest {
+
+  @Test
+  public void testQueryBudget() {
+    // Listing is one select however many rows there are, never one per row
+    given()
+        .when()
+        .get("warehouse")
+        .then()
+        .statusCode(200)
+        .header(QueryStats.HEADER, QueryBudget.statements(1))
+        .header(QueryStats.HEADER, QueryBudget.collectionsAtMost(0));
+    given().when().get("warehouse/2").then().statusCode(200).header(QueryStats.HEADER, QueryBudget.statementsAtMost(1));
+  }
+}
@@ -1,10 +1,13 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseStateException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +28,12 @@ public class ArchiveWarehouseUseCaseTest {
     @Mock
     private WarehouseStore warehouseStore;
 
+    @Mock
+    private CleanupAssociationsUseCase cleanupAssociationsUseCase;
+
+    @Mock
+    private Event<WarehouseStockEvent> warehouseStockEvent;
+
     @InjectMocks
     private ArchiveWarehouseUseCase archiveWarehouseUseCase;
 
@@ -54,7 +64,10 @@ public class ArchiveWarehouseUseCaseTest {
                 .as("Archived timestamp should be set")
                 .isNotNull();
         verify(warehouseStore).findByBusinessUnitCode(BUSINESS_UNIT_CODE);
+        verify(cleanupAssociationsUseCase).removeByWarehouse(BUSINESS_UNIT_CODE);
         verify(warehouseStore).remove(activeWarehouse);
+        verify(warehouseStockEvent).fire(argThat(event -> event.getBusinessUnitCode().equals(BUSINESS_UNIT_CODE)
+                && event.getStock() == null));
     }
 
     @Test
@@ -69,6 +82,7 @@ public class ArchiveWarehouseUseCaseTest {
 
         verify(warehouseStore).findByBusinessUnitCode(BUSINESS_UNIT_CODE);
         verify(warehouseStore, never()).remove(any());
+        verifyNoInteractions(cleanupAssociationsUseCase);
     }
 
     @Test
@@ -84,6 +98,7 @@ public class ArchiveWarehouseUseCaseTest {
 
         verify(warehouseStore).findByBusinessUnitCode(BUSINESS_UNIT_CODE);
         verify(warehouseStore, never()).remove(any());
+        verifyNoInteractions(cleanupAssociationsUseCase);
     }
 
     @Test
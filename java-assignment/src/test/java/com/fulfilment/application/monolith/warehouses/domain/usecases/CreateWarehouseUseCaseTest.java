@@ -6,8 +6,10 @@ import com.fulfilment.application.monolith.warehouses.domain.exceptions.Location
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyExistsException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +20,7 @@ import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +35,9 @@ public class CreateWarehouseUseCaseTest {
         @Mock
         private WarehouseRepository warehouseRepository;
 
+        @Mock
+        private Event<WarehouseStockEvent> warehouseStockEvent;
+
         private CreateWarehouseUseCase createWarehouseUseCase;
 
         private Warehouse validWarehouse;
@@ -43,7 +49,7 @@ public class CreateWarehouseUseCaseTest {
         void setUp() {
                 // Manual constructor injection to ensure mocks are properly used
                 createWarehouseUseCase = new CreateWarehouseUseCase(warehouseStore, locationResolver,
-                                warehouseRepository);
+                                warehouseRepository, warehouseStockEvent);
                 // Setup valid warehouse
                 validWarehouse = new Warehouse();
                 validWarehouse.businessUnitCode = BUSINESS_UNIT_CODE;
@@ -75,6 +81,8 @@ public class CreateWarehouseUseCaseTest {
                 // Assert
                 // Verify the interaction
                 verify(warehouseStore).create(any(Warehouse.class));
+                verify(warehouseStockEvent).fire(argThat(event -> event.getBusinessUnitCode().equals(BUSINESS_UNIT_CODE)
+                                && event.getStock() == 50));
 
                 // Verify the created warehouse properties
                 assertThat(createdWarehouse[0])
@@ -1,12 +1,15 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.associations.usecases.CleanupAssociationsUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.BusinessRuleViolationException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseStockEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +37,12 @@ public class ReplaceWarehouseUseCaseTest {
         @Mock
         private LocationResolver locationResolver;
 
+        @Mock
+        private CleanupAssociationsUseCase cleanupAssociationsUseCase;
+
+        @Mock
+        private Event<WarehouseStockEvent> warehouseStockEvent;
+
         @InjectMocks
         private ReplaceWarehouseUseCase replaceWarehouseUseCase;
 
@@ -90,6 +99,7 @@ public class ReplaceWarehouseUseCaseTest {
                 // Verify new warehouse is created with correct properties
                 verify(warehouseStore).create(warehouseCaptor.capture());
                 Warehouse createdWarehouse = warehouseCaptor.getAllValues().get(1);
+                verify(cleanupAssociationsUseCase).relinkReplacedWarehouse(BUSINESS_UNIT_CODE);
                 assertThat(createdWarehouse)
                                 .as("Created warehouse should have correct properties")
                                 .satisfies(w -> {